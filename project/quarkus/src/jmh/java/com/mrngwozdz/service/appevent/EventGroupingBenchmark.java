@@ -0,0 +1,74 @@
+package com.mrngwozdz.service.appevent;
+
+import com.mrngwozdz.api.model.EventGroupDTO;
+import com.mrngwozdz.database.AppEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Event grouping done by AppEventService: building a page of groups from raw rows (GET /events)
+ * and appending to in-progress groups for the live broadcast (EventGroupCache).
+ * Lives in the service package to reach the package-private EventGroupState.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventGroupingBenchmark {
+
+    @Param({"50", "500"})
+    private int groupCount;
+
+    private List<AppEvent> events;
+    private EventGroupCache cache;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Instant start = Instant.parse("2025-01-01T00:00:00Z");
+        events = new ArrayList<>(groupCount * 2);
+        for (int i = 0; i < groupCount; i++) {
+            UUID serial = UUID.randomUUID();
+            Instant requestAt = start.plusMillis(i * 10L);
+            events.add(event(serial, "API_REQUEST", i, requestAt));
+            events.add(event(serial, "API_RESPONSE", i, requestAt.plusMillis(5)));
+        }
+
+        cache = new EventGroupCache();
+        cache.maxGroups = 10_000;
+        cache.expireAfter = Duration.ofMinutes(5);
+    }
+
+    @Benchmark
+    public List<EventGroupDTO> groupRecentEvents() {
+        Map<UUID, List<AppEvent>> grouped = events.stream()
+                .collect(Collectors.groupingBy(AppEvent::getSerial));
+        return grouped.entrySet().stream()
+                .map(entry -> EventGroupState.of(entry.getKey(), entry.getValue()).toDto())
+                .toList();
+    }
+
+    @Benchmark
+    public EventGroupDTO appendToCache() {
+        AppEvent event = events.get(next);
+        next = (next + 1) % events.size();
+        return cache.append(event);
+    }
+
+    private static AppEvent event(UUID serial, String type, int index, Instant createdAt) {
+        AppEvent event = new AppEvent(serial, type, "[" + serial + "] API call to EventController.getEvents",
+                "{\"requestId\":\"" + serial + "\",\"index\":" + index + "}");
+        event.setCreatedAt(createdAt);
+        return event;
+    }
+}
@@ -19,19 +19,22 @@ public interface EventsApi {
 
     @Operation(
             summary = "Get recent events",
-            description = "Returns a list of recent application events",
+            description = "Returns complete groups of recent application events, newest first. Use the returned 'next' cursor as 'before' to get older groups",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
                             description = "Events retrieved successfully",
                             content = @Content(schema = @Schema(implementation = GetEventsResponse.class))
-                    )
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Invalid limit or cursor")
             }
     )
     @GET
     Response getEvents(
             @Parameter(description = "Maximum number of events to return")
-            @QueryParam("limit") @DefaultValue("50") int limit
+            @QueryParam("limit") @DefaultValue("50") int limit,
+            @Parameter(description = "Cursor returned as 'next' by the previous page")
+            @QueryParam("before") String before
     );
 
 }
\ No newline at end of file
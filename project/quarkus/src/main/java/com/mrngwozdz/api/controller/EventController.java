@@ -1,31 +1,42 @@
 package com.mrngwozdz.api.controller;
 
 import com.mrngwozdz.api.EventsApi;
-import com.mrngwozdz.api.model.EventGroupDTO;
 import com.mrngwozdz.api.model.response.GetEventsResponse;
 import com.mrngwozdz.common.annotation.LogRequestResponse;
 import com.mrngwozdz.service.appevent.AppEventService;
+import com.mrngwozdz.service.appevent.EventGroupCursor;
+import com.mrngwozdz.service.appevent.EventGroupPage;
 import io.smallrye.mutiny.Multi;
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
 import lombok.RequiredArgsConstructor;
 import org.jboss.resteasy.reactive.RestSseElementType;
 
-import java.util.List;
-
 @LogRequestResponse
 @RequiredArgsConstructor
 public class EventController implements EventsApi {
 
+    private static final int MAX_LIMIT = 500;
+
     private final AppEventService appEventService;
 
     @Override
-    public Response getEvents(int limit) {
-        List<EventGroupDTO> eventGroups = appEventService.getRecentEventGroups(limit);
-        GetEventsResponse response = new GetEventsResponse(eventGroups);
+    public Response getEvents(int limit, String before) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        EventGroupCursor cursor = before == null || before.isBlank() ? null : EventGroupCursor.decode(before);
+
+        EventGroupPage page = appEventService.getRecentEventGroups(limit, cursor);
+        String next = page.next() != null ? page.next().encode() : null;
+        GetEventsResponse response = new GetEventsResponse(page.groups(), next);
         return Response.ok(response).build();
     }
 
@@ -34,8 +45,8 @@ public class EventController implements EventsApi {
     @Produces(MediaType.SERVER_SENT_EVENTS)
     @RestSseElementType(MediaType.APPLICATION_JSON)
     @io.smallrye.common.annotation.NonBlocking
-    public Multi<String> streamEvents() {
-        return appEventService.getEventStream();
+    public Multi<OutboundSseEvent> streamEvents(@Context Sse sse) {
+        return appEventService.getEventStream(sse);
     }
 
 }
\ No newline at end of file
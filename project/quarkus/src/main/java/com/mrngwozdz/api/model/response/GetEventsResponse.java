@@ -1,12 +1,15 @@
 package com.mrngwozdz.api.model.response;
 
 import com.mrngwozdz.api.model.EventGroupDTO;
-import com.mrngwozdz.database.AppEvent;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 import java.util.List;
 
 @RegisterForReflection
 public record GetEventsResponse(
-        List<EventGroupDTO> events
+        List<EventGroupDTO> events,
+
+        @Schema(description = "Cursor for the next page (pass as 'before'), null on the last page")
+        String next
 ) {
 }
\ No newline at end of file
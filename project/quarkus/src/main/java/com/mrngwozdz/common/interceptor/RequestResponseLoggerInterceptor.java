@@ -33,15 +33,17 @@ public class RequestResponseLoggerInterceptor {
         
         long startTime = System.currentTimeMillis();
         
-        // Log request
-        String requestData = serializeParameters(context.getParameters());
-        log.info("[{}] Request to {}.{} - Parameters: {}", requestId, className, methodName, requestData);
-        
         // Skip logging for SSE stream endpoints to avoid transaction issues
+        // (their only parameter is the injected Sse context, which is not serializable)
         if (methodName.equals("streamEvents")) {
+            log.info("[{}] Request to {}.{}", requestId, className, methodName);
             return context.proceed();
         }
         
+        // Log request
+        String requestData = serializeParameters(context.getParameters());
+        log.info("[{}] Request to {}.{} - Parameters: {}", requestId, className, methodName, requestData);
+        
         // Log as event with serial UUID
         appEventService.logEvent(serial, new EventRequest(
                 "API_REQUEST", 
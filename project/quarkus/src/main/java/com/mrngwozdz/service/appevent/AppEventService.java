@@ -3,15 +3,16 @@ package com.mrngwozdz.service.appevent;
 import com.mrngwozdz.service.appevent.data.EventRepository;
 import com.mrngwozdz.api.model.request.EventRequest;
 import com.mrngwozdz.api.model.EventGroupDTO;
-import com.mrngwozdz.api.model.EventItemDTO;
 import com.mrngwozdz.database.AppEvent;
 import io.smallrye.mutiny.Multi;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.transaction.Transactional;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
 import lombok.RequiredArgsConstructor;
 
-import java.time.Duration;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -21,8 +22,13 @@ public class AppEventService {
 
     private final EventRepository eventRepository;
     private final Event<EventGroupDTO> eventBroadcast;
+    private final SseEventService sseEventService;
+    private final AppEventWriter appEventWriter;
+    private final EventGroupCache eventGroupCache;
 
-    @Transactional
+    /**
+     * Hands the event to the write-behind pipeline; it is persisted and broadcast asynchronously.
+     */
     public void logEvent(UUID serial, EventRequest request) {
         AppEvent event = new AppEvent(
                 serial,
@@ -30,88 +36,67 @@ public class AppEventService {
                 request.description(),
                 request.eventData()
         );
-        eventRepository.persist(event);
-        
-        EventGroupDTO group = buildEventGroup(serial);
-        if (group != null) {
-            eventBroadcast.fire(group);
-        }
+        appEventWriter.enqueue(event);
     }
 
-    public Multi<String> getEventStream() {
-        return SseEventService.getEventStream();
-    }
+    /**
+     * Broadcasts the groups touched by a committed batch. Group state is kept incrementally in
+     * EventGroupCache; only groups that are not cached anymore are reloaded, in one query.
+     */
+    void onEventsPersisted(@Observes PersistedEventBatch batch) {
+        Map<UUID, EventGroupDTO> updatedGroups = new LinkedHashMap<>();
+        Set<UUID> missingSerials = new HashSet<>();
 
-    private EventGroupDTO buildEventGroup(UUID serial) {
-        List<AppEvent> groupEvents = eventRepository.findBySerial(serial);
-        if (groupEvents.isEmpty()) {
-            return null;
+        for (AppEvent event : batch.events()) {
+            if (missingSerials.contains(event.getSerial())) {
+                continue;
+            }
+            EventGroupDTO group = eventGroupCache.append(event);
+            if (group != null) {
+                updatedGroups.put(event.getSerial(), group);
+            } else {
+                missingSerials.add(event.getSerial());
+            }
         }
-        
-        groupEvents.sort(Comparator.comparing(AppEvent::getCreatedAt));
-        String methodName = extractMethodName(groupEvents.get(0).getDescription());
-        Long duration = calculateDuration(groupEvents);
-        String status = groupEvents.stream()
-                .anyMatch(e -> "API_ERROR".equals(e.getEventType())) ? "FAILURE" : "SUCCESS";
-        List<EventItemDTO> eventItems = groupEvents.stream()
-                .map(e -> new EventItemDTO(e.getEventType(), e.getDescription(), e.getEventData(), e.getCreatedAt()))
-                .toList();
-        
-        return new EventGroupDTO(serial, methodName, duration, status, eventItems);
-    }
 
-    public List<EventGroupDTO> getRecentEventGroups(int limit) {
-        List<AppEvent> events = eventRepository.findRecent(limit * 10);
-        
-        Map<UUID, List<AppEvent>> groupedEvents = events.stream()
-                .collect(Collectors.groupingBy(AppEvent::getSerial));
-        
-        return groupedEvents.entrySet().stream()
-                .map(entry -> {
-                    UUID serial = entry.getKey();
-                    List<AppEvent> groupEvents = entry.getValue();
-                    groupEvents.sort(Comparator.comparing(AppEvent::getCreatedAt));
-                    String methodName = extractMethodName(groupEvents.getFirst().getDescription());
-                    Long duration = calculateDuration(groupEvents);
-                    String status = groupEvents.stream()
-                            .anyMatch(e -> "API_ERROR".equals(e.getEventType())) ? "FAILURE" : "SUCCESS";
-                    List<EventItemDTO> eventItems = groupEvents.stream()
-                            .map(e -> new EventItemDTO(e.getEventType(), e.getDescription(), e.getEventData(), e.getCreatedAt()))
-                            .toList();
-                    
-                    return new EventGroupDTO(serial, methodName, duration, status, eventItems);
-                })
-                .sorted((g1, g2) -> g2.events().getFirst().createdAt().compareTo(g1.events().getFirst().createdAt()))
-                .limit(limit)
-                .toList();
-    }
-    
-    private String extractMethodName(String description) {
-        if (description.contains(".")) {
-            String[] parts = description.split("\\.");
-            if (parts.length > 1) {
-                return parts[parts.length - 1];
-            }
+        if (!missingSerials.isEmpty()) {
+            List<AppEvent> groupEvents = QuarkusTransaction.requiringNew()
+                    .call(() -> eventRepository.findBySerials(missingSerials));
+            groupEvents.stream()
+                    .collect(Collectors.groupingBy(AppEvent::getSerial))
+                    .forEach((serial, events) -> updatedGroups.put(serial, eventGroupCache.load(serial, events)));
         }
-        return "unknown";
+
+        updatedGroups.values().forEach(eventBroadcast::fire);
+    }
+
+    public Multi<OutboundSseEvent> getEventStream(Sse sse) {
+        return sseEventService.getEventStream(sse);
     }
 
-    private long calculateDuration(List<AppEvent> events) {
-        if (events == null || events.size() < 2) return 0L;
+    /**
+     * Returns complete event groups, newest first, starting after the given cursor.
+     * Two queries: the first events of the page's groups, then all events of exactly those groups.
+     */
+    public EventGroupPage getRecentEventGroups(int limit, EventGroupCursor before) {
+        // Read-your-writes: events logged so far (including this request's) get up to read-wait to be committed
+        appEventWriter.awaitHandled(appEventWriter.lastEnqueued());
 
-        var first = events.stream()
-                .map(AppEvent::getCreatedAt)
-                .filter(Objects::nonNull)
-                .min(Comparator.naturalOrder())
-                .orElse(null);
+        List<AppEvent> groupStarts = eventRepository.findRecentGroupStarts(before, limit + 1);
+        boolean hasMore = groupStarts.size() > limit;
+        List<AppEvent> pageStarts = hasMore ? groupStarts.subList(0, limit) : groupStarts;
+        if (pageStarts.isEmpty()) {
+            return new EventGroupPage(List.of(), null);
+        }
 
-        var last = events.stream()
-                .map(AppEvent::getCreatedAt)
-                .filter(Objects::nonNull)
-                .max(Comparator.naturalOrder())
-                .orElse(null);
+        Map<UUID, List<AppEvent>> groupedEvents = eventRepository.findBySerials(
+                        pageStarts.stream().map(AppEvent::getSerial).toList()).stream()
+                .collect(Collectors.groupingBy(AppEvent::getSerial));
 
-        if (first == null || last == null) return 0L;
-        return Math.max(Duration.between(first, last).toMillis(), 0L);
+        List<EventGroupDTO> groups = pageStarts.stream()
+                .map(start -> EventGroupState.of(start.getSerial(), groupedEvents.get(start.getSerial())).toDto())
+                .toList();
+        EventGroupCursor next = hasMore ? EventGroupCursor.of(pageStarts.getLast()) : null;
+        return new EventGroupPage(groups, next);
     }
 }
\ No newline at end of file
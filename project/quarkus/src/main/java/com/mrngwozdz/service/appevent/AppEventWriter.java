@@ -0,0 +1,242 @@
+package com.mrngwozdz.service.appevent;
+
+import com.mrngwozdz.database.AppEvent;
+import com.mrngwozdz.service.appevent.data.EventBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind pipeline for AppEvents. Request threads only enqueue into a bounded queue;
+ * a background flusher persists the queue in JDBC batches once batch-size events are waiting
+ * or flush-interval has passed, then fires a PersistedEventBatch.
+ *
+ * Accepted events are numbered in enqueue order. Readers that need the events logged so far capture
+ * {@link #lastEnqueued()} and wait for the flusher to get past it with {@link #awaitHandled}; they wake
+ * the flusher but never persist on their own thread.
+ *
+ * Metrics:
+ * - app.events.queue.size - events waiting to be persisted
+ * - app.events.dropped - events rejected by the backpressure policy
+ * - app.events.failed - events lost because their batch failed to persist
+ */
+@Slf4j
+@ApplicationScoped
+public class AppEventWriter {
+
+    @Inject
+    EventBatchRepository eventBatchRepository;
+
+    @Inject
+    Event<PersistedEventBatch> persistedEvents;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "app.events.write-behind.queue-capacity", defaultValue = "10000")
+    int queueCapacity;
+
+    @ConfigProperty(name = "app.events.write-behind.batch-size", defaultValue = "200")
+    int batchSize;
+
+    @ConfigProperty(name = "app.events.write-behind.flush-interval", defaultValue = "200ms")
+    Duration flushInterval;
+
+    @ConfigProperty(name = "app.events.write-behind.backpressure", defaultValue = "block")
+    EventBackpressurePolicy backpressure;
+
+    @ConfigProperty(name = "app.events.write-behind.block-timeout", defaultValue = "50ms")
+    Duration blockTimeout;
+
+    @ConfigProperty(name = "app.events.write-behind.sample-rate", defaultValue = "10")
+    int sampleRate;
+
+    @ConfigProperty(name = "app.events.write-behind.read-wait", defaultValue = "100ms")
+    Duration readWait;
+
+    @ConfigProperty(name = "app.events.write-behind.shutdown-timeout", defaultValue = "10s")
+    Duration shutdownTimeout;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final AtomicLong enqueuedEvents = new AtomicLong();
+    private final Object handledMonitor = new Object();
+    private volatile long handledEvents;
+    private BlockingQueue<AppEvent> queue;
+    private Counter droppedEvents;
+    private Counter failedEvents;
+    private Thread flusher;
+    private volatile boolean running;
+
+    void onStart(@Observes StartupEvent event) {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("app.events.queue.size", queue, BlockingQueue::size)
+                .description("AppEvents waiting to be persisted")
+                .register(meterRegistry);
+        droppedEvents = Counter.builder("app.events.dropped")
+                .tag("policy", backpressure.name().toLowerCase())
+                .description("AppEvents rejected by the write-behind backpressure policy")
+                .register(meterRegistry);
+        failedEvents = Counter.builder("app.events.failed")
+                .description("AppEvents lost because their batch failed to persist")
+                .register(meterRegistry);
+
+        running = true;
+        flusher = Thread.ofPlatform().name("app-event-writer").daemon().start(this::runFlusher);
+    }
+
+    void onStop(@Observes ShutdownEvent event) throws InterruptedException {
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(shutdownTimeout.toMillis());
+        flush();
+        log.info("AppEvent writer stopped, {} events left unpersisted", queue.size());
+    }
+
+    /**
+     * Enqueues the event for persistence, applying the backpressure policy when the queue is full.
+     *
+     * @return false if the event was dropped
+     */
+    public boolean enqueue(AppEvent event) {
+        boolean accepted = switch (backpressure) {
+            case BLOCK -> offerBlocking(event);
+            case DROP -> queue.offer(event);
+            case SAMPLE -> offerSampled(event);
+        };
+
+        if (accepted) {
+            enqueuedEvents.incrementAndGet();
+        } else {
+            droppedEvents.increment();
+            log.debug("Dropped {} event for serial {} ({} events queued)", event.getEventType(), event.getSerial(), queue.size());
+        }
+        if (accepted && queue.size() >= batchSize) {
+            LockSupport.unpark(flusher);
+        }
+        return accepted;
+    }
+
+    /**
+     * Sequence number of the last accepted event, to be passed to {@link #awaitHandled}.
+     */
+    public long lastEnqueued() {
+        return enqueuedEvents.get();
+    }
+
+    /**
+     * Wakes the flusher and waits until it has handled every event up to the given sequence number
+     * (persisted, or lost with a failed batch), for at most read-wait.
+     *
+     * @return false if read-wait passed first
+     */
+    public boolean awaitHandled(long sequence) {
+        if (handledEvents >= sequence) {
+            return true;
+        }
+        LockSupport.unpark(flusher);
+        long deadline = System.nanoTime() + readWait.toNanos();
+        synchronized (handledMonitor) {
+            while (handledEvents < sequence) {
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    log.debug("AppEvents up to {} not persisted within {}, {} handled so far", sequence, readWait, handledEvents);
+                    return false;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(handledMonitor, remainingNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Persists everything currently queued on the calling thread.
+     * Run by the flusher and on shutdown; readers use {@link #awaitHandled} instead.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<AppEvent> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                persist(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void runFlusher() {
+        while (running) {
+            if (queue.size() < batchSize) {
+                LockSupport.parkNanos(this, flushInterval.toNanos());
+            }
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.error("AppEvent flusher iteration failed", e);
+            }
+        }
+    }
+
+    private void persist(List<AppEvent> batch) {
+        try {
+            QuarkusTransaction.requiringNew().run(() -> eventBatchRepository.insertAll(batch));
+        } catch (RuntimeException e) {
+            failedEvents.increment(batch.size());
+            log.error("Failed to persist batch of {} AppEvents", batch.size(), e);
+            markHandled(batch.size());
+            return;
+        }
+        // Readers only wait for the commit, not for the broadcast
+        markHandled(batch.size());
+        persistedEvents.fire(new PersistedEventBatch(batch));
+    }
+
+    private void markHandled(int events) {
+        synchronized (handledMonitor) {
+            handledEvents += events;
+            handledMonitor.notifyAll();
+        }
+    }
+
+    private boolean offerBlocking(AppEvent event) {
+        try {
+            return queue.offer(event, blockTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean offerSampled(AppEvent event) {
+        if (queue.size() >= queueCapacity / 2 && sampleCounter.incrementAndGet() % sampleRate != 0) {
+            return false;
+        }
+        return queue.offer(event);
+    }
+}
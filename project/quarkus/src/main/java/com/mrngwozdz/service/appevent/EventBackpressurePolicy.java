@@ -0,0 +1,22 @@
+package com.mrngwozdz.service.appevent;
+
+/**
+ * What the request thread does when the write-behind queue of AppEvents is full.
+ */
+public enum EventBackpressurePolicy {
+
+    /**
+     * Wait up to the configured block timeout for space, then drop the event.
+     */
+    BLOCK,
+
+    /**
+     * Drop the event immediately.
+     */
+    DROP,
+
+    /**
+     * Once the queue is half full, keep only one of every sample-rate events; drop when full.
+     */
+    SAMPLE
+}
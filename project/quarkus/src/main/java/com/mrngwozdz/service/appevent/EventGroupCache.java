@@ -0,0 +1,115 @@
+package com.mrngwozdz.service.appevent;
+
+import com.mrngwozdz.api.model.EventGroupDTO;
+import com.mrngwozdz.database.AppEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-memory state of event groups that are still in progress, keyed by serial.
+ * Groups are evicted as soon as they complete (API_RESPONSE / API_ERROR), when the cache
+ * exceeds max-groups (least recently updated first) or when not updated for expire-after.
+ */
+@ApplicationScoped
+public class EventGroupCache {
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "app.events.group-cache.max-groups", defaultValue = "10000")
+    int maxGroups;
+
+    @ConfigProperty(name = "app.events.group-cache.expire-after", defaultValue = "5m")
+    Duration expireAfter;
+
+    private final Map<UUID, Entry> groups = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+            return size() > maxGroups;
+        }
+    };
+
+    void onStart(@Observes StartupEvent event) {
+        Gauge.builder("app.events.group.cache.size", this, EventGroupCache::size)
+                .description("Event groups kept in memory for incremental aggregation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Appends the event to its group.
+     *
+     * @return the updated group, or null if the group is unknown and the event does not start one
+     *         (the caller then has to load the whole group with {@link #load})
+     */
+    public synchronized EventGroupDTO append(AppEvent event) {
+        long now = System.nanoTime();
+        evictExpired(now);
+
+        Entry entry = groups.get(event.getSerial());
+        if (entry == null) {
+            if (!EventGroupState.REQUEST_EVENT.equals(event.getEventType())) {
+                return null;
+            }
+            entry = new Entry(new EventGroupState(event.getSerial()));
+            groups.put(event.getSerial(), entry);
+        }
+        entry.state.append(event);
+        return touch(event.getSerial(), entry, now);
+    }
+
+    /**
+     * Rebuilds a group that was not cached from all of its events.
+     */
+    public synchronized EventGroupDTO load(UUID serial, List<AppEvent> events) {
+        long now = System.nanoTime();
+        evictExpired(now);
+
+        Entry entry = new Entry(EventGroupState.of(serial, events));
+        groups.put(serial, entry);
+        return touch(serial, entry, now);
+    }
+
+    public synchronized int size() {
+        return groups.size();
+    }
+
+    private EventGroupDTO touch(UUID serial, Entry entry, long now) {
+        entry.updatedAtNanos = now;
+        if (entry.state.isCompleted()) {
+            groups.remove(serial);
+        }
+        return entry.state.toDto();
+    }
+
+    private void evictExpired(long now) {
+        // Access order: the eldest entries are the least recently updated ones
+        Iterator<Entry> iterator = groups.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().updatedAtNanos < expireAfter.toNanos()) {
+                return;
+            }
+            iterator.remove();
+        }
+    }
+
+    private static final class Entry {
+        private final EventGroupState state;
+        private long updatedAtNanos;
+
+        private Entry(EventGroupState state) {
+            this.state = state;
+        }
+    }
+}
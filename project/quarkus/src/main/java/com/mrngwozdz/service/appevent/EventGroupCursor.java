@@ -0,0 +1,37 @@
+package com.mrngwozdz.service.appevent;
+
+import com.mrngwozdz.database.AppEvent;
+import jakarta.ws.rs.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Keyset position in the list of event groups: the (created_at, id) of the first event of the
+ * last group on a page. Encoded as an opaque base64url token for the API.
+ */
+public record EventGroupCursor(Instant createdAt, Long id) {
+
+    public static EventGroupCursor of(AppEvent firstEvent) {
+        return new EventGroupCursor(firstEvent.getCreatedAt(), firstEvent.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static EventGroupCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new EventGroupCursor(
+                    Instant.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.mrngwozdz.service.appevent;
+
+import com.mrngwozdz.api.model.EventGroupDTO;
+
+import java.util.List;
+
+/**
+ * One page of event groups, newest first. {@code next} is null on the last page.
+ */
+public record EventGroupPage(List<EventGroupDTO> groups, EventGroupCursor next) {
+}
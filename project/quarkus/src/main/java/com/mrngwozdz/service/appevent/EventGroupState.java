@@ -0,0 +1,91 @@
+package com.mrngwozdz.service.appevent;
+
+import com.mrngwozdz.api.model.EventGroupDTO;
+import com.mrngwozdz.api.model.EventItemDTO;
+import com.mrngwozdz.database.AppEvent;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Running aggregate of the events sharing one serial. Appending an event updates
+ * method name, duration and status in O(1) instead of recomputing them from all events.
+ */
+final class EventGroupState {
+
+    static final String REQUEST_EVENT = "API_REQUEST";
+    static final String RESPONSE_EVENT = "API_RESPONSE";
+    static final String ERROR_EVENT = "API_ERROR";
+
+    private final UUID serial;
+    private final List<EventItemDTO> items = new ArrayList<>();
+    private String methodName;
+    private Instant firstAt;
+    private Instant lastAt;
+    private boolean failed;
+    private boolean completed;
+
+    EventGroupState(UUID serial) {
+        this.serial = serial;
+    }
+
+    /**
+     * Builds the state from a full list of group events, e.g. loaded from the database.
+     */
+    static EventGroupState of(UUID serial, List<AppEvent> events) {
+        EventGroupState state = new EventGroupState(serial);
+        events.stream()
+                .sorted(Comparator.comparing(AppEvent::getCreatedAt))
+                .forEach(state::append);
+        return state;
+    }
+
+    void append(AppEvent event) {
+        EventItemDTO item = new EventItemDTO(event.getEventType(), event.getDescription(), event.getEventData(), event.getCreatedAt());
+        Instant createdAt = event.getCreatedAt();
+
+        if (items.isEmpty() || !createdAt.isBefore(lastAt)) {
+            items.add(item);
+        } else {
+            // Out-of-order event (rare): keep items sorted chronologically
+            int index = items.size();
+            while (index > 0 && createdAt.isBefore(items.get(index - 1).createdAt())) {
+                index--;
+            }
+            items.add(index, item);
+        }
+
+        if (firstAt == null || createdAt.isBefore(firstAt)) {
+            firstAt = createdAt;
+            methodName = extractMethodName(event.getDescription());
+        }
+        if (lastAt == null || createdAt.isAfter(lastAt)) {
+            lastAt = createdAt;
+        }
+        failed |= ERROR_EVENT.equals(event.getEventType());
+        completed |= RESPONSE_EVENT.equals(event.getEventType()) || ERROR_EVENT.equals(event.getEventType());
+    }
+
+    boolean isCompleted() {
+        return completed;
+    }
+
+    EventGroupDTO toDto() {
+        long duration = items.size() < 2 ? 0L : Math.max(Duration.between(firstAt, lastAt).toMillis(), 0L);
+        return new EventGroupDTO(serial, methodName, duration, failed ? "FAILURE" : "SUCCESS", List.copyOf(items));
+    }
+
+    private static String extractMethodName(String description) {
+        if (description != null && description.contains(".")) {
+            String[] parts = description.split("\\.");
+            if (parts.length > 1) {
+                return parts[parts.length - 1];
+            }
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,11 @@
+package com.mrngwozdz.service.appevent;
+
+import com.mrngwozdz.database.AppEvent;
+
+import java.util.List;
+
+/**
+ * CDI event fired by AppEventWriter after a batch of AppEvents has been committed.
+ */
+public record PersistedEventBatch(List<AppEvent> events) {
+}
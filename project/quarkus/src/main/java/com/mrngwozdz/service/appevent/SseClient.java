@@ -0,0 +1,133 @@
+package com.mrngwozdz.service.appevent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One connected SSE client with its own bounded buffer.
+ * Messages are emitted only when the HTTP response has requested them, so a slow client
+ * never makes the broadcaster block or buffer without limit.
+ */
+@Slf4j
+final class SseClient {
+
+    record Message(String data, long publishedAtNanos) {
+
+        static final Message HEARTBEAT = new Message(null, 0L);
+
+        boolean isHeartbeat() {
+            return data == null;
+        }
+    }
+
+    private final int id;
+    private final Sse sse;
+    private final MultiEmitter<? super OutboundSseEvent> emitter;
+    private final int capacity;
+    private final SseOverflowPolicy overflowPolicy;
+    private final Counter droppedEvents;
+    private final Counter disconnectedClients;
+    private final Timer fanOutLatency;
+
+    private final Deque<Message> buffer = new ArrayDeque<>();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    SseClient(int id, Sse sse, MultiEmitter<? super OutboundSseEvent> emitter, int capacity,
+              SseOverflowPolicy overflowPolicy, Counter droppedEvents, Counter disconnectedClients,
+              Timer fanOutLatency) {
+        this.id = id;
+        this.sse = sse;
+        this.emitter = emitter;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.droppedEvents = droppedEvents;
+        this.disconnectedClients = disconnectedClients;
+        this.fanOutLatency = fanOutLatency;
+    }
+
+    void offer(Message message) {
+        boolean overflow;
+        synchronized (buffer) {
+            overflow = buffer.size() >= capacity;
+            if (overflow && overflowPolicy == SseOverflowPolicy.DROP_OLDEST) {
+                buffer.pollFirst();
+            }
+            if (!overflow || overflowPolicy == SseOverflowPolicy.DROP_OLDEST) {
+                buffer.offerLast(message);
+            }
+        }
+
+        if (overflow) {
+            droppedEvents.increment();
+            if (overflowPolicy == SseOverflowPolicy.DISCONNECT) {
+                log.warn("SSE client {} is too slow ({} buffered events), disconnecting", id, capacity);
+                disconnectedClients.increment();
+                emitter.complete();
+                return;
+            }
+        }
+        drain();
+    }
+
+    /**
+     * Sends a heartbeat comment only if nothing is waiting to be sent anyway.
+     */
+    void heartbeat() {
+        synchronized (buffer) {
+            if (!buffer.isEmpty()) {
+                return;
+            }
+            buffer.offerLast(Message.HEARTBEAT);
+        }
+        drain();
+    }
+
+    void complete() {
+        emitter.complete();
+    }
+
+    /**
+     * Emits buffered messages while there is downstream demand. Called on publish and whenever
+     * the client requests more; the work-in-progress counter makes it safe to call from any thread.
+     */
+    void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            while (emitter.requested() > 0 && !emitter.isCancelled()) {
+                Message message;
+                synchronized (buffer) {
+                    message = buffer.pollFirst();
+                }
+                if (message == null) {
+                    break;
+                }
+                emitter.emit(toEvent(message));
+                if (!message.isHeartbeat()) {
+                    fanOutLatency.record(System.nanoTime() - message.publishedAtNanos(), TimeUnit.NANOSECONDS);
+                }
+            }
+        } while (wip.decrementAndGet() != 0);
+    }
+
+    private OutboundSseEvent toEvent(Message message) {
+        if (message.isHeartbeat()) {
+            return sse.newEventBuilder().comment("heartbeat").build();
+        }
+        return sse.newEventBuilder()
+                .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                .data(message.data())
+                .build();
+    }
+}
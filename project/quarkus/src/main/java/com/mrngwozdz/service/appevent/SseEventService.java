@@ -3,49 +3,122 @@ package com.mrngwozdz.service.appevent;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mrngwozdz.api.model.EventGroupDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
 import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.BackPressureStrategy;
+import io.vertx.core.Vertx;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.time.Duration;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Push-based SSE hub. Every EventGroupDTO is serialized once and handed to each connected
+ * client's bounded buffer; clients receive it as soon as their connection can take it.
+ *
+ * Metrics:
+ * - sse.clients.connected - currently connected clients
+ * - sse.events.dropped - events dropped because a client buffer was full
+ * - sse.clients.disconnected - clients disconnected by the DISCONNECT overflow policy
+ * - sse.fanout.latency - time from publishing an event to writing it to a client
+ */
+@Slf4j
 @ApplicationScoped
 public class SseEventService {
 
     @Inject
     ObjectMapper objectMapper;
 
-    private static final ConcurrentHashMap<Integer, ConcurrentLinkedQueue<String>> sseClients = new ConcurrentHashMap<>();
-    private static final AtomicInteger clientIdCounter = new AtomicInteger(0);
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    Vertx vertx;
+
+    @ConfigProperty(name = "app.sse.buffer-size", defaultValue = "256")
+    int bufferSize;
+
+    @ConfigProperty(name = "app.sse.overflow-policy", defaultValue = "drop-oldest")
+    SseOverflowPolicy overflowPolicy;
+
+    @ConfigProperty(name = "app.sse.heartbeat-interval", defaultValue = "15s")
+    Duration heartbeatInterval;
+
+    private final Map<Integer, SseClient> clients = new ConcurrentHashMap<>();
+    private final AtomicInteger clientIdCounter = new AtomicInteger(0);
+
+    private Counter droppedEvents;
+    private Counter disconnectedClients;
+    private Timer fanOutLatency;
+    private long heartbeatTimerId = -1;
+
+    void onStart(@Observes StartupEvent event) {
+        Gauge.builder("sse.clients.connected", clients, Map::size)
+                .description("Connected SSE clients")
+                .register(meterRegistry);
+        droppedEvents = Counter.builder("sse.events.dropped")
+                .description("Events dropped because an SSE client buffer was full")
+                .register(meterRegistry);
+        disconnectedClients = Counter.builder("sse.clients.disconnected")
+                .tag("reason", "slow-consumer")
+                .description("SSE clients disconnected by the overflow policy")
+                .register(meterRegistry);
+        fanOutLatency = Timer.builder("sse.fanout.latency")
+                .description("Time from publishing an event to writing it to an SSE client")
+                .register(meterRegistry);
+
+        heartbeatTimerId = vertx.setPeriodic(heartbeatInterval.toMillis(),
+                id -> clients.values().forEach(SseClient::heartbeat));
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (heartbeatTimerId != -1) {
+            vertx.cancelTimer(heartbeatTimerId);
+        }
+        clients.values().forEach(SseClient::complete);
+    }
 
     public void onEventGroupUpdate(@Observes EventGroupDTO eventGroup) {
+        if (clients.isEmpty()) {
+            return;
+        }
         try {
             String json = objectMapper.writeValueAsString(eventGroup);
-            broadcast(json);
+            broadcast(new SseClient.Message(json, System.nanoTime()));
         } catch (JsonProcessingException e) {
-            e.printStackTrace();
+            log.error("Failed to serialize event group {}", eventGroup.serial(), e);
         }
     }
 
-    private void broadcast(String message) {
-        sseClients.values().forEach(queue -> queue.offer(message));
+    private void broadcast(SseClient.Message message) {
+        clients.values().forEach(client -> client.offer(message));
     }
 
-    public static Multi<String> getEventStream() {
-        int clientId = clientIdCounter.incrementAndGet();
-        ConcurrentLinkedQueue<String> clientQueue = new ConcurrentLinkedQueue<>();
-        sseClients.put(clientId, clientQueue);
-
-        return Multi.createFrom().ticks().every(Duration.ofSeconds(1))
-                .onItem().transform(tick -> {
-                    String message = clientQueue.poll();
-                    return message != null ? message : "";
-                })
-                .filter(message -> !message.isEmpty())
-                .onCancellation().invoke(() -> sseClients.remove(clientId));
+    public Multi<OutboundSseEvent> getEventStream(Sse sse) {
+        return Multi.createFrom().<OutboundSseEvent>emitter(emitter -> {
+            int clientId = clientIdCounter.incrementAndGet();
+            SseClient client = new SseClient(clientId, sse, emitter, bufferSize, overflowPolicy,
+                    droppedEvents, disconnectedClients, fanOutLatency);
+            emitter.onRequest(requested -> client.drain());
+            emitter.onTermination(() -> {
+                clients.remove(clientId);
+                log.debug("SSE client {} disconnected", clientId);
+            });
+            clients.put(clientId, client);
+            log.debug("SSE client {} connected", clientId);
+        }, BackPressureStrategy.ERROR);
     }
-}
\ No newline at end of file
+}
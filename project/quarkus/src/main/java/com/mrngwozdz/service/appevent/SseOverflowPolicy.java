@@ -0,0 +1,17 @@
+package com.mrngwozdz.service.appevent;
+
+/**
+ * What happens when an SSE client's buffer is full because it reads slower than events are published.
+ */
+public enum SseOverflowPolicy {
+
+    /**
+     * Drop the oldest buffered event to make room for the new one. The client stays connected.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Complete the client's stream. The browser EventSource reconnects and reloads a fresh state.
+     */
+    DISCONNECT
+}
@@ -0,0 +1,51 @@
+package com.mrngwozdz.service.appevent.data;
+
+import com.mrngwozdz.database.AppEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.SneakyThrows;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Plain JDBC batch insert for app_events. Hibernate cannot batch inserts of IDENTITY entities,
+ * so the write-behind flusher goes through this repository instead of EventRepository.persist.
+ * Must be called inside a transaction so the connection is enlisted and committed with it.
+ */
+@ApplicationScoped
+public class EventBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO app_events (serial, event_type, description, event_data, created_at)
+            VALUES (?, ?, ?, CAST(? AS jsonb), ?)
+            """;
+
+    @Inject
+    DataSource dataSource;
+
+    @SneakyThrows
+    public void insertAll(List<AppEvent> events) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            for (AppEvent event : events) {
+                statement.setObject(1, event.getSerial());
+                statement.setString(2, event.getEventType());
+                statement.setString(3, event.getDescription());
+                if (event.getEventData() != null) {
+                    statement.setString(4, event.getEventData());
+                } else {
+                    statement.setNull(4, Types.VARCHAR);
+                }
+                // Bound the same way Hibernate binds Instant (UTC offset date-time)
+                statement.setObject(5, event.getCreatedAt().atOffset(ZoneOffset.UTC));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+}
@@ -1,18 +1,39 @@
 package com.mrngwozdz.service.appevent.data;
 
 import com.mrngwozdz.database.AppEvent;
+import com.mrngwozdz.service.appevent.EventGroupCursor;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
-import io.quarkus.panache.common.Sort;
+import io.quarkus.panache.common.Parameters;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.transaction.Transactional;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @ApplicationScoped
 public class EventRepository implements PanacheRepository<AppEvent> {
 
-    public List<AppEvent> findRecent(int limit) {
-        return find("", Sort.by("id").descending())
+    /**
+     * Returns the first event of the most recent event groups, newest group first.
+     * Walks the created_at index backwards and keeps rows that have no earlier event with the
+     * same serial (probed through the serial index), so the cost depends on the page size
+     * rather than on the size of app_events.
+     */
+    public List<AppEvent> findRecentGroupStarts(EventGroupCursor before, int limit) {
+        String firstEventOfGroup = """
+                from AppEvent e where not exists (select 1 from AppEvent p where p.serial = e.serial
+                    and (p.createdAt < e.createdAt or (p.createdAt = e.createdAt and p.id < e.id)))
+                """;
+        String newestFirst = " order by e.createdAt desc, e.id desc";
+
+        if (before == null) {
+            return find(firstEventOfGroup + newestFirst)
+                    .range(0, limit - 1)
+                    .list();
+        }
+        return find(firstEventOfGroup
+                        + " and (e.createdAt < :createdAt or (e.createdAt = :createdAt and e.id < :id))" + newestFirst,
+                Parameters.with("createdAt", before.createdAt()).and("id", before.id()))
                 .range(0, limit - 1)
                 .list();
     }
@@ -21,6 +42,10 @@ public class EventRepository implements PanacheRepository<AppEvent> {
         return find("serial", serial).list();
     }
 
+    public List<AppEvent> findBySerials(Collection<UUID> serials) {
+        return find("serial in ?1", serials).list();
+    }
+
     @Transactional
     public void deleteAllEvents() {
         deleteAll();
@@ -0,0 +1,61 @@
+package com.mrngwozdz.behavioral;
+
+import com.mrngwozdz.AbstractIntegrationTest;
+import com.mrngwozdz.database.AppEvent;
+import com.mrngwozdz.service.appevent.AppEventWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@QuarkusTest
+@TestProfile(AppEventSamplingBehavioralTest.Profile.class)
+class AppEventSamplingBehavioralTest extends AbstractIntegrationTest {
+
+    private static final int QUEUE_CAPACITY = 10;
+
+    public static class Profile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "app.events.write-behind.queue-capacity", String.valueOf(QUEUE_CAPACITY),
+                    "app.events.write-behind.batch-size", "1000",
+                    "app.events.write-behind.flush-interval", "1h",
+                    "app.events.write-behind.backpressure", "sample",
+                    "app.events.write-behind.sample-rate", "2"
+            );
+        }
+    }
+
+    @Inject
+    AppEventWriter appEventWriter;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Test
+    void shouldKeepOneOfSampleRateEventsOnceQueueIsHalfFull() {
+        appEventWriter.flush();
+        double droppedBefore = meterRegistry.get("app.events.dropped").tag("policy", "sample").counter().count();
+
+        List<Boolean> accepted = new ArrayList<>();
+        for (int i = 0; i < QUEUE_CAPACITY; i++) {
+            accepted.add(appEventWriter.enqueue(new AppEvent(UUID.randomUUID(), "API_REQUEST", "OrderResource.placeOrder", "{}")));
+        }
+
+        // Below half capacity every event is kept, above it every second one
+        assertThat(accepted.subList(0, QUEUE_CAPACITY / 2)).containsOnly(true);
+        assertThat(accepted.subList(QUEUE_CAPACITY / 2, QUEUE_CAPACITY)).containsExactly(false, true, false, true, false);
+        assertThat(meterRegistry.get("app.events.dropped").tag("policy", "sample").counter().count() - droppedBefore)
+                .isEqualTo(3);
+    }
+}
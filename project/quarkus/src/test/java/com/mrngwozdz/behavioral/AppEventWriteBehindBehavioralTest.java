@@ -0,0 +1,123 @@
+package com.mrngwozdz.behavioral;
+
+import com.mrngwozdz.AbstractIntegrationTest;
+import com.mrngwozdz.api.model.EventGroupDTO;
+import com.mrngwozdz.api.model.EventItemDTO;
+import com.mrngwozdz.api.model.request.EventRequest;
+import com.mrngwozdz.api.model.response.GetEventsResponse;
+import com.mrngwozdz.controller.EventControllerUtils;
+import com.mrngwozdz.database.AppEvent;
+import com.mrngwozdz.service.appevent.AppEventService;
+import com.mrngwozdz.service.appevent.AppEventWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The flusher never runs on its own here (huge batch size and flush interval), so events reach the
+ * database only through {@link AppEventWriter#flush()} or when a reader wakes the flusher.
+ */
+@QuarkusTest
+@TestProfile(AppEventWriteBehindBehavioralTest.Profile.class)
+class AppEventWriteBehindBehavioralTest extends AbstractIntegrationTest {
+
+    private static final int QUEUE_CAPACITY = 5;
+
+    public static class Profile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "app.events.write-behind.queue-capacity", String.valueOf(QUEUE_CAPACITY),
+                    "app.events.write-behind.batch-size", "1000",
+                    "app.events.write-behind.flush-interval", "1h",
+                    "app.events.write-behind.backpressure", "drop",
+                    "app.events.group-cache.max-groups", "1"
+            );
+        }
+    }
+
+    @Inject
+    AppEventService appEventService;
+
+    @Inject
+    AppEventWriter appEventWriter;
+
+    @Inject
+    EventGroupRecorder eventGroupRecorder;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void emptyQueue() {
+        appEventWriter.flush();
+        eventGroupRecorder.clear();
+    }
+
+    @Test
+    void shouldSeeEventsLoggedJustBeforeReading() {
+        var serial = UUID.randomUUID();
+        appEventService.logEvent(serial, request("API_REQUEST"));
+        appEventService.logEvent(serial, request("API_RESPONSE"));
+
+        var response = EventControllerUtils.getEvents(10).statusCode(200).extract().as(GetEventsResponse.class);
+
+        var group = response.events().stream()
+                .filter(eventGroup -> eventGroup.serial().equals(serial))
+                .findFirst();
+        assertThat(group).isPresent();
+        assertThat(group.get().methodName()).isEqualTo("placeOrder");
+        assertThat(group.get().events()).hasSize(2);
+    }
+
+    @Test
+    void shouldCountEventsDroppedWhenQueueIsFull() {
+        double droppedBefore = meterRegistry.get("app.events.dropped").tag("policy", "drop").counter().count();
+
+        List<Boolean> accepted = new ArrayList<>();
+        for (int i = 0; i < QUEUE_CAPACITY + 3; i++) {
+            accepted.add(appEventWriter.enqueue(new AppEvent(UUID.randomUUID(), "API_REQUEST", "OrderResource.placeOrder", "{}")));
+        }
+
+        long dropped = accepted.stream().filter(result -> !result).count();
+        assertThat(dropped).isGreaterThanOrEqualTo(3);
+        assertThat(accepted.subList(QUEUE_CAPACITY, accepted.size())).containsOnly(false);
+        assertThat(meterRegistry.get("app.events.dropped").tag("policy", "drop").counter().count() - droppedBefore)
+                .isEqualTo(dropped);
+    }
+
+    @Test
+    void shouldRebuildGroupThatIsNotCachedFromDatabase() {
+        var evicted = UUID.randomUUID();
+        appEventService.logEvent(evicted, request("API_REQUEST"));
+        appEventWriter.flush();
+        // max-groups is 1, so starting another group evicts the first one from the cache
+        appEventService.logEvent(UUID.randomUUID(), request("API_REQUEST"));
+        appEventWriter.flush();
+
+        appEventService.logEvent(evicted, request("API_RESPONSE"));
+        appEventWriter.flush();
+
+        List<EventGroupDTO> broadcast = eventGroupRecorder.broadcastFor(evicted);
+        assertThat(broadcast).hasSize(2);
+        EventGroupDTO rebuilt = broadcast.getLast();
+        assertThat(rebuilt.events()).extracting(EventItemDTO::eventType).containsExactlyInAnyOrder("API_REQUEST", "API_RESPONSE");
+        assertThat(rebuilt.methodName()).isEqualTo("placeOrder");
+        assertThat(rebuilt.status()).isEqualTo("SUCCESS");
+    }
+
+    private static EventRequest request(String eventType) {
+        return new EventRequest(eventType, "OrderResource.placeOrder", "{}");
+    }
+}
@@ -33,6 +33,30 @@ class EventBehavioralTest extends AbstractIntegrationTest {
         verifyEventsInGroupsSortedChronologically(getEventsResponse);
     }
 
+    @Test
+    void shouldPageThroughCompleteEventGroupsWithCursor() {
+        EventControllerUtils.getEvents(5).statusCode(200);
+        EventControllerUtils.getEvents(5).statusCode(200);
+        EventControllerUtils.getEvents(5).statusCode(200);
+
+        var firstPage = EventControllerUtils.getEvents(2).statusCode(200).extract().as(GetEventsResponse.class);
+        assertThat(firstPage.events().size()).isEqualTo(2);
+        assertThat(firstPage.next()).isNotNull();
+
+        var secondPage = EventControllerUtils.getEvents(2, firstPage.next()).statusCode(200).extract().as(GetEventsResponse.class);
+        assertThat(secondPage.events().size()).isEqualTo(2);
+        assertThat(secondPage.next()).isNull();
+        secondPage.events().forEach(eventGroup -> assertThat(eventGroup.events().size()).isEqualTo(2));
+
+        var lastOfFirstPage = firstPage.events().get(1).events().get(0).createdAt();
+        assertThat(secondPage.events().get(0).events().get(0).createdAt()).isBeforeOrEqualTo(lastOfFirstPage);
+    }
+
+    @Test
+    void shouldRejectInvalidCursor() {
+        EventControllerUtils.getEvents(10, "not-a-cursor").statusCode(400);
+    }
+
     private void verifyDurationTimesAreGreaterThanZero(GetEventsResponse response) {
         response.events().stream()
                 .filter(eventGroup -> eventGroup.events().size() >= 2)
@@ -0,0 +1,30 @@
+package com.mrngwozdz.behavioral;
+
+import com.mrngwozdz.api.model.EventGroupDTO;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the event groups broadcast to SSE clients, so tests can check what a live client would see.
+ */
+@ApplicationScoped
+public class EventGroupRecorder {
+
+    private final List<EventGroupDTO> broadcast = new CopyOnWriteArrayList<>();
+
+    void onEventGroupUpdate(@Observes EventGroupDTO eventGroup) {
+        broadcast.add(eventGroup);
+    }
+
+    public List<EventGroupDTO> broadcastFor(UUID serial) {
+        return broadcast.stream().filter(eventGroup -> eventGroup.serial().equals(serial)).toList();
+    }
+
+    public void clear() {
+        broadcast.clear();
+    }
+}
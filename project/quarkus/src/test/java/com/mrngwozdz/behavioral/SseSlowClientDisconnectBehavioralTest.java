@@ -0,0 +1,68 @@
+package com.mrngwozdz.behavioral;
+
+import com.mrngwozdz.AbstractIntegrationTest;
+import com.mrngwozdz.api.model.EventGroupDTO;
+import com.mrngwozdz.service.appevent.SseEventService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@QuarkusTest
+@TestProfile(SseSlowClientDisconnectBehavioralTest.Profile.class)
+class SseSlowClientDisconnectBehavioralTest extends AbstractIntegrationTest {
+
+    private static final int BUFFER_SIZE = 3;
+
+    public static class Profile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "app.sse.buffer-size", String.valueOf(BUFFER_SIZE),
+                    "app.sse.overflow-policy", "disconnect",
+                    "app.sse.heartbeat-interval", "1h"
+            );
+        }
+    }
+
+    @Inject
+    SseEventService sseEventService;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Test
+    void shouldDisconnectClientThatDoesNotKeepUp() {
+        double disconnectedBefore = meterRegistry.get("sse.clients.disconnected").counter().count();
+        double droppedBefore = meterRegistry.get("sse.events.dropped").counter().count();
+        // A client that has not requested anything yet, like one whose connection is not writable
+        AssertSubscriber<OutboundSseEvent> slowClient = sseEventService.getEventStream(new TestSse())
+                .subscribe().withSubscriber(AssertSubscriber.create(0));
+
+        for (int i = 0; i < BUFFER_SIZE; i++) {
+            sseEventService.onEventGroupUpdate(eventGroup());
+        }
+        slowClient.assertNotTerminated();
+
+        sseEventService.onEventGroupUpdate(eventGroup());
+
+        slowClient.assertCompleted();
+        assertThat(meterRegistry.get("sse.clients.disconnected").counter().count() - disconnectedBefore).isEqualTo(1);
+        assertThat(meterRegistry.get("sse.events.dropped").counter().count() - droppedBefore).isEqualTo(1);
+        assertThat(meterRegistry.get("sse.clients.connected").gauge().value()).isZero();
+    }
+
+    private static EventGroupDTO eventGroup() {
+        return new EventGroupDTO(UUID.randomUUID(), "placeOrder", 0L, "SUCCESS", List.of());
+    }
+}
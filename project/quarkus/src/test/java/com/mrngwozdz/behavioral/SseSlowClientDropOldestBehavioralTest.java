@@ -0,0 +1,70 @@
+package com.mrngwozdz.behavioral;
+
+import com.mrngwozdz.AbstractIntegrationTest;
+import com.mrngwozdz.api.model.EventGroupDTO;
+import com.mrngwozdz.service.appevent.SseEventService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@QuarkusTest
+@TestProfile(SseSlowClientDropOldestBehavioralTest.Profile.class)
+class SseSlowClientDropOldestBehavioralTest extends AbstractIntegrationTest {
+
+    private static final int BUFFER_SIZE = 3;
+
+    public static class Profile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "app.sse.buffer-size", String.valueOf(BUFFER_SIZE),
+                    "app.sse.overflow-policy", "drop-oldest",
+                    "app.sse.heartbeat-interval", "1h"
+            );
+        }
+    }
+
+    @Inject
+    SseEventService sseEventService;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Test
+    void shouldKeepSlowClientConnectedWithNewestEvents() {
+        double droppedBefore = meterRegistry.get("sse.events.dropped").counter().count();
+        AssertSubscriber<OutboundSseEvent> slowClient = sseEventService.getEventStream(new TestSse())
+                .subscribe().withSubscriber(AssertSubscriber.create(0));
+
+        List<UUID> serials = new ArrayList<>();
+        for (int i = 0; i < BUFFER_SIZE + 2; i++) {
+            UUID serial = UUID.randomUUID();
+            serials.add(serial);
+            sseEventService.onEventGroupUpdate(new EventGroupDTO(serial, "placeOrder", 0L, "SUCCESS", List.of()));
+        }
+
+        // Once the client asks for more, it gets the buffered events as soon as they are requested
+        slowClient.request(10);
+
+        slowClient.assertNotTerminated();
+        assertThat(slowClient.getItems()).hasSize(BUFFER_SIZE);
+        for (int i = 0; i < BUFFER_SIZE; i++) {
+            assertThat((String) slowClient.getItems().get(i).getData()).contains(serials.get(i + 2).toString());
+        }
+        assertThat(meterRegistry.get("sse.events.dropped").counter().count() - droppedBefore).isEqualTo(2);
+
+        slowClient.cancel();
+    }
+}
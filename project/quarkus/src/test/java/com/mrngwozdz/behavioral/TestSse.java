@@ -0,0 +1,137 @@
+package com.mrngwozdz.behavioral;
+
+import jakarta.ws.rs.core.GenericType;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseBroadcaster;
+
+import java.lang.reflect.Type;
+
+/**
+ * Sse building plain events, for subscribing to the event stream without an HTTP connection.
+ */
+class TestSse implements Sse {
+
+    @Override
+    public OutboundSseEvent.Builder newEventBuilder() {
+        return new Builder();
+    }
+
+    @Override
+    public SseBroadcaster newBroadcaster() {
+        throw new UnsupportedOperationException();
+    }
+
+    record Event(String id, String name, String comment, long reconnectDelay, MediaType mediaType,
+                 Object data) implements OutboundSseEvent {
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getComment() {
+            return comment;
+        }
+
+        @Override
+        public long getReconnectDelay() {
+            return reconnectDelay;
+        }
+
+        @Override
+        public boolean isReconnectDelaySet() {
+            return reconnectDelay >= 0;
+        }
+
+        @Override
+        public Class<?> getType() {
+            return data != null ? data.getClass() : null;
+        }
+
+        @Override
+        public Type getGenericType() {
+            return getType();
+        }
+
+        @Override
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        @Override
+        public Object getData() {
+            return data;
+        }
+    }
+
+    private static final class Builder implements OutboundSseEvent.Builder {
+
+        private String id;
+        private String name;
+        private String comment;
+        private long reconnectDelay = -1;
+        private MediaType mediaType;
+        private Object data;
+
+        @Override
+        public OutboundSseEvent.Builder id(String id) {
+            this.id = id;
+            return this;
+        }
+
+        @Override
+        public OutboundSseEvent.Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        @Override
+        public OutboundSseEvent.Builder reconnectDelay(long milliseconds) {
+            this.reconnectDelay = milliseconds;
+            return this;
+        }
+
+        @Override
+        public OutboundSseEvent.Builder mediaType(MediaType mediaType) {
+            this.mediaType = mediaType;
+            return this;
+        }
+
+        @Override
+        public OutboundSseEvent.Builder comment(String comment) {
+            this.comment = comment;
+            return this;
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public OutboundSseEvent.Builder data(Class type, Object data) {
+            return data(data);
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public OutboundSseEvent.Builder data(GenericType type, Object data) {
+            return data(data);
+        }
+
+        @Override
+        public OutboundSseEvent.Builder data(Object data) {
+            this.data = data;
+            return this;
+        }
+
+        @Override
+        public OutboundSseEvent build() {
+            return new Event(id, name, comment, reconnectDelay, mediaType, data);
+        }
+    }
+}
@@ -17,6 +17,16 @@ public class EventControllerUtils {
                 .then();
     }
 
+    public static ValidatableResponse getEvents(int limit, String before) {
+        return given()
+                .contentType(ContentType.JSON)
+                .queryParam("limit", limit)
+                .queryParam("before", before)
+                .when()
+                .get("/events")
+                .then();
+    }
+
     public static ValidatableResponse getEvents() {
         return given()
                 .contentType(ContentType.JSON)
@@ -0,0 +1,54 @@
+package com.mrngwozdz.setup.benchmark;
+
+import com.mrngwozdz.setup.controller.model.request.CreateOrderRequest;
+import com.mrngwozdz.setup.controller.model.response.GetAllOrdersResponse;
+import com.mrngwozdz.setup.database.entity.Order;
+import com.mrngwozdz.setup.service.order.data.model.OrderPage;
+import com.mrngwozdz.setup.service.order.mapper.OrderRequestMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity mapping on the create path and DTO mapping of large order lists on the read path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderMappingBenchmark {
+
+    @Param({"10000", "100000"})
+    private int orderCount;
+
+    private CreateOrderRequest request;
+    private List<Order> orders;
+
+    @Setup
+    public void setup() {
+        request = new CreateOrderRequest("ORD-001", "CUST-123", new BigDecimal("99.99"), "PROD-456");
+
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 0, 0);
+        orders = new ArrayList<>(orderCount);
+        for (int i = 0; i < orderCount; i++) {
+            orders.add(new Order((long) i, "ORD-" + i, "CUST-" + (i % 100), new BigDecimal("10.00").add(BigDecimal.valueOf(i)),
+                    "PROD-" + (i % 50), Order.OrderStatus.PENDING, createdAt.plusSeconds(i), null));
+        }
+    }
+
+    @Benchmark
+    public Order toOrder() {
+        return OrderRequestMapper.INSTANCE.toOrder(request);
+    }
+
+    @Benchmark
+    public GetAllOrdersResponse getAllOrdersResponseFrom() {
+        return GetAllOrdersResponse.from(new OrderPage(orders, null));
+    }
+}
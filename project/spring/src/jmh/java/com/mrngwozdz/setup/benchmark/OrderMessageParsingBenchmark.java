@@ -0,0 +1,45 @@
+package com.mrngwozdz.setup.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mrngwozdz.setup.messaging.model.OrderRequest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON parsing of order messages as done by MessageListener, with the Spring Boot configured mapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderMessageParsingBenchmark {
+
+    private static final String MESSAGE = """
+            {"orderId":"ORD-001","customerId":"CUST-123","amount":99.99,"productCode":"PROD-456"}
+            """;
+
+    private ObjectMapper objectMapper;
+    private ObjectReader orderRequestReader;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        orderRequestReader = objectMapper.readerFor(OrderRequest.class);
+    }
+
+    @Benchmark
+    public OrderRequest readValue() throws IOException {
+        return objectMapper.readValue(MESSAGE, OrderRequest.class);
+    }
+
+    @Benchmark
+    public OrderRequest preparedReader() throws IOException {
+        return orderRequestReader.readValue(MESSAGE);
+    }
+}
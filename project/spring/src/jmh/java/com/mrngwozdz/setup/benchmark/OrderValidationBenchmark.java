@@ -0,0 +1,49 @@
+package com.mrngwozdz.setup.benchmark;
+
+import com.mrngwozdz.setup.controller.model.request.CreateOrderRequest;
+import com.mrngwozdz.setup.platform.result.ErrorCode;
+import com.mrngwozdz.setup.platform.result.Failure;
+import io.vavr.control.Either;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request validation chain and Failure building, run for every REST call and message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderValidationBenchmark {
+
+    private CreateOrderRequest validRequest;
+    private CreateOrderRequest invalidRequest;
+
+    @Setup
+    public void setup() {
+        validRequest = new CreateOrderRequest("ORD-001", "CUST-123", new BigDecimal("99.99"), "PROD-456");
+        invalidRequest = new CreateOrderRequest("ORD-001", "CUST-123", new BigDecimal("-1.00"), "PROD-456");
+    }
+
+    @Benchmark
+    public Either<Failure, CreateOrderRequest> validateValidRequest() {
+        return validRequest.validate();
+    }
+
+    @Benchmark
+    public Either<Failure, CreateOrderRequest> validateInvalidRequest() {
+        return invalidRequest.validate();
+    }
+
+    @Benchmark
+    public Failure failureWithChaining() {
+        return Failure.ofDefault(ErrorCode.DATABASE_ERROR)
+                .with("exceptionType", "org.springframework.dao.DataAccessResourceFailureException")
+                .with("exceptionMessage", "Connection refused")
+                .with("orderId", "ORD-001");
+    }
+}
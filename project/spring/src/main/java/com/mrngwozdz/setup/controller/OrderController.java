@@ -1,19 +1,35 @@
 package com.mrngwozdz.setup.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mrngwozdz.setup.controller.api.OrderApi;
+import com.mrngwozdz.setup.controller.model.dto.ExportError;
+import com.mrngwozdz.setup.controller.model.dto.OrderData;
 import com.mrngwozdz.setup.controller.model.request.CreateOrderRequest;
+import com.mrngwozdz.setup.controller.model.request.CreateOrdersRequest;
+import com.mrngwozdz.setup.controller.model.request.GetOrdersRequest;
 import com.mrngwozdz.setup.controller.model.request.UpdateOrderRequest;
 import com.mrngwozdz.setup.controller.model.response.CreateOrderResponse;
+import com.mrngwozdz.setup.controller.model.response.CreateOrdersResponse;
 import com.mrngwozdz.setup.controller.model.response.GetAllOrdersResponse;
 import com.mrngwozdz.setup.controller.model.response.OrderResponse;
+import com.mrngwozdz.setup.database.entity.Order.OrderStatus;
+import com.mrngwozdz.setup.platform.http.NdjsonWriter;
+import com.mrngwozdz.setup.platform.result.ErrorCode;
+import com.mrngwozdz.setup.platform.result.Failure;
+import com.mrngwozdz.setup.properties.OrderExportProperties;
 import com.mrngwozdz.setup.service.order.business.OrderBusiness;
 import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -27,14 +43,47 @@ import static com.mrngwozdz.setup.platform.http.RestResults.unwrapOrThrow;
 public class OrderController implements OrderApi {
 
     private final OrderBusiness business;
+    private final ObjectMapper objectMapper;
+    private final OrderExportProperties exportProperties;
 
     @Override
-    @Timed(value = "orders.get.all", description = "Time taken to retrieve all orders")
-    public ResponseEntity<GetAllOrdersResponse> getAllOrders() {
-        var result = unwrapOrThrow(business.getAllOrders(), GetAllOrdersResponse::from);
+    @Timed(value = "orders.get.all", description = "Time taken to retrieve a page of orders")
+    public ResponseEntity<GetAllOrdersResponse> getAllOrders(String customerId, OrderStatus status, String cursor, int limit) {
+        var request = new GetOrdersRequest(customerId, status, cursor, limit);
+        var result = unwrapOrThrow(business.getOrders(request), GetAllOrdersResponse::from);
         return ResponseEntity.ok(result);
     }
 
+    @Override
+    @Timed(value = "orders.export", description = "Time taken to start streaming the orders export")
+    public ResponseEntity<StreamingResponseBody> exportOrders() {
+        // The body runs on an async thread after this method returns, so the read transaction
+        // and its cursor are opened there and live exactly as long as the response is written.
+        // The 200 status is committed by then, so a failure is reported as a last ExportError line.
+        // Only this request gets the long export timeout; it is set before the async processing starts.
+        var request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        WebAsyncUtils.getAsyncManager(request)
+                .getAsyncWebRequest()
+                .setTimeout(exportProperties.getTimeout().toMillis());
+        StreamingResponseBody body = outputStream -> {
+            try (var writer = new NdjsonWriter<>(objectMapper, OrderData.class, outputStream)) {
+                business.exportOrders(order -> writer.write(OrderData.from(order)))
+                        .peekLeft(failure -> writeExportError(writer, failure));
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private static void writeExportError(NdjsonWriter<OrderData> writer, Failure failure) {
+        if (failure.code() == ErrorCode.IO_ERROR) {
+            // The client is gone, nobody is left to read the marker
+            return;
+        }
+        writer.writeTrailer(ExportError.from(failure));
+    }
+
     @Override
     @Timed(value = "orders.get.by.id", description = "Time taken to retrieve an order by ID")
     public ResponseEntity<OrderResponse> getOrderById(String orderId) {
@@ -59,6 +108,16 @@ public class OrderController implements OrderApi {
         return ResponseEntity.created(location).body(response);
     }
 
+    @Override
+    @Timed(value = "orders.create.batch", description = "Time taken to create a batch of orders")
+    public ResponseEntity<CreateOrdersResponse> createOrders(CreateOrdersRequest request) {
+        var response = unwrapOrThrow(
+                business.createOrders(request),
+                results -> CreateOrdersResponse.from(request.orders(), results)
+        );
+        return ResponseEntity.ok(response);
+    }
+
     @Override
     @Timed(value = "orders.update", description = "Time taken to update an order")
     public ResponseEntity<Void> updateOrder(String orderId, UpdateOrderRequest request) {
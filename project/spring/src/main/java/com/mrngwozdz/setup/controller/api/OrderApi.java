@@ -1,10 +1,14 @@
 package com.mrngwozdz.setup.controller.api;
 
+import com.mrngwozdz.setup.controller.model.dto.OrderData;
 import com.mrngwozdz.setup.controller.model.request.CreateOrderRequest;
+import com.mrngwozdz.setup.controller.model.request.CreateOrdersRequest;
 import com.mrngwozdz.setup.controller.model.request.UpdateOrderRequest;
 import com.mrngwozdz.setup.controller.model.response.CreateOrderResponse;
+import com.mrngwozdz.setup.controller.model.response.CreateOrdersResponse;
 import com.mrngwozdz.setup.controller.model.response.GetAllOrdersResponse;
 import com.mrngwozdz.setup.controller.model.response.OrderResponse;
+import com.mrngwozdz.setup.database.entity.Order.OrderStatus;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,6 +19,7 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,18 +27,48 @@ import java.util.List;
 public interface OrderApi {
 
     @Operation(
-            summary = "Get all orders",
-            description = "Returns a list of all orders",
+            summary = "Get orders",
+            description = "Returns a page of orders ordered by creation time. Pass the returned 'next' cursor to fetch the following page.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
                             description = "Success",
                             content = @Content(schema = @Schema(implementation = GetAllOrdersResponse.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid filter, cursor or limit"
                     )
             }
     )
     @GetMapping("/orders")
-    ResponseEntity<GetAllOrdersResponse> getAllOrders();
+    ResponseEntity<GetAllOrdersResponse> getAllOrders(
+            @Parameter(description = "Customer ID filter")
+            @RequestParam(required = false) String customerId,
+            @Parameter(description = "Order status filter")
+            @RequestParam(required = false) OrderStatus status,
+            @Parameter(description = "Cursor returned as 'next' by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of orders in the page")
+            @RequestParam(defaultValue = "50") int limit
+    );
+
+    @Operation(
+            summary = "Export all orders",
+            description = "Streams every order as newline-delimited JSON (one OrderData per line) straight from a database cursor. "
+                    + "The status is sent before the first order, so an error while streaming is reported as a last line "
+                    + "with an ExportError ({\"error\": ..., \"message\": ..., \"status\": ..., \"exportedOrders\": ...}) "
+                    + "instead of an error status; an export is complete only if its last line has no \"error\" field.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Success",
+                            content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = OrderData.class))
+                    )
+            }
+    )
+    @GetMapping(value = "/orders/export", produces = "application/x-ndjson")
+    ResponseEntity<StreamingResponseBody> exportOrders();
 
     @Operation(
             summary = "Get order by ID",
@@ -81,6 +116,28 @@ public interface OrderApi {
             @RequestBody @Valid CreateOrderRequest request
     );
 
+    @Operation(
+            summary = "Create orders in bulk",
+            description = "Creates up to 10000 orders in one transaction. Each order is validated and reported individually; "
+                    + "invalid or duplicate orders do not prevent the others from being created.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Batch processed. Per-order outcome is reported in 'results'.",
+                            content = @Content(schema = @Schema(implementation = CreateOrdersResponse.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Missing, empty or too large batch"
+                    )
+            }
+    )
+    @PostMapping("/orders:batch")
+    ResponseEntity<CreateOrdersResponse> createOrders(
+            @Parameter(description = "Batch order creation request", required = true)
+            @RequestBody @Valid CreateOrdersRequest request
+    );
+
     @Operation(
             summary = "Update entire order",
             description = "Updates all fields of an existing order",
@@ -0,0 +1,35 @@
+package com.mrngwozdz.setup.controller.model.dto;
+
+import com.mrngwozdz.setup.controller.model.request.CreateOrderRequest;
+import com.mrngwozdz.setup.database.entity.Order;
+import com.mrngwozdz.setup.platform.result.Failure;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.vavr.control.Either;
+import org.springframework.http.HttpStatus;
+
+@Schema(description = "Outcome of creating a single order of a batch")
+public record CreateOrderResult(
+        @Schema(description = "Position of the order in the request", example = "0")
+        int index,
+
+        @Schema(description = "Order identifier from the request", example = "ORD-001", nullable = true)
+        String orderId,
+
+        @Schema(description = "HTTP status the order would get from POST /orders", example = "201")
+        int status,
+
+        @Schema(description = "Error code when the order was not created", example = "CONFLICT", nullable = true)
+        String error,
+
+        @Schema(description = "Error message when the order was not created", nullable = true)
+        String message
+) {
+    public static CreateOrderResult from(int index, CreateOrderRequest request, Either<Failure, Order> result) {
+        String orderId = request != null ? request.orderId() : null;
+        return result.fold(
+                failure -> new CreateOrderResult(index, orderId, failure.getHttpStatus().value(),
+                        failure.code().name(), failure.message()),
+                order -> new CreateOrderResult(index, order.getOrderId(), HttpStatus.CREATED.value(), null, null)
+        );
+    }
+}
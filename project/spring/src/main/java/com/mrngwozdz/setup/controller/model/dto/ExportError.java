@@ -0,0 +1,24 @@
+package com.mrngwozdz.setup.controller.model.dto;
+
+import com.mrngwozdz.setup.platform.result.Failure;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Last line of an orders export that failed after streaming started")
+public record ExportError(
+        @Schema(description = "Error code", example = "DATABASE_ERROR")
+        String error,
+
+        @Schema(description = "Error message", example = "Unexpected database error occurred")
+        String message,
+
+        @Schema(description = "HTTP status the export would get if it failed before streaming", example = "500")
+        int status,
+
+        @Schema(description = "Orders written before the error", example = "1200", nullable = true)
+        Long exportedOrders
+) {
+    public static ExportError from(Failure failure) {
+        return new ExportError(failure.code().name(), failure.message(), failure.getHttpStatus().value(),
+                failure.context().get("streamedOrders") instanceof Number streamed ? streamed.longValue() : null);
+    }
+}
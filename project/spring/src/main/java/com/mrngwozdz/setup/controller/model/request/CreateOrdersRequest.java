@@ -0,0 +1,31 @@
+package com.mrngwozdz.setup.controller.model.request;
+
+import com.mrngwozdz.setup.controller.model.valdation.OrderValidators;
+import com.mrngwozdz.setup.platform.result.Failure;
+import com.mrngwozdz.setup.platform.validation.Validator;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.vavr.control.Either;
+
+import java.util.List;
+
+@Schema(description = "Request to create many orders at once")
+public record CreateOrdersRequest(
+        @ArraySchema(
+                arraySchema = @Schema(description = "Orders to create, validated and reported individually"),
+                minItems = 1,
+                maxItems = OrderValidators.MAX_BATCH_SIZE
+        )
+        List<CreateOrderRequest> orders
+) {
+    /**
+     * Validates the CreateOrdersRequest instance.
+     * Only the batch itself is validated here, individual orders are validated one by one
+     * so that an invalid order does not reject the whole batch.
+     * @return Either containing Failure on validation error or validated request on success
+     */
+    public Either<Failure, CreateOrdersRequest> validate() {
+        return Validator.notNull(this, "CreateOrdersRequest")
+                .flatMap(request -> OrderValidators.validateBatchSize(request.orders()).map(orders -> request));
+    }
+}
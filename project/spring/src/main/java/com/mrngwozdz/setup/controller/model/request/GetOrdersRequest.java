@@ -0,0 +1,34 @@
+package com.mrngwozdz.setup.controller.model.request;
+
+import com.mrngwozdz.setup.controller.model.valdation.OrderValidators;
+import com.mrngwozdz.setup.database.entity.Order.OrderStatus;
+import com.mrngwozdz.setup.platform.result.Failure;
+import com.mrngwozdz.setup.platform.validation.Validator;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.vavr.control.Either;
+
+@Schema(description = "Request to list orders page by page")
+public record GetOrdersRequest(
+        @Schema(description = "Customer identifier filter", example = "CUST-123", nullable = true)
+        String customerId,
+
+        @Schema(description = "Order status filter", example = "COMPLETED", nullable = true)
+        OrderStatus status,
+
+        @Schema(description = "Opaque cursor returned as 'next' by the previous page", nullable = true)
+        String cursor,
+
+        @Schema(description = "Maximum number of orders in the page", example = "50")
+        Integer limit
+) {
+    /**
+     * Validates the GetOrdersRequest instance.
+     * Filters and cursor are optional, but if present they must be valid.
+     * @return Either containing Failure on validation error or validated request on success
+     */
+    public Either<Failure, GetOrdersRequest> validate() {
+        return Validator.notNull(this, "GetOrdersRequest")
+                .flatMap(req -> Validator.validateIfPresent(req.customerId(), OrderValidators::validateCustomerId, req))
+                .flatMap(req -> OrderValidators.validatePageSize(req.limit()).map(limit -> req));
+    }
+}
@@ -0,0 +1,30 @@
+package com.mrngwozdz.setup.controller.model.response;
+
+import com.mrngwozdz.setup.controller.model.dto.CreateOrderResult;
+import com.mrngwozdz.setup.controller.model.request.CreateOrderRequest;
+import com.mrngwozdz.setup.database.entity.Order;
+import com.mrngwozdz.setup.platform.result.Failure;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.vavr.control.Either;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+@Schema(description = "Response for batch order creation with one result per requested order")
+public record CreateOrdersResponse(
+        @Schema(description = "Number of orders created", example = "998")
+        int created,
+
+        @Schema(description = "Number of orders rejected", example = "2")
+        int failed,
+
+        List<CreateOrderResult> results
+) {
+    public static CreateOrdersResponse from(List<CreateOrderRequest> requests, List<Either<Failure, Order>> results) {
+        var items = IntStream.range(0, results.size())
+                .mapToObj(i -> CreateOrderResult.from(i, requests.get(i), results.get(i)))
+                .toList();
+        int created = (int) results.stream().filter(Either::isRight).count();
+        return new CreateOrdersResponse(created, results.size() - created, items);
+    }
+}
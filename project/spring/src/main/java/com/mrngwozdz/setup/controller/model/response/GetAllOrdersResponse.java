@@ -1,16 +1,21 @@
 package com.mrngwozdz.setup.controller.model.response;
 
 import com.mrngwozdz.setup.controller.model.dto.OrderData;
-import com.mrngwozdz.setup.database.entity.Order;
+import com.mrngwozdz.setup.service.order.data.model.OrderPage;
+import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.util.List;
 
 public record GetAllOrdersResponse(
-        List<OrderData> orders
+        List<OrderData> orders,
+
+        @Schema(description = "Cursor of the next page, absent on the last page", nullable = true)
+        String next
 ) {
-    public static GetAllOrdersResponse from(List<Order> orders) {
+    public static GetAllOrdersResponse from(OrderPage page) {
         return new GetAllOrdersResponse(
-                orders.stream().map(OrderData::from).toList()
+                page.orders().stream().map(OrderData::from).toList(),
+                page.next() != null ? page.next().encode() : null
         );
     }
 }
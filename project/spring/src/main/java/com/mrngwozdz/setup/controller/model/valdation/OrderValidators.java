@@ -7,6 +7,7 @@ import com.mrngwozdz.setup.platform.validation.Validator;
 import io.vavr.control.Either;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 /**
  * Reusable validators for order-related fields.
@@ -14,6 +15,9 @@ import java.math.BigDecimal;
  */
 public class OrderValidators {
 
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 10_000;
+
     private OrderValidators() {}
 
     public static Either<Failure, String> validateOrderId(String orderId) {
@@ -71,4 +75,30 @@ public class OrderValidators {
     public static Either<Failure, OrderStatus> validateStatus(OrderStatus status) {
         return Validator.notNull(status, "status");
     }
-}
\ No newline at end of file
+
+    public static Either<Failure, Integer> validatePageSize(Integer limit) {
+        return Validator.notNull(limit, "limit")
+                .flatMap(l -> {
+                    if (l < 1 || l > MAX_PAGE_SIZE) {
+                        return Either.left(Failure.of(
+                                ErrorCode.VALIDATION,
+                                "Limit must be between 1 and " + MAX_PAGE_SIZE
+                        ));
+                    }
+                    return Either.right(l);
+                });
+    }
+
+    public static <T> Either<Failure, List<T>> validateBatchSize(List<T> items) {
+        return Validator.notNull(items, "orders")
+                .flatMap(list -> {
+                    if (list.isEmpty() || list.size() > MAX_BATCH_SIZE) {
+                        return Either.left(Failure.of(
+                                ErrorCode.VALIDATION,
+                                "Number of orders must be between 1 and " + MAX_BATCH_SIZE
+                        ));
+                    }
+                    return Either.right(list);
+                });
+    }
+}
@@ -1,17 +1,34 @@
 package com.mrngwozdz.setup.database.config;
 
+import com.mrngwozdz.setup.database.config.datasource.DataSourceConcurrencyLimiter;
 import com.mrngwozdz.setup.database.config.datasource.DataSourceType;
+import com.mrngwozdz.setup.database.config.datasource.HikariPoolController;
+import com.mrngwozdz.setup.database.config.datasource.ReadReplicaDataSource;
+import com.mrngwozdz.setup.database.config.datasource.ReplicaConsistencyGuard;
 import com.mrngwozdz.setup.database.config.datasource.RoutingDataSource;
+import com.mrngwozdz.setup.properties.PoolControllerProperties;
+import com.mrngwozdz.setup.properties.ReadReplicaProperties;
+import com.mrngwozdz.setup.properties.ReadYourWritesProperties;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Configuration for CQRS DataSource routing.
@@ -19,6 +36,13 @@ import java.util.Map;
  * - READ DataSource (query operations with larger connection pool)
  * - WRITE DataSource (command operations with smaller connection pool)
  *
+ * With spring.datasource.read-replicas.endpoints the READ DataSource balances over one
+ * connection pool per query replica instead of the single query pool.
+ *
+ * With spring.datasource.lazy-connection the RoutingDataSource is wrapped in a
+ * LazyConnectionDataSourceProxy, so a transaction borrows a pooled connection only when it
+ * runs its first statement instead of when it begins.
+ *
  * The routing is determined by @ReadOperation or @WriteOperation annotations
  * on business layer methods.
  */
@@ -28,6 +52,7 @@ public class DataSourceConfig {
     /**
      * Primary DataSource bean that routes to READ or WRITE DataSource
      * based on the current thread context set by DataSourceAspect.
+     * In lazy-connection mode this is a LazyConnectionDataSourceProxy around the RoutingDataSource.
      */
     @Primary
     @Bean
@@ -41,19 +66,11 @@ public class DataSourceConfig {
             @Value("${spring.datasource.query.username}") String queryUsername,
             @Value("${spring.datasource.query.password}") String queryPassword,
             @Value("${spring.datasource.query.max-connections:30}") int queryMaxConnections,
-            @Value("${spring.datasource.query.minimum-idle:5}") int queryMinimumIdle
+            @Value("${spring.datasource.query.minimum-idle:5}") int queryMinimumIdle,
+            @Value("${spring.datasource.lazy-connection:false}") boolean lazyConnection,
+            ReadReplicaProperties readReplicaProperties,
+            MeterRegistry meterRegistry
     ) {
-        // Create READ DataSource
-        DataSource readDataSource = createDataSource(
-                "QueryDataBaseConnectionPool",
-                queryUrl,
-                queryUsername,
-                queryPassword,
-                queryMaxConnections,
-                queryMinimumIdle,
-                true
-        );
-
         // Create WRITE DataSource
         DataSource writeDataSource = createDataSource(
                 "CommandDataBaseConnectionPool",
@@ -62,9 +79,43 @@ public class DataSourceConfig {
                 commandPassword,
                 commandMaxConnections,
                 commandMinimumIdle,
-                false
+                false,
+                meterRegistry
         );
 
+        // Create READ DataSource, balanced over the query replicas when configured
+        DataSource readDataSource;
+        if (readReplicaProperties.isEnabled()) {
+            Map<String, DataSource> replicas = new LinkedHashMap<>();
+            for (ReadReplicaProperties.Endpoint endpoint : readReplicaProperties.getEndpoints()) {
+                replicas.put(endpoint.getName(), createDataSource(
+                        "QueryDataBaseConnectionPool-" + endpoint.getName(),
+                        endpoint.getJdbcUrl(),
+                        Objects.requireNonNullElse(endpoint.getUsername(), queryUsername),
+                        Objects.requireNonNullElse(endpoint.getPassword(), queryPassword),
+                        Objects.requireNonNullElse(endpoint.getMaxConnections(), queryMaxConnections),
+                        Objects.requireNonNullElse(endpoint.getMinimumIdle(), queryMinimumIdle),
+                        true,
+                        meterRegistry
+                ));
+            }
+            ReadReplicaDataSource replicaDataSource = new ReadReplicaDataSource(
+                    readReplicaProperties, replicas, writeDataSource, meterRegistry);
+            replicaDataSource.start();
+            readDataSource = replicaDataSource;
+        } else {
+            readDataSource = createDataSource(
+                    "QueryDataBaseConnectionPool",
+                    queryUrl,
+                    queryUsername,
+                    queryPassword,
+                    queryMaxConnections,
+                    queryMinimumIdle,
+                    true,
+                    meterRegistry
+            );
+        }
+
         // Configure routing
         RoutingDataSource routingDataSource = new RoutingDataSource();
 
@@ -75,11 +126,78 @@ public class DataSourceConfig {
         routingDataSource.setTargetDataSources(targetDataSources);
         routingDataSource.setDefaultTargetDataSource(writeDataSource);  // Default to WRITE
 
-        return routingDataSource;
+        if (!lazyConnection) {
+            return routingDataSource;
+        }
+        // Transactions failing before their first statement (e.g. request validation) never touch a pool
+        LazyConnectionDataSourceProxy lazyDataSource = new LazyConnectionDataSourceProxy();
+        lazyDataSource.setTargetDataSource(routingDataSource);
+        // Both pools use the driver defaults; set them here so the proxy does not open a connection to read them
+        lazyDataSource.setDefaultAutoCommit(true);
+        lazyDataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return lazyDataSource;
+    }
+
+    /**
+     * Limits concurrent READ / WRITE operations to the size of the matching connection pool,
+     * for READ the sum of the replica pools when read replicas are configured.
+     * Enabled by default together with virtual threads, where request concurrency is no longer
+     * bounded by the servlet thread pool.
+     */
+    @Bean
+    public DataSourceConcurrencyLimiter dataSourceConcurrencyLimiter(
+            @Value("${spring.datasource.concurrency-limit.enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+            @Value("${spring.datasource.concurrency-limit.acquire-timeout:30s}") Duration acquireTimeout,
+            @Value("${spring.datasource.command.max-connections:5}") int commandMaxConnections,
+            @Value("${spring.datasource.query.max-connections:30}") int queryMaxConnections,
+            ReadReplicaProperties readReplicaProperties
+    ) {
+        int readPermits = readReplicaProperties.isEnabled()
+                ? readReplicaProperties.getEndpoints().stream()
+                        .mapToInt(endpoint -> Objects.requireNonNullElse(endpoint.getMaxConnections(), queryMaxConnections))
+                        .sum()
+                : queryMaxConnections;
+        return new DataSourceConcurrencyLimiter(enabled, acquireTimeout, readPermits, commandMaxConnections);
+    }
+
+    /**
+     * Read-your-writes routing of @ReadOperation methods, active with spring.datasource.read-your-writes.enabled.
+     * Registered as a transaction listener by EntityManagerConfig to record the WAL position of every write.
+     */
+    @Bean
+    public ReplicaConsistencyGuard replicaConsistencyGuard(DataSource dataSource,
+                                                           ReadYourWritesProperties properties,
+                                                           MeterRegistry meterRegistry) {
+        return new ReplicaConsistencyGuard(properties, dataSource, meterRegistry);
+    }
+
+    /**
+     * Resizes the command and query pools within spring.datasource.pool-controller.global-budget,
+     * active with spring.datasource.pool-controller.enabled.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.datasource.pool-controller", name = "enabled", havingValue = "true")
+    public HikariPoolController hikariPoolController(DataSource dataSource,
+                                                     PoolControllerProperties properties,
+                                                     DataSourceConcurrencyLimiter concurrencyLimiter,
+                                                     MeterRegistry meterRegistry) throws SQLException {
+        Map<DataSourceType, List<HikariDataSource>> pools = new EnumMap<>(DataSourceType.class);
+        dataSource.unwrap(RoutingDataSource.class).getResolvedDataSources()
+                .forEach((type, target) -> pools.put((DataSourceType) type, hikariPools(target)));
+        return new HikariPoolController(properties, pools, concurrencyLimiter, meterRegistry);
+    }
+
+    private static List<HikariDataSource> hikariPools(DataSource dataSource) {
+        if (dataSource instanceof ReadReplicaDataSource replicas) {
+            return replicas.getReplicaDataSources().values().stream()
+                    .map(HikariDataSource.class::cast)
+                    .toList();
+        }
+        return List.of((HikariDataSource) dataSource);
     }
 
     /**
-     * Creates a HikariCP DataSource with the specified configuration.
+     * Creates a HikariCP DataSource with the specified configuration and hikaricp.* pool metrics.
      */
     private DataSource createDataSource(
             String poolName,
@@ -88,7 +206,8 @@ public class DataSourceConfig {
             String dbPassword,
             int maxConnections,
             int minimumIdle,
-            boolean isReadOnly
+            boolean isReadOnly,
+            MeterRegistry meterRegistry
     ) {
         int safeMinIdle = Math.min(minimumIdle, maxConnections);
 
@@ -105,7 +224,10 @@ public class DataSourceConfig {
         hikariConfig.setIdleTimeout(10L * 60 * 1000);
         hikariConfig.setMaxLifetime(30L * 60 * 1000);
         hikariConfig.setKeepaliveTime(5L * 60 * 1000);
+        // Pool-wide, so long order exports (order.export.timeout) are reported too; Hikari logs again when they return
         hikariConfig.setLeakDetectionThreshold(60L * 1000);
+        // Pools are not beans, so their metrics are registered here, tagged with the pool name
+        hikariConfig.setMetricRegistry(meterRegistry);
 
         if (isReadOnly) {
             hikariConfig.setReadOnly(true);
@@ -2,6 +2,7 @@ package com.mrngwozdz.setup.database.config;
 
 import com.mrngwozdz.setup.database.entity.DatabaseMarker;
 import com.mrngwozdz.setup.database.entity.security.SecurityDatabaseMarker;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,9 +10,12 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionExecutionListener;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import javax.cache.CacheManager;
 import javax.sql.DataSource;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -27,23 +31,41 @@ public class EntityManagerConfig {
      * Single EntityManagerFactory that uses the RoutingDataSource.
      * The DataSource routing is handled transparently by DataSourceAspect
      * based on @ReadOperation or @WriteOperation annotations.
+     * The second-level cache is enabled only when {@link SecondLevelCacheConfig} provides a CacheManager.
      */
     @Primary
     @Bean(name = "entityManagerFactory")
     public LocalContainerEntityManagerFactoryBean entityManagerFactory(
             EntityManagerFactoryBuilder builder,
-            DataSource dataSource) {
+            DataSource dataSource,
+            ObjectProvider<CacheManager> secondLevelCacheManager) {
         return builder
                 .dataSource(dataSource)  // This is the RoutingDataSource
                 .packages(DatabaseMarker.class.getPackageName(), SecurityDatabaseMarker.class.getPackageName())
                 .persistenceUnit("default")
-                .properties(java.util.Map.of(
-                        "hibernate.cache.use_second_level_cache", "false",
-                        "hibernate.cache.use_query_cache", "false"
-                ))
+                .properties(cacheProperties(secondLevelCacheManager.getIfAvailable()))
                 .build();
     }
 
+    private Map<String, Object> cacheProperties(CacheManager secondLevelCacheManager) {
+        if (secondLevelCacheManager == null) {
+            return Map.of(
+                    "hibernate.cache.use_second_level_cache", "false",
+                    "hibernate.cache.use_query_cache", "false"
+            );
+        }
+        return Map.of(
+                "hibernate.cache.use_second_level_cache", "true",
+                "hibernate.cache.use_query_cache", "false",
+                "hibernate.cache.region.factory_class", "jcache",
+                "hibernate.javax.cache.cache_manager", secondLevelCacheManager,
+                // Regions are created with their size limits by SecondLevelCacheConfig, never on the fly
+                "hibernate.javax.cache.missing_cache_strategy", "fail",
+                // Feeds the per-region hit ratio metrics
+                "hibernate.generate_statistics", "true"
+        );
+    }
+
     /**
      * Single TransactionManager that works with the EntityManagerFactory.
      * The DataSource routing happens automatically based on the current thread context.
@@ -51,7 +73,12 @@ public class EntityManagerConfig {
     @Primary
     @Bean(name = "transactionManager")
     public PlatformTransactionManager transactionManager(
-            LocalContainerEntityManagerFactoryBean entityManagerFactory) {
-        return new JpaTransactionManager(Objects.requireNonNull(entityManagerFactory.getObject()));
+            LocalContainerEntityManagerFactoryBean entityManagerFactory,
+            ObjectProvider<TransactionExecutionListener> transactionExecutionListeners) {
+        JpaTransactionManager transactionManager =
+                new JpaTransactionManager(Objects.requireNonNull(entityManagerFactory.getObject()));
+        // e.g. ReplicaConsistencyGuard recording the WAL position of committed writes
+        transactionManager.setTransactionExecutionListeners(transactionExecutionListeners.orderedStream().toList());
+        return transactionManager;
     }
 }
@@ -0,0 +1,101 @@
+package com.mrngwozdz.setup.database.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.mrngwozdz.setup.properties.SecondLevelCacheProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Local JCache provider backing the Hibernate second-level cache when
+ * jpa.second-level-cache.enabled is set. Every region is created up front with its size limit;
+ * {@link EntityManagerConfig} hands this CacheManager to Hibernate.
+ *
+ * The cache is local to the instance: writes on other instances only become visible here
+ * once an entry expires, so keep expire-after-write short when running several instances.
+ * Transactions on the READ DataSource never put entries, see {@link SecondLevelCacheReadGuard}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "jpa.second-level-cache", name = "enabled", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+        var provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        var cacheManager = provider.getCacheManager(URI.create("setup-second-level-cache"), getClass().getClassLoader());
+        properties.getRegions().forEach((name, region) -> {
+            var configuration = new CaffeineConfiguration<Object, Object>();
+            configuration.setMaximumSize(OptionalLong.of(region.getMaxSize()));
+            configuration.setExpireAfterWrite(OptionalLong.of(region.getExpireAfterWrite().toNanos()));
+            // Hibernate caches immutable entry objects, copying them through serialization is wasted work
+            configuration.setStoreByValue(false);
+            cacheManager.createCache(name, configuration);
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public SecondLevelCacheReadGuard secondLevelCacheReadGuard(EntityManagerFactory entityManagerFactory) {
+        return new SecondLevelCacheReadGuard(entityManagerFactory);
+    }
+
+    /**
+     * Per-region hit, miss and put counts and hit ratio from Hibernate statistics.
+     */
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory,
+                                               SecondLevelCacheProperties properties) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> properties.getRegions().keySet().forEach(region -> {
+            Tags tags = Tags.of("region", region);
+            FunctionCounter.builder("hibernate.second.level.cache.requests", statistics,
+                            regionStatistic(region, CacheRegionStatistics::getHitCount))
+                    .tags(tags).tag("result", "hit")
+                    .description("Second-level cache lookups that found the entry")
+                    .register(registry);
+            FunctionCounter.builder("hibernate.second.level.cache.requests", statistics,
+                            regionStatistic(region, CacheRegionStatistics::getMissCount))
+                    .tags(tags).tag("result", "miss")
+                    .description("Second-level cache lookups that went to the database")
+                    .register(registry);
+            FunctionCounter.builder("hibernate.second.level.cache.puts", statistics,
+                            regionStatistic(region, CacheRegionStatistics::getPutCount))
+                    .tags(tags)
+                    .description("Entries put into the second-level cache")
+                    .register(registry);
+            Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics,
+                            regionStatistic(region, SecondLevelCacheConfig::hitRatio))
+                    .tags(tags)
+                    .description("Share of second-level cache lookups that found the entry since startup")
+                    .register(registry);
+        });
+    }
+
+    private static ToDoubleFunction<Statistics> regionStatistic(String region,
+                                                                ToDoubleFunction<CacheRegionStatistics> value) {
+        return statistics -> {
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            return regionStatistics != null ? value.applyAsDouble(regionStatistics) : 0;
+        };
+    }
+
+    private static double hitRatio(CacheRegionStatistics statistics) {
+        long lookups = statistics.getHitCount() + statistics.getMissCount();
+        return lookups == 0 ? 0 : (double) statistics.getHitCount() / lookups;
+    }
+}
@@ -0,0 +1,36 @@
+package com.mrngwozdz.setup.database.config;
+
+import com.mrngwozdz.setup.database.config.datasource.DataSourceContextHolder;
+import com.mrngwozdz.setup.database.config.datasource.DataSourceType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+/**
+ * Keeps transactions on the READ DataSource from putting entities into the second-level cache.
+ * Cache entries are invalidated when writes commit on the primary, so a replica lagging behind
+ * a write would put the old state back for the whole expire-after-write. Such transactions
+ * still read cached entries; only loads from the WRITE DataSource fill the cache.
+ */
+@RequiredArgsConstructor
+public class SecondLevelCacheReadGuard implements TransactionExecutionListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure != null || !transaction.isNewTransaction()
+                || DataSourceContextHolder.getDataSourceType() != DataSourceType.READ) {
+            return;
+        }
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (entityManager != null) {
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.GET);
+        }
+    }
+}
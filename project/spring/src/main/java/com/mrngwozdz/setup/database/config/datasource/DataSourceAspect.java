@@ -1,10 +1,16 @@
 package com.mrngwozdz.setup.database.config.datasource;
 
+import com.mrngwozdz.setup.platform.exception.BusinessException;
+import com.mrngwozdz.setup.platform.result.ErrorCode;
+import com.mrngwozdz.setup.platform.result.Failure;
+import io.vavr.control.Either;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
@@ -14,13 +20,24 @@ import org.springframework.stereotype.Component;
  *
  * This aspect runs BEFORE the @Transactional aspect (Order = 0) to ensure the
  * correct DataSource is selected before the transaction begins.
+ *
+ * When the DataSourceConcurrencyLimiter is enabled, the outermost operation also waits for
+ * a permit of its DataSource type. If none becomes available in time, methods returning
+ * Either get a Left(UNAVAILABLE), other methods throw a BusinessException with the same failure.
+ *
+ * With read-your-writes routing enabled, an outermost @ReadOperation following a write of the same
+ * session is routed by the ReplicaConsistencyGuard, which may send it to the WRITE DataSource.
  */
 @Slf4j
 @Aspect
 @Component
 @Order(0)  // Must run before @Transactional aspect
+@RequiredArgsConstructor
 public class DataSourceAspect {
 
+    private final DataSourceConcurrencyLimiter concurrencyLimiter;
+    private final ReplicaConsistencyGuard replicaConsistencyGuard;
+
     /**
      * Pointcut for methods annotated with @ReadOperation
      */
@@ -41,21 +58,7 @@ public class DataSourceAspect {
      */
     @Around("readOperation()")
     public Object routeReadOperation(ProceedingJoinPoint joinPoint) throws Throwable {
-        DataSourceType previous = DataSourceContextHolder.getDataSourceType();
-
-        try {
-            log.debug("Setting DataSource to READ for method: {}", joinPoint.getSignature().getName());
-            DataSourceContextHolder.setDataSourceType(DataSourceType.READ);
-            return joinPoint.proceed();
-        } finally {
-            // Restore previous context (in case of nested calls)
-            if (previous != null) {
-                DataSourceContextHolder.setDataSourceType(previous);
-            } else {
-                DataSourceContextHolder.clear();
-            }
-            log.debug("DataSource context cleared for method: {}", joinPoint.getSignature().getName());
-        }
+        return route(joinPoint, DataSourceType.READ);
     }
 
     /**
@@ -64,11 +67,22 @@ public class DataSourceAspect {
      */
     @Around("writeOperation()")
     public Object routeWriteOperation(ProceedingJoinPoint joinPoint) throws Throwable {
-        DataSourceType previous = DataSourceContextHolder.getDataSourceType();
+        return route(joinPoint, DataSourceType.WRITE);
+    }
+
+    private Object route(ProceedingJoinPoint joinPoint, DataSourceType requestedType) throws Throwable {
+        String methodName = joinPoint.getSignature().getName();
+        DataSourceType previous = DataSourceContextHolder.getExplicitDataSourceType();
+        DataSourceType type = previous == null && requestedType == DataSourceType.READ
+                ? replicaConsistencyGuard.routeRead()
+                : requestedType;
+        if (!concurrencyLimiter.acquire(type)) {
+            return unavailable(joinPoint, type);
+        }
 
         try {
-            log.debug("Setting DataSource to WRITE for method: {}", joinPoint.getSignature().getName());
-            DataSourceContextHolder.setDataSourceType(DataSourceType.WRITE);
+            log.debug("Setting DataSource to {} for method: {}", type, methodName);
+            DataSourceContextHolder.setDataSourceType(type);
             return joinPoint.proceed();
         } finally {
             // Restore previous context (in case of nested calls)
@@ -77,7 +91,20 @@ public class DataSourceAspect {
             } else {
                 DataSourceContextHolder.clear();
             }
-            log.debug("DataSource context cleared for method: {}", joinPoint.getSignature().getName());
+            concurrencyLimiter.release();
+            log.debug("DataSource context cleared for method: {}", methodName);
+        }
+    }
+
+    private Object unavailable(ProceedingJoinPoint joinPoint, DataSourceType type) {
+        Failure failure = Failure.ofDefault(ErrorCode.UNAVAILABLE)
+                .with("dataSource", type.name())
+                .with("acquireTimeoutMs", concurrencyLimiter.getAcquireTimeout().toMillis());
+
+        Class<?> returnType = ((MethodSignature) joinPoint.getSignature()).getReturnType();
+        if (Either.class.isAssignableFrom(returnType)) {
+            return Either.left(failure);
         }
+        throw new BusinessException(failure);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,141 @@
+package com.mrngwozdz.setup.database.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of threads concurrently running READ or WRITE operations
+ * to the size of the corresponding connection pool.
+ *
+ * With virtual threads the number of concurrent requests is no longer bounded by the
+ * servlet thread pool, so without this limiter every request past the pool size would
+ * block inside HikariCP and fail with a connection-acquire timeout. Waiting on a
+ * semaphore parks the virtual thread instead and lets callers fail fast with a clear error.
+ *
+ * A permit is held for the outermost operation only - nested @ReadOperation / @WriteOperation
+ * calls on the same thread reuse it, so they can never deadlock waiting for a second permit.
+ *
+ * The number of permits follows the pool sizes when the HikariPoolController resizes the pools.
+ */
+@Slf4j
+public class DataSourceConcurrencyLimiter {
+
+    private static final ThreadLocal<HeldPermit> HELD = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final Duration acquireTimeout;
+    private final Map<DataSourceType, ResizableSemaphore> permits = new EnumMap<>(DataSourceType.class);
+    private final Map<DataSourceType, Integer> limits = new EnumMap<>(DataSourceType.class);
+
+    public DataSourceConcurrencyLimiter(boolean enabled, Duration acquireTimeout,
+                                        int readPermits, int writePermits) {
+        this.enabled = enabled;
+        this.acquireTimeout = acquireTimeout;
+        this.permits.put(DataSourceType.READ, new ResizableSemaphore(readPermits));
+        this.permits.put(DataSourceType.WRITE, new ResizableSemaphore(writePermits));
+        this.limits.put(DataSourceType.READ, readPermits);
+        this.limits.put(DataSourceType.WRITE, writePermits);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    /**
+     * Acquires a permit for the given DataSource type, waiting up to the acquire timeout.
+     * Every successful call must be paired with {@link #release()}.
+     *
+     * @return false if no permit became available within the timeout
+     */
+    public boolean acquire(DataSourceType type) throws InterruptedException {
+        if (!enabled) {
+            return true;
+        }
+
+        HeldPermit held = HELD.get();
+        if (held != null) {
+            held.depth++;
+            return true;
+        }
+
+        if (!permits.get(type).tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Timed out after {}ms waiting for {} DataSource permit", acquireTimeout.toMillis(), type);
+            return false;
+        }
+        HELD.set(new HeldPermit(type));
+        return true;
+    }
+
+    /**
+     * Releases the permit held by the current thread once the outermost operation completes.
+     */
+    public void release() {
+        if (!enabled) {
+            return;
+        }
+
+        HeldPermit held = HELD.get();
+        if (held == null) {
+            return;
+        }
+        if (--held.depth == 0) {
+            HELD.remove();
+            permits.get(held.type).release();
+        }
+    }
+
+    public int availablePermits(DataSourceType type) {
+        return permits.get(type).availablePermits();
+    }
+
+    /**
+     * Changes the number of permits for the given DataSource type. Permits held above a lower
+     * limit are not revoked; new callers wait until enough of them are released.
+     */
+    public synchronized void resize(DataSourceType type, int limit) {
+        int delta = limit - limits.get(type);
+        if (delta > 0) {
+            permits.get(type).release(delta);
+        } else if (delta < 0) {
+            permits.get(type).reducePermits(-delta);
+        }
+        limits.put(type, limit);
+    }
+
+    /**
+     * Estimated number of threads waiting for a permit of the given DataSource type.
+     */
+    public int waitingThreads(DataSourceType type) {
+        return enabled ? permits.get(type).getQueueLength() : 0;
+    }
+
+    private static final class ResizableSemaphore extends Semaphore {
+
+        private ResizableSemaphore(int permits) {
+            super(permits, true);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+
+    private static final class HeldPermit {
+        private final DataSourceType type;
+        private int depth = 1;
+
+        private HeldPermit(DataSourceType type) {
+            this.type = type;
+        }
+    }
+}
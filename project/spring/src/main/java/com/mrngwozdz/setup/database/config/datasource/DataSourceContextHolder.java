@@ -6,6 +6,9 @@ import lombok.extern.slf4j.Slf4j;
  * Thread-local context holder for DataSource routing.
  * Stores the current DataSourceType for the executing thread.
  * Used by RoutingDataSource to determine which DataSource to use.
+ *
+ * Works the same on platform and virtual threads: the context is set and cleared around each
+ * operation on the thread that runs it, and is never inherited by other threads.
  */
 @Slf4j
 public class DataSourceContextHolder {
@@ -43,6 +46,16 @@ public class DataSourceContextHolder {
         return type;
     }
 
+    /**
+     * Gets the DataSource type explicitly set for this thread, without the WRITE default.
+     * Used to restore the previous context after nested operations.
+     *
+     * @return the DataSourceType set for this thread, or null if none has been set
+     */
+    public static DataSourceType getExplicitDataSourceType() {
+        return CONTEXT.get();
+    }
+
     /**
      * Clears the DataSource type from the current thread.
      * Should be called after the operation completes to prevent memory leaks.
@@ -0,0 +1,181 @@
+package com.mrngwozdz.setup.database.config.datasource;
+
+import com.mrngwozdz.setup.properties.PoolControllerProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resizes the Hikari pools behind the RoutingDataSource to where the threads are waiting,
+ * keeping the sum of their maximum sizes within the global budget.
+ *
+ * Every interval each pool is observed through its HikariPoolMXBean. Threads waiting for a
+ * DataSourceConcurrencyLimiter permit count as waiting for the pool too, since with the limiter
+ * enabled they never reach Hikari.
+ * - A pool with waiting threads grows by up to step, within its bounds. If the budget is used up
+ *   it reclaims unused size from pools nobody is waiting on.
+ * - A pool that had idle connections and no waiting threads for shrink-after intervals shrinks by step.
+ * A shrinking pool keeps its open connections: with the lower maximum size and minimum idle, Hikari retires
+ * the surplus idle connections after idle-timeout, so shrinking never closes and reopens the connections
+ * the pool still needs.
+ */
+@Slf4j
+public class HikariPoolController {
+
+    private final PoolControllerProperties properties;
+    private final DataSourceConcurrencyLimiter concurrencyLimiter;
+    private final List<Pool> pools = new ArrayList<>();
+
+    public HikariPoolController(PoolControllerProperties properties, Map<DataSourceType, List<HikariDataSource>> pools,
+                                DataSourceConcurrencyLimiter concurrencyLimiter, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.concurrencyLimiter = concurrencyLimiter;
+        pools.forEach((type, dataSources) -> dataSources.forEach(dataSource -> this.pools.add(new Pool(type, dataSource,
+                type == DataSourceType.WRITE ? properties.getCommand() : properties.getQuery(), meterRegistry))));
+
+        int configured = this.pools.stream().mapToInt(pool -> pool.size).sum();
+        if (configured > properties.getGlobalBudget()) {
+            log.warn("Configured pool sizes ({}) exceed the global connection budget ({}), pools only grow once others shrink",
+                    configured, properties.getGlobalBudget());
+        }
+        Gauge.builder("datasource.pool.budget.used", this, controller -> controller.pools.stream().mapToInt(pool -> pool.size).sum())
+                .description("Sum of the maximum sizes of all connection pools")
+                .register(meterRegistry);
+        Gauge.builder("datasource.pool.budget", properties, PoolControllerProperties::getGlobalBudget)
+                .description("Global connection budget shared by all connection pools")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Observes all pools and resizes them once.
+     */
+    @Scheduled(fixedDelayString = "${spring.datasource.pool-controller.interval:1s}")
+    public void adjust() {
+        Map<DataSourceType, Integer> poolsPerType = new EnumMap<>(DataSourceType.class);
+        pools.forEach(pool -> poolsPerType.merge(pool.type, 1, Integer::sum));
+        for (Pool pool : pools) {
+            pool.observe(concurrencyLimiter.waitingThreads(pool.type) / poolsPerType.get(pool.type));
+        }
+
+        for (Pool pool : pools) {
+            if (pool.idleIntervals >= properties.getShrinkAfter()) {
+                pool.target = Math.max(pool.bounds.getMinSize(), Math.max(pool.active, pool.size - properties.getStep()));
+                pool.idleIntervals = 0;
+            }
+        }
+
+        int used = pools.stream().mapToInt(pool -> pool.target).sum();
+        List<Pool> waiting = pools.stream()
+                .filter(pool -> pool.waiting > 0)
+                .sorted(Comparator.comparingInt((Pool pool) -> pool.waiting).reversed())
+                .toList();
+        for (Pool pool : waiting) {
+            int wanted = Math.min(Math.min(properties.getStep(), pool.waiting), pool.bounds.getMaxSize() - pool.target);
+            if (wanted <= 0) {
+                continue;
+            }
+            for (Pool donor : pools) {
+                if (properties.getGlobalBudget() - used >= wanted) {
+                    break;
+                }
+                if (donor.waiting > 0) {
+                    continue;
+                }
+                int taken = Math.min(donor.spare(), wanted - (properties.getGlobalBudget() - used));
+                donor.target -= taken;
+                used -= taken;
+            }
+            int granted = Math.min(wanted, properties.getGlobalBudget() - used);
+            if (granted > 0) {
+                pool.target += granted;
+                used += granted;
+            }
+        }
+
+        Map<DataSourceType, Integer> permits = new EnumMap<>(DataSourceType.class);
+        for (Pool pool : pools) {
+            pool.apply();
+            permits.merge(pool.type, pool.size, Integer::sum);
+        }
+        permits.forEach(concurrencyLimiter::resize);
+    }
+
+    private static final class Pool {
+        private final DataSourceType type;
+        private final HikariDataSource dataSource;
+        private final PoolControllerProperties.Bounds bounds;
+        private final int minimumIdle;
+        private final Counter grown;
+        private final Counter shrunk;
+        private int size;
+        private int target;
+        private int waiting;
+        private int active;
+        private int idle;
+        private int idleIntervals;
+
+        private Pool(DataSourceType type, HikariDataSource dataSource, PoolControllerProperties.Bounds bounds,
+                     MeterRegistry meterRegistry) {
+            this.type = type;
+            this.dataSource = dataSource;
+            this.bounds = bounds;
+            this.minimumIdle = dataSource.getMinimumIdle();
+            this.size = dataSource.getMaximumPoolSize();
+            this.target = size;
+            this.grown = resizes(meterRegistry, "grow");
+            this.shrunk = resizes(meterRegistry, "shrink");
+        }
+
+        private Counter resizes(MeterRegistry meterRegistry, String direction) {
+            return Counter.builder("datasource.pool.resizes")
+                    .description("Maximum size changes of the connection pool made by the pool controller")
+                    .tag("pool", dataSource.getPoolName())
+                    .tag("direction", direction)
+                    .register(meterRegistry);
+        }
+
+        private void observe(int waitingForPermit) {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            waiting = pool.getThreadsAwaitingConnection() + waitingForPermit;
+            active = pool.getActiveConnections();
+            idle = pool.getIdleConnections();
+            target = size;
+            idleIntervals = waiting == 0 && idle > 0 ? idleIntervals + 1 : 0;
+        }
+
+        /**
+         * Size that may be handed to another pool: idle connections and connections never opened.
+         */
+        private int spare() {
+            return Math.max(0, Math.min(target - active, target - bounds.getMinSize()));
+        }
+
+        private void apply() {
+            if (target == size) {
+                return;
+            }
+            log.info("Resizing connection pool {} from {} to {} (waiting {}, active {}, idle {})",
+                    dataSource.getPoolName(), size, target, waiting, active, idle);
+            if (target > size) {
+                dataSource.getHikariConfigMXBean().setMaximumPoolSize(target);
+                dataSource.getHikariConfigMXBean().setMinimumIdle(Math.min(minimumIdle, target));
+                grown.increment();
+            } else {
+                dataSource.getHikariConfigMXBean().setMinimumIdle(Math.min(minimumIdle, target));
+                dataSource.getHikariConfigMXBean().setMaximumPoolSize(target);
+                shrunk.increment();
+            }
+            size = target;
+        }
+    }
+}
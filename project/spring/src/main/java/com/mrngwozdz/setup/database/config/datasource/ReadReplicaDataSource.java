@@ -0,0 +1,360 @@
+package com.mrngwozdz.setup.database.config.datasource;
+
+import com.mrngwozdz.setup.properties.ReadReplicaProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * READ DataSource balancing connections over several query replicas.
+ *
+ * Every getConnection() - once per transaction - picks the admitted replica with the lowest
+ * outstanding connections (LEAST_OUTSTANDING), or the lowest average connection hold time
+ * multiplied by its outstanding connections (EWMA), divided by the replica's weight.
+ *
+ * A background probe checks every replica's replay position against the WRITE DataSource.
+ * Replicas failing failure-threshold consecutive probes or connection attempts, or lagging more
+ * than max-lag, are ejected. A replica that recovers is re-admitted with initial-weight and its
+ * share grows back to full over ramp-up. While no replica is admitted reads go to the WRITE DataSource.
+ */
+@Slf4j
+public class ReadReplicaDataSource extends AbstractDataSource {
+
+    private static final String REPLAY_LSN_SQL = "SELECT pg_last_wal_replay_lsn()::text";
+    private static final String WRITE_LSN_SQL = "SELECT pg_current_wal_lsn()::text";
+
+    private final ReadReplicaProperties properties;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final DataSource fallback;
+    private final Counter fallbacks;
+    private final MeterRegistry meterRegistry;
+    private ScheduledExecutorService probeExecutor;
+
+    /**
+     * @param replicas the replica connection pools by name
+     * @param fallback the WRITE DataSource, also the reference for replica lag
+     */
+    public ReadReplicaDataSource(ReadReplicaProperties properties, Map<String, DataSource> replicas,
+                                 DataSource fallback, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.fallback = fallback;
+        this.meterRegistry = meterRegistry;
+        long admittedAt = System.nanoTime() - properties.getHealth().getRampUp().toNanos();
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource, admittedAt)));
+        this.replicas.forEach(this::registerMetrics);
+        this.fallbacks = Counter.builder("datasource.read.replica.fallbacks")
+                .description("Connections taken from the WRITE DataSource because no replica was admitted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts probing the replicas every probe-interval.
+     */
+    public synchronized void start() {
+        if (probeExecutor != null) {
+            return;
+        }
+        probeExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "read-replica-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getHealth().getProbeInterval().toMillis();
+        probeExecutor.scheduleWithFixedDelay(this::probe, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (probeExecutor != null) {
+            probeExecutor.shutdownNow();
+            probeExecutor = null;
+        }
+    }
+
+    /**
+     * The replica connection pools by name.
+     */
+    public Map<String, DataSource> getReplicaDataSources() {
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        replicas.forEach(replica -> dataSources.put(replica.name, replica.dataSource));
+        return dataSources;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = select();
+        if (replica == null) {
+            fallbacks.increment();
+            return fallback.getConnection();
+        }
+        return replica.connect(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Replica replica = select();
+        if (replica == null) {
+            fallbacks.increment();
+            return fallback.getConnection(username, password);
+        }
+        return replica.connect(username, password);
+    }
+
+    /**
+     * The lowest replay position of the admitted replicas, so a read routed to any of them
+     * sees everything up to it. Long.MAX_VALUE if they are not in recovery, 0 if none is admitted.
+     */
+    public long minReplayLsn() throws SQLException {
+        long min = Long.MAX_VALUE;
+        boolean anyAdmitted = false;
+        for (Replica replica : replicas) {
+            if (replica.admitted) {
+                anyAdmitted = true;
+                min = Math.min(min, replayLsn(replica.dataSource));
+            }
+        }
+        return anyAdmitted ? min : 0;
+    }
+
+    Replica select() {
+        long now = System.nanoTime();
+        int size = replicas.size();
+        int offset = ThreadLocalRandom.current().nextInt(size);
+        Replica best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((offset + i) % size);
+            double weight = replica.weight(now);
+            if (weight <= 0) {
+                continue;
+            }
+            double load = replica.outstanding.get() + 1;
+            double cost = properties.getBalancing() == ReadReplicaProperties.Balancing.EWMA
+                    ? Math.max(replica.latencyNanos, 1_000) * load
+                    : load;
+            double score = cost / weight;
+            if (score < bestScore) {
+                best = replica;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Checks every replica once, ejecting and re-admitting them. Runs on the probe thread.
+     */
+    public void probe() {
+        Long writeLsn = null;
+        try {
+            writeLsn = queryLsn(fallback, WRITE_LSN_SQL);
+        } catch (SQLException e) {
+            log.warn("Failed to read WAL position of the WRITE DataSource, replica lag is unknown: {}", e.getMessage());
+        }
+
+        long maxLag = properties.getHealth().getMaxLag().toBytes();
+        for (Replica replica : replicas) {
+            long replayLsn;
+            try {
+                replayLsn = replayLsn(replica.dataSource);
+            } catch (SQLException e) {
+                replica.failed("probe failed: " + e.getMessage());
+                continue;
+            }
+            replica.consecutiveFailures.set(0);
+            if (writeLsn != null) {
+                replica.lagBytes = replayLsn == Long.MAX_VALUE ? 0 : Math.max(0, writeLsn - replayLsn);
+            }
+
+            if (replica.admitted && replica.lagBytes > maxLag) {
+                replica.eject("lag", "lagging " + replica.lagBytes + " bytes");
+            } else if (!replica.admitted && replica.lagBytes <= maxLag / 2) {
+                readmit(replica);
+            }
+        }
+    }
+
+    private void readmit(Replica replica) {
+        // Start from the slowest admitted replica rather than a stale or empty average
+        double latency = replicas.stream()
+                .filter(other -> other.admitted)
+                .mapToDouble(other -> other.latencyNanos)
+                .max()
+                .orElse(replica.latencyNanos);
+        if (replica.readmit(latency)) {
+            log.info("Read replica {} re-admitted, ramping up over {}", replica.name, properties.getHealth().getRampUp());
+        }
+    }
+
+    private long replayLsn(DataSource dataSource) throws SQLException {
+        Long lsn = queryLsn(dataSource, REPLAY_LSN_SQL);
+        // Not in recovery: the endpoint is a primary and never lags
+        return lsn != null ? lsn : Long.MAX_VALUE;
+    }
+
+    private Long queryLsn(DataSource dataSource, String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout((int) Math.max(1, properties.getHealth().getProbeTimeout().toSeconds()));
+            try (ResultSet resultSet = statement.executeQuery(sql)) {
+                resultSet.next();
+                String lsn = resultSet.getString(1);
+                return lsn != null ? ReplicaConsistencyGuard.parseLsn(lsn) : null;
+            }
+        }
+    }
+
+    private void registerMetrics(Replica replica) {
+        Gauge.builder("datasource.read.replica.outstanding", replica, r -> r.outstanding.get())
+                .description("Connections of the replica currently handed out")
+                .tag("replica", replica.name)
+                .register(meterRegistry);
+        Gauge.builder("datasource.read.replica.latency", replica, r -> r.latencyNanos / 1e9)
+                .description("Moving average of the time connections of the replica are held")
+                .tag("replica", replica.name)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.read.replica.weight", replica, r -> r.weight(System.nanoTime()))
+                .description("Share of its full traffic the replica receives, 0 while ejected")
+                .tag("replica", replica.name)
+                .register(meterRegistry);
+        Gauge.builder("datasource.read.replica.lag.bytes", replica, r -> r.lagBytes)
+                .description("WAL bytes the replica had not replayed at the last probe")
+                .tag("replica", replica.name)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        replica.ejectionsForLag = ejections(replica, "lag");
+        replica.ejectionsForFailures = ejections(replica, "failures");
+        replica.readmissions = Counter.builder("datasource.read.replica.readmissions")
+                .description("Times the replica was re-admitted after an ejection")
+                .tag("replica", replica.name)
+                .register(meterRegistry);
+    }
+
+    private Counter ejections(Replica replica, String reason) {
+        return Counter.builder("datasource.read.replica.ejections")
+                .description("Times the replica was ejected from READ load balancing")
+                .tag("replica", replica.name)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    final class Replica {
+        final String name;
+        final DataSource dataSource;
+        final AtomicInteger outstanding = new AtomicInteger();
+        final AtomicInteger consecutiveFailures = new AtomicInteger();
+        volatile boolean admitted = true;
+        volatile long admittedAt;
+        volatile double latencyNanos;
+        volatile long lagBytes;
+        private long lastSampleAt;
+        private Counter ejectionsForLag;
+        private Counter ejectionsForFailures;
+        private Counter readmissions;
+
+        private Replica(String name, DataSource dataSource, long admittedAt) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.admittedAt = admittedAt;
+            this.lastSampleAt = System.nanoTime();
+        }
+
+        double weight(long now) {
+            if (!admitted) {
+                return 0;
+            }
+            ReadReplicaProperties.Health health = properties.getHealth();
+            long rampUp = health.getRampUp().toNanos();
+            long elapsed = now - admittedAt;
+            if (elapsed >= rampUp) {
+                return 1;
+            }
+            double initial = health.getInitialWeight();
+            return initial + (1 - initial) * elapsed / rampUp;
+        }
+
+        Connection connect(String username, String password) throws SQLException {
+            outstanding.incrementAndGet();
+            Connection connection;
+            try {
+                connection = username == null ? dataSource.getConnection() : dataSource.getConnection(username, password);
+            } catch (SQLException | RuntimeException e) {
+                outstanding.decrementAndGet();
+                failed("connection failed: " + e.getMessage());
+                throw e;
+            }
+            consecutiveFailures.set(0);
+            return track(connection, System.nanoTime());
+        }
+
+        private Connection track(Connection connection, long acquiredAt) {
+            boolean[] closed = {false};
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("close") && !closed[0]) {
+                            closed[0] = true;
+                            outstanding.decrementAndGet();
+                            sample(System.nanoTime() - acquiredAt);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+
+        private synchronized void sample(long holdNanos) {
+            long now = System.nanoTime();
+            double alpha = 1 - Math.exp(-(double) (now - lastSampleAt) / properties.getLatencyDecay().toNanos());
+            lastSampleAt = now;
+            latencyNanos = latencyNanos == 0 ? holdNanos : latencyNanos + alpha * (holdNanos - latencyNanos);
+        }
+
+        void failed(String reason) {
+            if (consecutiveFailures.incrementAndGet() >= properties.getHealth().getFailureThreshold() && admitted) {
+                eject("failures", reason);
+            }
+        }
+
+        private synchronized boolean readmit(double latency) {
+            if (admitted) {
+                return false;
+            }
+            latencyNanos = latency;
+            admittedAt = System.nanoTime();
+            consecutiveFailures.set(0);
+            admitted = true;
+            readmissions.increment();
+            return true;
+        }
+
+        private synchronized void eject(String cause, String reason) {
+            if (!admitted) {
+                return;
+            }
+            admitted = false;
+            ("lag".equals(cause) ? ejectionsForLag : ejectionsForFailures).increment();
+            log.warn("Read replica {} ejected, {}", name, reason);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.mrngwozdz.setup.database.config.datasource;
+
+import java.util.function.Consumer;
+
+/**
+ * Thread-local read-your-writes session of the current request, set by ReadYourWritesFilter.
+ * Like {@link DataSourceContextHolder} it is never inherited by other threads.
+ */
+public class ReadYourWritesContext {
+
+    private static final ThreadLocal<Session> CONTEXT = new ThreadLocal<>();
+
+    /**
+     * @param key        session key the write positions are recorded under
+     * @param tokenLsn   WAL position sent back by the client, 0 if none
+     * @param tokenSink  receives the consistency token after each write commit
+     */
+    public record Session(String key, long tokenLsn, Consumer<String> tokenSink) {
+    }
+
+    public static void set(Session session) {
+        CONTEXT.set(session);
+    }
+
+    public static Session get() {
+        return CONTEXT.get();
+    }
+
+    public static void clear() {
+        CONTEXT.remove();
+    }
+}
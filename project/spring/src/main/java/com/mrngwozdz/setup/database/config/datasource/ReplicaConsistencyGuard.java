@@ -0,0 +1,238 @@
+package com.mrngwozdz.setup.database.config.datasource;
+
+import com.mrngwozdz.setup.properties.ReadYourWritesProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-your-writes routing for a READ DataSource that replicates from the WRITE DataSource.
+ *
+ * After every committed WRITE transaction of a request the primary's WAL insert position is
+ * recorded for the request's session and returned to the client as a consistency token.
+ * A later @ReadOperation of the same session (or carrying the token) is routed to the READ
+ * DataSource only once the replica has replayed that position; it waits up to max-wait for
+ * the replica and is routed to the WRITE DataSource otherwise.
+ *
+ * The replica's replay position is polled at most once per poll-interval and shared by all
+ * waiting reads. With several replicas behind a ReadReplicaDataSource the lowest replay position
+ * of the admitted replicas counts. A READ DataSource that is not a replica reports no replay
+ * position and always counts as caught up.
+ */
+@Slf4j
+public class ReplicaConsistencyGuard implements TransactionExecutionListener {
+
+    private static final String WRITE_LSN_SQL = "SELECT pg_current_wal_insert_lsn()::text";
+    private static final String REPLAY_LSN_SQL = "SELECT pg_last_wal_replay_lsn()::text";
+
+    private final ReadYourWritesProperties properties;
+    private final DataSource dataSource;
+    private final JdbcTemplate writeLsnTemplate;
+    private final Map<String, SessionLsn> sessions;
+    private final Counter replicaReads;
+    private final Counter replicaReadsAfterWait;
+    private final Counter primaryReads;
+    private final Timer waitTimer;
+
+    private volatile DataSource readDataSource;
+    private volatile long replayLsn;
+    private volatile long replayLsnCheckedAt;
+    private volatile long lastWriteLsn;
+
+    /**
+     * @param dataSource the DataSource of the JPA transactions, a {@link RoutingDataSource} or a proxy of it
+     */
+    public ReplicaConsistencyGuard(ReadYourWritesProperties properties, DataSource dataSource,
+                                   MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.dataSource = dataSource;
+        // Runs in afterCommit, so it reuses the connection still bound to the committed transaction
+        this.writeLsnTemplate = new JdbcTemplate(dataSource);
+        this.sessions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SessionLsn> eldest) {
+                return size() > properties.getMaxSessions();
+            }
+        };
+        this.replicaReads = Counter.builder("datasource.read.your.writes.reads").tag("outcome", "replica")
+                .description("Reads after a write routed to the replica, which had already replayed the write")
+                .register(meterRegistry);
+        this.replicaReadsAfterWait = Counter.builder("datasource.read.your.writes.reads").tag("outcome", "replica_after_wait")
+                .description("Reads after a write routed to the replica after waiting for it to replay the write")
+                .register(meterRegistry);
+        this.primaryReads = Counter.builder("datasource.read.your.writes.reads").tag("outcome", "primary")
+                .description("Reads after a write routed to the WRITE DataSource because the replica lagged")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("datasource.read.your.writes.wait")
+                .description("Time reads after a write spent waiting for the replica")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.lag.bytes", this, ReplicaConsistencyGuard::replicaLagBytes)
+                .description("WAL bytes between the last write of this instance and the last observed replica replay position")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Records the WAL position of a committed WRITE transaction for the current request's session.
+     * Requests without a client-supplied session key only get the consistency token, so one-off
+     * requests never evict real sessions from the max-sessions LRU.
+     */
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        ReadYourWritesContext.Session session = ReadYourWritesContext.get();
+        if (!isEnabled() || session == null || commitFailure != null
+                || !transaction.isNewTransaction() || transaction.isReadOnly()
+                || DataSourceContextHolder.getDataSourceType() != DataSourceType.WRITE) {
+            return;
+        }
+
+        long lsn;
+        try {
+            lsn = parseLsn(writeLsnTemplate.queryForObject(WRITE_LSN_SQL, String.class));
+        } catch (DataAccessException e) {
+            log.warn("Failed to read WAL position after commit, reads of session {} may see stale data: {}",
+                    session.key(), e.getMessage());
+            return;
+        }
+        lastWriteLsn = Math.max(lastWriteLsn, lsn);
+        if (session.key() != null) {
+            long expiresAt = System.nanoTime() + properties.getSessionTtl().toNanos();
+            synchronized (sessions) {
+                sessions.merge(session.key(), new SessionLsn(lsn, expiresAt),
+                        (previous, current) -> new SessionLsn(Math.max(previous.lsn, current.lsn), expiresAt));
+            }
+        }
+        session.tokenSink().accept(formatLsn(lsn));
+    }
+
+    /**
+     * Chooses the DataSource for an outermost @ReadOperation of the current request.
+     */
+    public DataSourceType routeRead() {
+        ReadYourWritesContext.Session session = ReadYourWritesContext.get();
+        if (!isEnabled() || session == null) {
+            return DataSourceType.READ;
+        }
+        long requiredLsn = Math.max(session.tokenLsn(), sessionLsn(session.key()));
+        if (requiredLsn == 0) {
+            return DataSourceType.READ;
+        }
+
+        if (replayedUpTo(requiredLsn)) {
+            replicaReads.increment();
+            return DataSourceType.READ;
+        }
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + properties.getMaxWait().toNanos();
+        try {
+            while (System.nanoTime() - deadline < 0) {
+                Thread.sleep(properties.getPollInterval().toMillis());
+                if (replayedUpTo(requiredLsn)) {
+                    replicaReadsAfterWait.increment();
+                    return DataSourceType.READ;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            waitTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+        log.debug("Replica has not replayed {} of session {} within {}, reading from WRITE DataSource",
+                formatLsn(requiredLsn), session.key(), properties.getMaxWait());
+        primaryReads.increment();
+        return DataSourceType.WRITE;
+    }
+
+    private long sessionLsn(String key) {
+        if (key == null) {
+            return 0;
+        }
+        synchronized (sessions) {
+            SessionLsn sessionLsn = sessions.get(key);
+            if (sessionLsn == null) {
+                return 0;
+            }
+            if (sessionLsn.expiresAt - System.nanoTime() < 0) {
+                sessions.remove(key);
+                return 0;
+            }
+            return sessionLsn.lsn;
+        }
+    }
+
+    private boolean replayedUpTo(long lsn) {
+        if (replayLsn >= lsn) {
+            return true;
+        }
+        refreshReplayLsn();
+        return replayLsn >= lsn;
+    }
+
+    private synchronized void refreshReplayLsn() {
+        long now = System.nanoTime();
+        if (now - replayLsnCheckedAt < properties.getPollInterval().toNanos()) {
+            return;
+        }
+        try {
+            replayLsn = readReplayLsn();
+        } catch (DataAccessException | SQLException e) {
+            log.warn("Failed to read replica replay position: {}", e.getMessage());
+        } finally {
+            replayLsnCheckedAt = System.nanoTime();
+        }
+    }
+
+    private long readReplayLsn() throws SQLException {
+        if (readDataSource == null) {
+            readDataSource = dataSource.unwrap(RoutingDataSource.class)
+                    .getResolvedDataSources().get(DataSourceType.READ);
+        }
+        if (readDataSource instanceof ReadReplicaDataSource replicas) {
+            // Reads may go to any admitted replica, so all of them must have replayed the write
+            return replicas.minReplayLsn();
+        }
+        String lsn = new JdbcTemplate(readDataSource).queryForObject(REPLAY_LSN_SQL, String.class);
+        // Not in recovery: the READ DataSource is the primary itself
+        return lsn != null ? parseLsn(lsn) : Long.MAX_VALUE;
+    }
+
+    private double replicaLagBytes() {
+        long replay = replayLsn;
+        return replay == Long.MAX_VALUE ? 0 : Math.max(0, lastWriteLsn - replay);
+    }
+
+    /**
+     * Parses a PostgreSQL pg_lsn text value such as 16/B374D848.
+     */
+    public static long parseLsn(String lsn) {
+        int separator = lsn.indexOf('/');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid LSN: " + lsn);
+        }
+        return (Long.parseLong(lsn.substring(0, separator), 16) << 32)
+                | Long.parseLong(lsn.substring(separator + 1), 16);
+    }
+
+    public static String formatLsn(long lsn) {
+        return Long.toHexString(lsn >>> 32).toUpperCase() + "/" + Long.toHexString(lsn & 0xFFFFFFFFL).toUpperCase();
+    }
+
+    private record SessionLsn(long lsn, long expiresAt) {
+    }
+}
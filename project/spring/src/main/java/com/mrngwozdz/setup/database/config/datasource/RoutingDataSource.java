@@ -2,6 +2,7 @@ package com.mrngwozdz.setup.database.config.datasource;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Dynamic DataSource router for CQRS pattern.
@@ -10,6 +11,11 @@ import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
  *
  * This allows having a single EntityManagerFactory and TransactionManager while
  * still maintaining separate connection pools for read and write operations.
+ *
+ * Without an explicit context, read-only transactions go to the READ DataSource and everything
+ * else to the WRITE DataSource. The transaction's read-only flag is only known once the transaction
+ * has begun, so this matters when connections are fetched lazily at the first statement
+ * (spring.datasource.lazy-connection).
  */
 @Slf4j
 public class RoutingDataSource extends AbstractRoutingDataSource {
@@ -22,7 +28,12 @@ public class RoutingDataSource extends AbstractRoutingDataSource {
      */
     @Override
     protected Object determineCurrentLookupKey() {
-        DataSourceType type = DataSourceContextHolder.getDataSourceType();
+        DataSourceType type = DataSourceContextHolder.getExplicitDataSourceType();
+        if (type == null) {
+            type = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                    ? DataSourceType.READ
+                    : DataSourceType.WRITE;
+        }
         log.trace("Routing to DataSource: {}", type);
         return type;
     }
@@ -1,15 +1,23 @@
 package com.mrngwozdz.setup.database.entity;
 
+import com.mrngwozdz.setup.properties.SecondLevelCacheProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "orders")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheProperties.ORDER_REGION)
+@NaturalIdCache(region = SecondLevelCacheProperties.ORDER_NATURAL_ID_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,6 +27,7 @@ public class Order {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @NaturalId
     @Column(nullable = false, unique = true)
     private String orderId;
 
@@ -0,0 +1,170 @@
+package com.mrngwozdz.setup.messaging.cache;
+
+import com.mrngwozdz.setup.messaging.model.OrderCacheInvalidation;
+import com.mrngwozdz.setup.properties.OrderCacheProperties;
+import com.mrngwozdz.setup.service.order.data.cache.OrderCache;
+import com.mrngwozdz.setup.service.order.data.cache.OrderInvalidationPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Broadcasts order cache evictions committed on this instance to all instances and applies
+ * evictions received from the others to the local {@link OrderCache}.
+ *
+ * Evictions are coalesced for order.cache.invalidation.coalesce-window and sent as one message.
+ * Every instance also receives its own messages; their round trip tells whether the bus keeps up.
+ * While it does not (own messages late or missing, or publishing failing), the cache falls back
+ * to order.cache.invalidation.fallback-ttl. Failed order ids are kept and retried with the next flush.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("${order.cache.enabled:true} and ${order.cache.invalidation.enabled:true}")
+public class OrderCacheInvalidationBus implements OrderInvalidationPublisher {
+
+    /**
+     * Order ids per message, keeps a burst of evictions from producing one huge message.
+     */
+    private static final int MAX_IDS_PER_MESSAGE = 1000;
+
+    /**
+     * Order ids kept for retry while publishing fails; beyond that the fallback TTL alone applies.
+     */
+    private static final int MAX_PENDING = 100_000;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final OrderCache orderCache;
+    private final RabbitTemplate rabbitTemplate;
+    private final OrderCacheProperties.Invalidation properties;
+    private final Set<String> pending = new LinkedHashSet<>();
+    private final Counter published;
+    private final Counter received;
+    private final Counter publishFailures;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean publishFailing;
+    private volatile long lastSentSequence;
+    private volatile long lastSentAt;
+    private volatile long lastReturnedSequence;
+    private volatile long lastRoundTripMillis;
+
+    public OrderCacheInvalidationBus(OrderCache orderCache, RabbitTemplate rabbitTemplate,
+                                     OrderCacheProperties properties, MeterRegistry meterRegistry) {
+        this.orderCache = orderCache;
+        this.rabbitTemplate = rabbitTemplate;
+        this.properties = properties.getInvalidation();
+        this.published = Counter.builder("orders.cache.invalidation.published")
+                .description("Order ids broadcast to the other instances")
+                .register(meterRegistry);
+        this.received = Counter.builder("orders.cache.invalidation.received")
+                .description("Order ids evicted on behalf of other instances")
+                .register(meterRegistry);
+        this.publishFailures = Counter.builder("orders.cache.invalidation.publish.failures")
+                .description("Invalidation messages that could not be published")
+                .register(meterRegistry);
+        Gauge.builder("orders.cache.invalidation.round.trip", this, bus -> bus.lastRoundTripMillis)
+                .description("Milliseconds until this instance received its last own invalidation message")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("orders.cache.invalidation.healthy", this, bus -> bus.isHealthy() ? 1 : 0)
+                .description("1 while the invalidation bus keeps up, 0 while the fallback TTL applies")
+                .register(meterRegistry);
+        orderCache.setInvalidationPublisher(this);
+    }
+
+    @Override
+    public void publish(String orderId) {
+        synchronized (pending) {
+            if (pending.size() < MAX_PENDING) {
+                pending.add(orderId);
+            }
+        }
+    }
+
+    @Override
+    public boolean isHealthy() {
+        if (publishFailing || lastRoundTripMillis > properties.getMaxLag().toMillis()) {
+            return false;
+        }
+        return lastReturnedSequence >= lastSentSequence
+                || System.currentTimeMillis() - lastSentAt <= properties.getMaxLag().toMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${order.cache.invalidation.coalesce-window:50ms}")
+    public void flush() {
+        List<String> orderIds;
+        synchronized (pending) {
+            orderIds = new ArrayList<>(pending);
+            pending.clear();
+        }
+        if (orderIds.isEmpty()) {
+            if (System.currentTimeMillis() - lastSentAt >= properties.getHeartbeatInterval().toMillis()) {
+                send(List.of());
+            }
+            return;
+        }
+        for (int from = 0; from < orderIds.size(); from += MAX_IDS_PER_MESSAGE) {
+            List<String> chunk = orderIds.subList(from, Math.min(from + MAX_IDS_PER_MESSAGE, orderIds.size()));
+            if (!send(chunk)) {
+                orderIds.subList(from, orderIds.size()).forEach(this::publish);
+                return;
+            }
+        }
+    }
+
+    @RabbitListener(
+            id = "orderCacheInvalidation",
+            queues = "#{orderCacheInvalidationQueue.name}",
+            containerFactory = "orderCacheInvalidationListenerContainerFactory"
+    )
+    public void onInvalidation(OrderCacheInvalidation invalidation) {
+        if (instanceId.equals(invalidation.getOrigin())) {
+            lastRoundTripMillis = System.currentTimeMillis() - invalidation.getSentAt();
+            lastReturnedSequence = Math.max(lastReturnedSequence, invalidation.getSequence());
+            return;
+        }
+        invalidation.getOrderIds().forEach(orderCache::evict);
+        received.increment(invalidation.getOrderIds().size());
+        log.debug("Evicted {} orders invalidated by instance {}", invalidation.getOrderIds().size(), invalidation.getOrigin());
+    }
+
+    private boolean send(List<String> orderIds) {
+        long messageSequence = sequence.incrementAndGet();
+        long sentAt = System.currentTimeMillis();
+        try {
+            rabbitTemplate.convertAndSend(properties.getExchange(), "",
+                    new OrderCacheInvalidation(instanceId, messageSequence, sentAt, List.copyOf(orderIds)),
+                    message -> {
+                        message.getMessageProperties().setDeliveryMode(MessageDeliveryMode.NON_PERSISTENT);
+                        return message;
+                    });
+        } catch (Exception e) {
+            if (!publishFailing) {
+                log.warn("Failed to publish order cache invalidation, falling back to {} TTL: {}",
+                        properties.getFallbackTtl(), e.getMessage());
+            }
+            publishFailing = true;
+            publishFailures.increment();
+            return false;
+        }
+        publishFailing = false;
+        lastSentAt = sentAt;
+        lastSentSequence = messageSequence;
+        published.increment(orderIds.size());
+        return true;
+    }
+}
@@ -0,0 +1,99 @@
+package com.mrngwozdz.setup.messaging.config;
+
+import com.mrngwozdz.setup.messaging.sender.MessageSender;
+import com.mrngwozdz.setup.properties.RabbitMQProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Retries failed messages through TTL delay queues instead of sleeping the consumer thread.
+ *
+ * A message failing attempt n (n &lt; max-attempts) is republished with routing key &lt;routingKey&gt;.retry.n
+ * to the queue &lt;queue&gt;.retry.n, which has no consumers. Once its x-message-ttl expires the broker
+ * dead-letters it back to the exchange with the original routing key. The attempts made so far travel in
+ * the x-retry-attempts header and the copy keeps the delivery mode it was received with.
+ * After the last attempt, or if the copy cannot be published, the message goes to the MessageRecoverer.
+ *
+ * Used by {@link DelayQueueRetryAdvice} and by the batch listener, which acknowledges a batch as a whole
+ * and retries its failing messages one by one.
+ */
+@Slf4j
+public class DelayQueueRetry {
+
+    public static final String RETRY_ATTEMPTS_HEADER = "x-retry-attempts";
+
+    private final MessageSender messageSender;
+    private final MessageRecoverer messageRecoverer;
+    private final int maxAttempts;
+    private final Map<String, String> routingKeys = new HashMap<>();
+    private final Map<String, Counter> retries = new HashMap<>();
+
+    public DelayQueueRetry(MessageSender messageSender, MessageRecoverer messageRecoverer,
+                           RabbitMQProperties properties, MeterRegistry meterRegistry) {
+        this.messageSender = messageSender;
+        this.messageRecoverer = messageRecoverer;
+        this.maxAttempts = properties.getRetry().getMaxAttempts();
+        for (RabbitMQProperties.Queue queue : properties.retriedQueues()) {
+            routingKeys.put(queue.getName(), queue.getRoutingKey());
+            retries.put(queue.getName(), Counter.builder("rabbitmq.listener.retries")
+                    .description("Failed messages republished to a delay queue for another attempt")
+                    .tag("queue", queue.getName())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Counts the failed attempt and republishes the message to the delay queue of the next one,
+     * or hands it to the MessageRecoverer after the last attempt.
+     */
+    public void retryOrRecover(Message message, Throwable cause) {
+        int attempt = attemptsBefore(message) + 1;
+        message.getMessageProperties().getHeaders().put(RETRY_ATTEMPTS_HEADER, attempt);
+        if (attempt >= maxAttempts || !retry(message, attempt)) {
+            messageRecoverer.recover(message, cause);
+        }
+    }
+
+    private boolean retry(Message message, int attempt) {
+        String queueName = message.getMessageProperties().getConsumerQueue();
+        String routingKey = routingKeys.get(queueName);
+        if (routingKey == null) {
+            log.warn("No delay queues for queue {}, sending message to the DLQ", queueName);
+            return false;
+        }
+
+        // Inbound messages carry only the received delivery mode; without this the copy would be transient
+        // and lost if the broker restarts while it waits in the delay queue
+        MessageProperties properties = message.getMessageProperties();
+        properties.setDeliveryMode(properties.getReceivedDeliveryMode() != null
+                ? properties.getReceivedDeliveryMode()
+                : MessageDeliveryMode.PERSISTENT);
+
+        String retryRoutingKey = routingKey + ".retry." + attempt;
+        try {
+            messageSender.send(retryRoutingKey, message);
+        } catch (AmqpException e) {
+            log.error("Failed to republish message from queue {} for retry {}: {}", queueName, attempt, e.getMessage());
+            return false;
+        }
+        retries.get(queueName).increment();
+        log.warn("Message processing failed on attempt {}/{}. Queue: {}, retrying through routing key {}",
+                attempt, maxAttempts, queueName, retryRoutingKey);
+        return true;
+    }
+
+    private static int attemptsBefore(Message message) {
+        return message.getMessageProperties().getHeaders().get(RETRY_ATTEMPTS_HEADER) instanceof Number attempts
+                ? attempts.intValue()
+                : 0;
+    }
+}
@@ -0,0 +1,34 @@
+package com.mrngwozdz.setup.messaging.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.amqp.core.Message;
+
+/**
+ * Listener advice retrying failed messages through TTL delay queues instead of sleeping the consumer thread,
+ * as described in {@link DelayQueueRetry}.
+ *
+ * The failed delivery is acked as soon as the broker confirms the republished copy, so the consumer
+ * moves on to the next message right away.
+ */
+public class DelayQueueRetryAdvice implements MethodInterceptor {
+
+    private final DelayQueueRetry delayQueueRetry;
+
+    public DelayQueueRetryAdvice(DelayQueueRetry delayQueueRetry) {
+        this.delayQueueRetry = delayQueueRetry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!(invocation.getArguments()[1] instanceof Message message)) {
+            return invocation.proceed();
+        }
+        try {
+            return invocation.proceed();
+        } catch (Exception e) {
+            delayQueueRetry.retryOrRecover(message, e);
+            return null;
+        }
+    }
+}
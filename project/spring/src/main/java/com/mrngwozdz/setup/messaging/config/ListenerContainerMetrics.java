@@ -0,0 +1,81 @@
+package com.mrngwozdz.setup.messaging.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.amqp.rabbit.listener.ListenerContainerIdleEvent;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Micrometer gauges for RabbitMQ listener containers, tagged by listener id:
+ * - rabbitmq.listener.consumers.active - consumer threads currently running in the container
+ * - rabbitmq.listener.messages.in.flight - listener invocations in progress (including retry backoff)
+ * - rabbitmq.listener.idle.events - ListenerContainerIdleEvents published by the container
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ListenerContainerMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final RabbitListenerEndpointRegistry endpointRegistry;
+    private final Map<String, AtomicInteger> inFlightMessages = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an advice counting listener invocations in progress for the given listener id.
+     * Should be placed first in the advice chain so time spent in retries is counted too.
+     */
+    public MethodInterceptor inFlightAdvice(String listenerId) {
+        AtomicInteger inFlight = inFlightMessages.computeIfAbsent(listenerId, id ->
+                meterRegistry.gauge("rabbitmq.listener.messages.in.flight", Tags.of("listener", id), new AtomicInteger()));
+        return invocation -> {
+            inFlight.incrementAndGet();
+            try {
+                return invocation.proceed();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerConsumerGauges() {
+        for (String listenerId : endpointRegistry.getListenerContainerIds()) {
+            Gauge.builder("rabbitmq.listener.consumers.active", endpointRegistry,
+                            registry -> activeConsumers(registry.getListenerContainer(listenerId)))
+                    .tag("listener", listenerId)
+                    .description("Consumer threads currently running in the listener container")
+                    .register(meterRegistry);
+            log.debug("Registered consumer gauges for listener container: {}", listenerId);
+        }
+    }
+
+    @EventListener
+    public void onContainerIdle(ListenerContainerIdleEvent event) {
+        log.debug("Listener container {} idle for {}ms", event.getListenerId(), event.getIdleTime());
+        Counter.builder("rabbitmq.listener.idle.events")
+                .tag("listener", String.valueOf(event.getListenerId()))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private double activeConsumers(MessageListenerContainer container) {
+        if (container instanceof SimpleMessageListenerContainer simpleContainer && simpleContainer.isRunning()) {
+            return simpleContainer.getActiveConsumerCount();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,62 @@
+package com.mrngwozdz.setup.messaging.config;
+
+import com.mrngwozdz.setup.properties.OrderCacheProperties;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Order cache invalidation bus: a fanout exchange with one queue per instance.
+ *
+ * Unlike the queues in services/rabbitmq/definitions.json, the per-instance queue is server-named,
+ * exclusive and auto-delete, so it is declared here by RabbitAdmin (again after every reconnect).
+ * The exchange is declared in definitions.json as well.
+ */
+@Configuration
+@ConditionalOnExpression("${order.cache.enabled:true} and ${order.cache.invalidation.enabled:true}")
+public class OrderCacheInvalidationConfig {
+
+    @Bean
+    public FanoutExchange orderCacheInvalidationExchange(OrderCacheProperties properties) {
+        return new FanoutExchange(properties.getInvalidation().getExchange(), true, false);
+    }
+
+    @Bean
+    public Queue orderCacheInvalidationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding orderCacheInvalidationBinding(Queue orderCacheInvalidationQueue,
+                                                 FanoutExchange orderCacheInvalidationExchange) {
+        return BindingBuilder.bind(orderCacheInvalidationQueue).to(orderCacheInvalidationExchange);
+    }
+
+    /**
+     * Single consumer without retries: a lost invalidation only shortens cache lifetimes
+     * to the fallback TTL, it is never worth a redelivery or a DLQ entry.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory orderCacheInvalidationListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            MessageConverter messageConverter) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter);
+        factory.setAcknowledgeMode(AcknowledgeMode.AUTO);
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(1);
+        factory.setPrefetchCount(50);
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+}
@@ -1,7 +1,9 @@
 package com.mrngwozdz.setup.messaging.config;
 
+import com.mrngwozdz.setup.messaging.sender.MessageSender;
 import com.mrngwozdz.setup.properties.RabbitMQListenerProperties;
 import com.mrngwozdz.setup.properties.RabbitMQProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aopalliance.aop.Advice;
@@ -12,8 +14,11 @@ import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.rabbit.retry.MessageRecoverer;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 
 @Slf4j
 @Configuration
@@ -22,6 +27,8 @@ public class RabbitMQConfig {
 
     private final RabbitMQProperties rabbitMQProperties;
     private final RabbitMQListenerProperties listenerProperties;
+    private final ListenerContainerMetrics listenerContainerMetrics;
+    private final Environment environment;
 
     // Note: Exchange, Queues and Bindings are configured in services/rabbitmq/definitions.json
     // and loaded automatically by RabbitMQ on startup
@@ -47,6 +54,7 @@ public class RabbitMQConfig {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
         factory.setMessageConverter(messageConverter);
+        applyThreading(factory, "rabbit-");
         factory.setPrefetchCount(1);
         factory.setMissingQueuesFatal(true);
         factory.setAdviceChain(retryInterceptor);
@@ -62,11 +70,42 @@ public class RabbitMQConfig {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
         factory.setMessageConverter(messageConverter);
+        applyThreading(factory, "rabbit-order-");
         factory.setConcurrentConsumers(parseConcurrency(listenerProperties.getOrderConcurrency())[0]);
         factory.setMaxConcurrentConsumers(parseConcurrency(listenerProperties.getOrderConcurrency())[1]);
-        factory.setPrefetchCount(1);
+        applyContainerSettings(factory, listenerProperties.getOrder());
         factory.setMissingQueuesFatal(true);
-        factory.setAdviceChain(retryInterceptor);
+        // The transactions of handleOrderMessage are @WriteOperation methods taking their own permits
+        factory.setAdviceChain(listenerContainerMetrics.inFlightAdvice("order"), retryInterceptor);
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+
+    /**
+     * Container factory for consuming the order queue in batches.
+     * No retry advice is attached: a batch is acknowledged as a whole and the listener
+     * retries individual failing messages through the DelayQueueRetry or routes them to the DLQ.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory orderBatchListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            MessageConverter messageConverter) {
+        RabbitMQListenerProperties.Batch batch = listenerProperties.getOrderBatch();
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter);
+        applyThreading(factory, "rabbit-order-batch-");
+        factory.setConcurrentConsumers(parseConcurrency(listenerProperties.getOrderConcurrency())[0]);
+        factory.setMaxConcurrentConsumers(parseConcurrency(listenerProperties.getOrderConcurrency())[1]);
+        applyContainerSettings(factory, listenerProperties.getOrder());
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batch.getSize());
+        factory.setReceiveTimeout(batch.getReceiveTimeout().toMillis());
+        factory.setPrefetchCount(Math.max(batch.getSize(), listenerProperties.getOrder().getPrefetch()));
+        factory.setMissingQueuesFatal(true);
+        // The transactions of handleOrderBatch are @WriteOperation methods taking their own permits
+        factory.setAdviceChain(listenerContainerMetrics.inFlightAdvice("orderBatch"));
         factory.setDefaultRequeueRejected(false);
         return factory;
     }
@@ -79,11 +118,12 @@ public class RabbitMQConfig {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
         factory.setMessageConverter(messageConverter);
+        applyThreading(factory, "rabbit-notification-");
         factory.setConcurrentConsumers(parseConcurrency(listenerProperties.getNotificationConcurrency())[0]);
         factory.setMaxConcurrentConsumers(parseConcurrency(listenerProperties.getNotificationConcurrency())[1]);
-        factory.setPrefetchCount(1);
+        applyContainerSettings(factory, listenerProperties.getNotification());
         factory.setMissingQueuesFatal(true);
-        factory.setAdviceChain(retryInterceptor);
+        factory.setAdviceChain(listenerContainerMetrics.inFlightAdvice("notification"), retryInterceptor);
         factory.setDefaultRequeueRejected(false);
         return factory;
     }
@@ -96,15 +136,39 @@ public class RabbitMQConfig {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
         factory.setMessageConverter(messageConverter);
+        applyThreading(factory, "rabbit-audit-");
         factory.setConcurrentConsumers(parseConcurrency(listenerProperties.getAuditConcurrency())[0]);
         factory.setMaxConcurrentConsumers(parseConcurrency(listenerProperties.getAuditConcurrency())[1]);
-        factory.setPrefetchCount(1);
+        applyContainerSettings(factory, listenerProperties.getAudit());
         factory.setMissingQueuesFatal(true);
-        factory.setAdviceChain(retryInterceptor);
+        factory.setAdviceChain(listenerContainerMetrics.inFlightAdvice("audit"), retryInterceptor);
         factory.setDefaultRequeueRejected(false);
         return factory;
     }
 
+    /**
+     * Runs listener consumers on virtual threads when spring.threads.virtual.enabled is set.
+     * Consumer count stays bounded by the configured concurrency, only the carrier changes.
+     */
+    private void applyThreading(SimpleRabbitListenerContainerFactory factory, String threadNamePrefix) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor(threadNamePrefix));
+        }
+    }
+
+    private void applyContainerSettings(SimpleRabbitListenerContainerFactory factory,
+                                        RabbitMQListenerProperties.Container container) {
+        factory.setPrefetchCount(container.getPrefetch());
+        factory.setBatchSize(container.getBatchSize());
+        factory.setConsecutiveActiveTrigger(container.getConsecutiveActiveTrigger());
+        factory.setConsecutiveIdleTrigger(container.getConsecutiveIdleTrigger());
+        factory.setStartConsumerMinInterval(container.getStartConsumerMinInterval().toMillis());
+        factory.setStopConsumerMinInterval(container.getStopConsumerMinInterval().toMillis());
+        if (container.getIdleEventInterval() != null) {
+            factory.setIdleEventInterval(container.getIdleEventInterval().toMillis());
+        }
+    }
+
     private int[] parseConcurrency(String concurrency) {
         String[] parts = concurrency.split("-");
         return new int[]{Integer.parseInt(parts[0]), Integer.parseInt(parts[1])};
@@ -134,11 +198,15 @@ public class RabbitMQConfig {
             // Extract root cause message (without full stack trace)
             String errorMessage = extractRootCauseMessage(cause);
 
+            // Set by DelayQueueRetry, which may give up early when the retry cannot be published
+            Object attempts = message.getMessageProperties().getHeaders()
+                    .getOrDefault(DelayQueueRetry.RETRY_ATTEMPTS_HEADER, rabbitMQProperties.getRetry().getMaxAttempts());
+
             log.error("Message processing failed after {} attempts. Queue: {}, DLQ routing key: {}, Error: {}",
-                    3, queueName, dlqRoutingKey, errorMessage);
+                    attempts, queueName, dlqRoutingKey, errorMessage);
 
             // Add metadata to message headers
-            message.getMessageProperties().getHeaders().put("x-retry-attempts", 3);
+            message.getMessageProperties().getHeaders().put(DelayQueueRetry.RETRY_ATTEMPTS_HEADER, attempts);
             message.getMessageProperties().getHeaders().put("x-error", errorMessage);
             message.getMessageProperties().getHeaders().put("x-original-queue", queueName);
             message.getMessageProperties().getHeaders().put("x-failed-timestamp", System.currentTimeMillis());
@@ -159,11 +227,32 @@ public class RabbitMQConfig {
         return rootCause.getMessage();
     }
 
+    /**
+     * Retries failed messages through the broker delay queues. Used by the retry advice in DELAY_QUEUE mode
+     * and by the batch listener in every mode, since backing off on the consumer thread would hold up
+     * the rest of the batch.
+     */
     @Bean
-    public Advice retryInterceptor(MessageRecoverer messageRecoverer) {
+    public DelayQueueRetry delayQueueRetry(MessageRecoverer messageRecoverer, MessageSender messageSender,
+                                           MeterRegistry meterRegistry) {
+        return new DelayQueueRetry(messageSender, messageRecoverer, rabbitMQProperties, meterRegistry);
+    }
+
+    /**
+     * Retries failed messages up to spring.rabbitmq.retry.max-attempts times, then hands them to the
+     * MessageRecoverer. IN_THREAD backs off on the consumer thread; DELAY_QUEUE parks the message in
+     * a broker delay queue and frees the consumer thread for the next message.
+     */
+    @Bean
+    public Advice retryInterceptor(MessageRecoverer messageRecoverer, DelayQueueRetry delayQueueRetry) {
+        RabbitMQProperties.Retry retry = rabbitMQProperties.getRetry();
+        if (retry.getMode() == RabbitMQProperties.Retry.Mode.DELAY_QUEUE) {
+            return new DelayQueueRetryAdvice(delayQueueRetry);
+        }
         return RetryInterceptorBuilder.stateless()
-                .maxAttempts(3)
-                .backOffOptions(1000, 2.0, 10000)
+                .maxAttempts(retry.getMaxAttempts())
+                .backOffOptions(retry.getInitialInterval().toMillis(), retry.getMultiplier(),
+                        retry.getMaxInterval().toMillis())
                 .recoverer(messageRecoverer)
                 .build();
     }
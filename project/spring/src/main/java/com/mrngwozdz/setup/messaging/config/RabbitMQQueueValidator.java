@@ -1,5 +1,6 @@
 package com.mrngwozdz.setup.messaging.config;
 
+import com.mrngwozdz.setup.properties.RabbitMQListenerProperties;
 import com.mrngwozdz.setup.properties.RabbitMQProperties;
 import com.rabbitmq.client.Channel;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +21,7 @@ public class RabbitMQQueueValidator {
 
     private final ConnectionFactory connectionFactory;
     private final RabbitMQProperties rabbitMQProperties;
+    private final RabbitMQListenerProperties listenerProperties;
 
     @EventListener(ApplicationReadyEvent.class)
     public void validateQueues() {
@@ -27,6 +29,11 @@ public class RabbitMQQueueValidator {
 
         validateMainQueues();
         validateDlqQueues();
+        // The batch listener retries through the delay queues in every retry mode
+        if (rabbitMQProperties.getRetry().getMode() == RabbitMQProperties.Retry.Mode.DELAY_QUEUE
+                || listenerProperties.getOrderBatch().isEnabled()) {
+            validateDelayQueues();
+        }
 
         log.info("All RabbitMQ queues validated successfully");
     }
@@ -35,7 +42,8 @@ public class RabbitMQQueueValidator {
         List<String> mainQueues = List.of(
                 rabbitMQProperties.getOrder().getName(),
                 rabbitMQProperties.getNotification().getName(),
-                rabbitMQProperties.getAudit().getName()
+                rabbitMQProperties.getAudit().getName(),
+                rabbitMQProperties.getOrderEvents().getName()
         );
 
         for (String queueName : mainQueues) {
@@ -55,6 +63,14 @@ public class RabbitMQQueueValidator {
         }
     }
 
+    private void validateDelayQueues() {
+        for (RabbitMQProperties.Queue queue : rabbitMQProperties.retriedQueues()) {
+            for (int attempt = 1; attempt < rabbitMQProperties.getRetry().getMaxAttempts(); attempt++) {
+                validateQueue(queue.getName() + ".retry." + attempt, "Delay queue");
+            }
+        }
+    }
+
 
     /**
      * Validates that a RabbitMQ queue exists using passive declaration.
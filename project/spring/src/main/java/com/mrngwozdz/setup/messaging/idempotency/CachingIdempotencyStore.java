@@ -0,0 +1,158 @@
+package com.mrngwozdz.setup.messaging.idempotency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps recently processed message ids in a bounded LRU cache with a TTL in front of another store,
+ * so redeliveries of recent messages are rejected without a database round trip.
+ *
+ * Ids are cached only once the claiming transaction commits; a rolled back claim never reaches
+ * the cache. The cache only answers "already processed", misses always go to the delegate.
+ *
+ * Settled ids are cached with their outcome, so a redelivery of a message whose work cannot change
+ * any more (e.g. a COMPLETED order) is rejected by the caller without looking at its data either.
+ */
+public class CachingIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotencyStore delegate;
+    private final long ttlNanos;
+    private final Map<String, Entry> processed;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
+    public CachingIdempotencyStore(IdempotencyStore delegate, int maxSize, Duration ttl, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+        this.processed = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.cacheHits = Counter.builder("idempotency.cache.requests").tag("result", "hit")
+                .description("Idempotency lookups answered by the in-process cache")
+                .register(meterRegistry);
+        this.cacheMisses = Counter.builder("idempotency.cache.requests").tag("result", "miss")
+                .description("Idempotency lookups answered by the delegate store")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean claim(String consumer, String messageId) {
+        String key = key(consumer, messageId);
+        if (isCached(key)) {
+            cacheHits.increment();
+            return false;
+        }
+        cacheMisses.increment();
+
+        boolean claimed = delegate.claim(consumer, messageId);
+        if (claimed) {
+            afterCommit(List.of(key), false);
+        } else {
+            cache(List.of(key), false);
+        }
+        return claimed;
+    }
+
+    @Override
+    public Set<String> claimAll(String consumer, Collection<String> messageIds) {
+        List<String> uncached = new ArrayList<>(messageIds.size());
+        for (String messageId : messageIds) {
+            if (!isCached(key(consumer, messageId))) {
+                uncached.add(messageId);
+            }
+        }
+        cacheHits.increment(messageIds.size() - uncached.size());
+        cacheMisses.increment(uncached.size());
+        if (uncached.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<String> claimed = delegate.claimAll(consumer, uncached);
+        List<String> alreadyProcessed = new ArrayList<>();
+        List<String> newlyClaimed = new ArrayList<>(claimed.size());
+        for (String messageId : new HashSet<>(uncached)) {
+            (claimed.contains(messageId) ? newlyClaimed : alreadyProcessed).add(key(consumer, messageId));
+        }
+        cache(alreadyProcessed, false);
+        afterCommit(newlyClaimed, false);
+        return claimed;
+    }
+
+    @Override
+    public void settleAfterCommit(String consumer, String messageId) {
+        afterCommit(List.of(key(consumer, messageId)), true);
+    }
+
+    @Override
+    public boolean isSettled(String consumer, String messageId) {
+        Entry entry = cached(key(consumer, messageId));
+        return entry != null && entry.settled();
+    }
+
+    private boolean isCached(String key) {
+        return cached(key) != null;
+    }
+
+    private Entry cached(String key) {
+        synchronized (processed) {
+            Entry entry = processed.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() - System.nanoTime() < 0) {
+                processed.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private void cache(Collection<String> keys, boolean settled) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        long expiresAt = System.nanoTime() + ttlNanos;
+        synchronized (processed) {
+            // A claim committed after the settlement of the same id must not forget the outcome
+            keys.forEach(key -> processed.merge(key, new Entry(expiresAt, settled),
+                    (previous, current) -> new Entry(expiresAt, previous.settled() || current.settled())));
+        }
+    }
+
+    private void afterCommit(Collection<String> keys, boolean settled) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache(keys, settled);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache(keys, settled);
+            }
+        });
+    }
+
+    private static String key(String consumer, String messageId) {
+        return consumer + ':' + messageId;
+    }
+
+    private record Entry(long expiresAt, boolean settled) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.mrngwozdz.setup.messaging.idempotency;
+
+import com.mrngwozdz.setup.service.idempotency.data.repository.ProcessedMessageRepository;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Idempotency store backed by the processed_messages table, claiming with INSERT ... ON CONFLICT DO NOTHING.
+ */
+@RequiredArgsConstructor
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+    private final ProcessedMessageRepository repository;
+
+    @Override
+    public boolean claim(String consumer, String messageId) {
+        return repository.insertIfAbsent(consumer, messageId, LocalDateTime.now());
+    }
+
+    @Override
+    public Set<String> claimAll(String consumer, Collection<String> messageIds) {
+        return repository.insertAllIfAbsent(consumer, new LinkedHashSet<>(messageIds), LocalDateTime.now());
+    }
+}
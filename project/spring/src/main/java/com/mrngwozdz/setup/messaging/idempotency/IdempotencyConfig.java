@@ -0,0 +1,23 @@
+package com.mrngwozdz.setup.messaging.idempotency;
+
+import com.mrngwozdz.setup.properties.IdempotencyProperties;
+import com.mrngwozdz.setup.service.idempotency.data.repository.ProcessedMessageRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(ProcessedMessageRepository repository,
+                                             IdempotencyProperties properties,
+                                             MeterRegistry meterRegistry) {
+        IdempotencyStore store = new DatabaseIdempotencyStore(repository);
+        IdempotencyProperties.Cache cache = properties.getCache();
+        if (!cache.isEnabled()) {
+            return store;
+        }
+        return new CachingIdempotencyStore(store, cache.getMaxSize(), cache.getTtl(), meterRegistry);
+    }
+}
@@ -0,0 +1,42 @@
+package com.mrngwozdz.setup.messaging.idempotency;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Records which messages a consumer has already processed.
+ *
+ * Claiming replaces a separate "exists?" check followed by an insert: the claim itself is the
+ * atomic operation, so two consumers racing on the same message cannot both win.
+ * Claims are made inside the consumer's transaction and roll back with it, which lets a
+ * redelivered message be processed again after a failure.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * @return true if the message was not processed before and is now claimed by the caller
+     */
+    boolean claim(String consumer, String messageId);
+
+    /**
+     * Claims several messages at once. Duplicates within messageIds are claimed once.
+     *
+     * @return the message ids claimed by the caller
+     */
+    Set<String> claimAll(String consumer, Collection<String> messageIds);
+
+    /**
+     * Remembers, once the current transaction commits, that the work of a claimed message reached an outcome
+     * a redelivery can no longer change. Stores that do not keep outcomes ignore it.
+     */
+    default void settleAfterCommit(String consumer, String messageId) {
+    }
+
+    /**
+     * @return true if the message is known to be settled, answered without a database round trip;
+     *         false if it is not settled or not known
+     */
+    default boolean isSettled(String consumer, String messageId) {
+        return false;
+    }
+}
@@ -2,7 +2,7 @@ package com.mrngwozdz.setup.messaging.listener;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mrngwozdz.setup.database.entity.Order;
-import com.mrngwozdz.setup.service.order.data.repository.query.OrderQueryRepository;
+import com.mrngwozdz.setup.messaging.config.DelayQueueRetry;
 import com.mrngwozdz.setup.messaging.model.OrderRequest;
 import com.mrngwozdz.setup.platform.result.ErrorCode;
 import com.mrngwozdz.setup.platform.result.Failure;
@@ -12,12 +12,19 @@ import com.mrngwozdz.setup.service.external.ExternalApiService;
 import io.vavr.control.Either;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Component
@@ -25,15 +32,19 @@ import java.time.LocalDateTime;
 public class MessageListener {
 
     private final RabbitMQProperties rabbitMQProperties;
-    private final OrderQueryRepository orderRepository;
+    private final OrderMessageTransactions orderMessageTransactions;
     private final ExternalApiService externalApiService;
     private final ObjectMapper objectMapper;
+    private final MessageConverter messageConverter;
+    private final MessageRecoverer messageRecoverer;
+    private final DelayQueueRetry delayQueueRetry;
 
     @RabbitListener(
+            id = "order",
             queues = "#{rabbitMQProperties.order.name}",
-            containerFactory = "orderListenerContainerFactory"
+            containerFactory = "orderListenerContainerFactory",
+            autoStartup = "#{!rabbitMQListenerProperties.orderBatch.enabled}"
     )
-    @Transactional  // DB rollback on exception
     public void handleOrderMessage(String message) {
         log.info("╔══════════════════════════════════════════════════════════════════════════════");
         log.info("║ ORDER LISTENER - Message received from queue: {}", rabbitMQProperties.getOrder().getName());
@@ -48,7 +59,54 @@ public class MessageListener {
         log.info("╚══════════════════════════════════════════════════════════════════════════════");
     }
 
+    /**
+     * Batch variant of {@link #handleOrderMessage(String)}, active when
+     * spring.rabbitmq.listener.order-batch.enabled is true.
+     * <p>
+     * Like the single-message path, the batch is saved as PROCESSING in one short transaction
+     * (one idempotency claim, one multi-row insert), the payments are called with no transaction
+     * or connection held, and the outcomes are committed in a second transaction (one JDBC batch
+     * status update). The batch is acknowledged together. Once both transactions are over, messages
+     * failing with TIMEOUT or UNAVAILABLE are retried individually through the delay queues (in every
+     * retry mode, so the consumer thread never backs off), and the other failures and messages out of
+     * attempts are routed to the DLQ; orders whose payment fails stay persisted with FAILED status
+     * and are picked up again by the retry.
+     */
+    @RabbitListener(
+            id = "orderBatch",
+            queues = "#{rabbitMQProperties.order.name}",
+            containerFactory = "orderBatchListenerContainerFactory",
+            autoStartup = "#{rabbitMQListenerProperties.orderBatch.enabled}"
+    )
+    public void handleOrderBatch(List<Message> messages) {
+        log.info("╔══════════════════════════════════════════════════════════════════════════════");
+        log.info("║ ORDER BATCH LISTENER - {} messages received from queue: {}", messages.size(), rabbitMQProperties.getOrder().getName());
+        log.info("╠══════════════════════════════════════════════════════════════════════════════");
+
+        Map<Message, Failure> failures = new LinkedHashMap<>();
+        Map<Message, OrderRequest> requests = new LinkedHashMap<>();
+        for (Message message : messages) {
+            readPayload(message)
+                    .flatMap(this::parseOrder)
+                    .flatMap(this::validateOrder)
+                    .peek(request -> requests.put(message, request))
+                    .peekLeft(failure -> failures.put(message, failure));
+        }
+
+        rejectRepeatedOrders(requests, failures);
+        Map<Message, Order> orders = startProcessing(requests, failures);
+        processPayments(orders, failures);
+        finishProcessing(orders, failures);
+
+        failures.forEach(this::recover);
+
+        log.info("║ ORDER BATCH LISTENER - Processing completed: {} succeeded, {} retried or routed to DLQ",
+                messages.size() - failures.size(), failures.size());
+        log.info("╚══════════════════════════════════════════════════════════════════════════════");
+    }
+
     @RabbitListener(
+            id = "notification",
             queues = "#{rabbitMQProperties.notification.name}",
             containerFactory = "notificationListenerContainerFactory"
     )
@@ -67,6 +125,7 @@ public class MessageListener {
     }
 
     @RabbitListener(
+            id = "audit",
             queues = "#{rabbitMQProperties.audit.name}",
             containerFactory = "auditListenerContainerFactory"
     )
@@ -89,9 +148,9 @@ public class MessageListener {
      * Demonstrates:
      * 1. Parse JSON message
      * 2. Validate business rules
-     * 3. Save to database (in @Transactional context)
-     * 4. Call external API
-     * 5. Update order status
+     * 3. Claim the orderId and save the order as PROCESSING (own transaction)
+     * 4. Call external API (no transaction, no connection held)
+     * 5. Save the order as COMPLETED or FAILED (own transaction)
      *
      * Each step can fail independently, and errors are handled gracefully.
      * Different error types trigger different behaviors (VALIDATION -> DLQ, TIMEOUT -> retry)
@@ -99,10 +158,8 @@ public class MessageListener {
     private Either<Failure, Success<Void>> processOrderMessage(String message) {
         return parseOrder(message)
                 .flatMap(this::validateOrder)
-                .flatMap(this::checkDuplicateOrder)
-                .flatMap(this::saveOrder)
+                .flatMap(orderMessageTransactions::startProcessing)
                 .flatMap(this::callExternalPaymentApi)
-                .flatMap(this::updateOrderStatus)
                 .peekLeft(failure -> {
                     // Different reactions based on error type
                     switch (failure.code()) {
@@ -165,72 +222,118 @@ public class MessageListener {
         return Either.right(request);
     }
 
-    private Either<Failure, OrderRequest> checkDuplicateOrder(OrderRequest request) {
-        log.info("║ [ORDER] Step 3/5: Checking for duplicates");
+    /**
+     * Calls the payment service outside any transaction and commits the outcome.
+     * A failed payment is saved as FAILED and still returns the payment failure, so the message is retried.
+     */
+    private Either<Failure, Order> callExternalPaymentApi(Order order) {
+        log.info("║ [ORDER] Step 4/5: Calling external payment API");
 
-        if (orderRepository.existsByOrderId(request.getOrderId())) {
-            log.warn("║ [ORDER] Duplicate order detected: {}", request.getOrderId());
-            return Either.left(Failure.of(ErrorCode.CONFLICT,
-                "Order already exists: " + request.getOrderId()));
-        }
+        Either<Failure, Success<String>> payment = externalApiService.processPayment(order)
+                .peek(transactionId -> log.info("║ [ORDER] Payment processed: {}", transactionId.value()))
+                .peekLeft(failure -> log.error("║ [ORDER] Payment API failed: {}", failure.message()));
 
-        log.info("║ [ORDER] No duplicates found");
-        return Either.right(request);
+        return orderMessageTransactions.finishProcessing(order, payment.isRight())
+                .flatMap(finished -> payment.map(transactionId -> finished));
     }
 
-    private Either<Failure, Order> saveOrder(OrderRequest request) {
-        log.info("║ [ORDER] Step 4/5: Saving to database");
-
+    private Either<Failure, String> readPayload(Message message) {
         try {
-            Order order = new Order();
-            order.setOrderId(request.getOrderId());
-            order.setCustomerId(request.getCustomerId());
-            order.setAmount(request.getAmount());
-            order.setProductCode(request.getProductCode());
-            order.setStatus(Order.OrderStatus.PENDING);
-            order.setCreatedAt(LocalDateTime.now());
-
-            Order saved = orderRepository.save(order);
-            log.info("║ [ORDER] Order saved with ID: {}", saved.getId());
-            return Either.right(saved);
+            return Either.right((String) messageConverter.fromMessage(message));
         } catch (Exception e) {
-            log.error("║ [ORDER] Database error: {}", e.getMessage(), e);
-            return Either.left(Failure.of(ErrorCode.UNKNOWN, "Database error: " + e.getMessage()));
+            log.error("║ [ORDER BATCH] Failed to read message payload: {}", e.getMessage());
+            return Either.left(Failure.of(ErrorCode.VALIDATION, "Unreadable message payload: " + e.getMessage()));
         }
     }
 
-    private Either<Failure, Order> callExternalPaymentApi(Order order) {
-        log.info("║ [ORDER] Step 5/5: Calling external payment API");
+    /**
+     * Rejects orders appearing more than once in the same batch (first occurrence wins).
+     */
+    private void rejectRepeatedOrders(Map<Message, OrderRequest> requests, Map<Message, Failure> failures) {
+        Set<String> orderIds = new HashSet<>();
+        requests.entrySet().removeIf(entry -> {
+            String orderId = entry.getValue().getOrderId();
+            if (!orderIds.add(orderId)) {
+                log.warn("║ [ORDER BATCH] Duplicate order detected: {}", orderId);
+                failures.put(entry.getKey(), Failure.of(ErrorCode.CONFLICT, "Order already exists: " + orderId));
+                return true;
+            }
+            return false;
+        });
+    }
 
-        return externalApiService.processPayment(order)
-                .map(transactionId -> {
-                    log.info("║ [ORDER] Payment processed: {}", transactionId.value());
-                    return order;
-                })
-                .mapLeft(failure -> {
-                    log.error("║ [ORDER] Payment API failed: {}", failure.message());
-                    // Update order status to FAILED before returning error
+    /**
+     * Claims and saves the orders as PROCESSING; orders claimed before are rejected as duplicates
+     * unless their payment FAILED, in which case they are processed again.
+     */
+    private Map<Message, Order> startProcessing(Map<Message, OrderRequest> requests, Map<Message, Failure> failures) {
+        Map<Message, Order> orders = new LinkedHashMap<>();
+        if (requests.isEmpty()) {
+            return orders;
+        }
+
+        orderMessageTransactions.startProcessingAll(new ArrayList<>(requests.values()))
+                .peek(saved -> requests.forEach((message, request) -> {
+                    Order order = saved.get(request.getOrderId());
+                    if (order != null) {
+                        orders.put(message, order);
+                    } else {
+                        log.warn("║ [ORDER BATCH] Duplicate order detected: {}", request.getOrderId());
+                        failures.put(message, Failure.of(ErrorCode.CONFLICT, "Order already exists: " + request.getOrderId()));
+                    }
+                }))
+                .peekLeft(failure -> failAll(requests, failures, failure));
+        return orders;
+    }
+
+    /**
+     * Calls the payment service for every order, outside any transaction.
+     */
+    private void processPayments(Map<Message, Order> orders, Map<Message, Failure> failures) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        log.info("║ [ORDER BATCH] Processing payments for {} orders", orders.size());
+
+        orders.forEach((message, order) -> externalApiService.processPayment(order)
+                .peek(transactionId -> order.setStatus(Order.OrderStatus.COMPLETED))
+                .peekLeft(failure -> {
+                    log.error("║ [ORDER BATCH] Payment API failed for order {}: {}", order.getOrderId(), failure.message());
                     order.setStatus(Order.OrderStatus.FAILED);
-                    orderRepository.save(order);
-                    return failure;
-                });
+                    failures.put(message, failure);
+                }));
     }
 
-    private Either<Failure, Order> updateOrderStatus(Order order) {
-        log.info("║ [ORDER] Updating order status to COMPLETED");
+    /**
+     * Commits the payment outcomes. If that fails the orders stay PROCESSING, which a retry would reject
+     * as a duplicate, so their messages go to the DLQ with the status failure even if their payment failed too.
+     */
+    private void finishProcessing(Map<Message, Order> orders, Map<Message, Failure> failures) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        orderMessageTransactions.finishProcessingAll(orders.values())
+                .peekLeft(failure -> failAll(orders, failures, failure));
+    }
 
-        try {
-            order.setStatus(Order.OrderStatus.COMPLETED);
-            order.setProcessedAt(LocalDateTime.now());
-            Order updated = orderRepository.save(order);
-            log.info("║ [ORDER] Order status updated successfully");
-            return Either.right(updated);
-        } catch (Exception e) {
-            log.error("║ [ORDER] Failed to update status: {}", e.getMessage());
-            return Either.left(Failure.of(ErrorCode.UNKNOWN, "Failed to update order status"));
+    /**
+     * Retries transient failures like the retry advice of the single-message path (TIMEOUT -> retry),
+     * everything else goes to the DLQ (VALIDATION, CONFLICT -> DLQ).
+     */
+    private void recover(Message message, Failure failure) {
+        MessageProcessingException cause = new MessageProcessingException(failure);
+        if (failure.code() == ErrorCode.TIMEOUT || failure.code() == ErrorCode.UNAVAILABLE) {
+            delayQueueRetry.retryOrRecover(message, cause);
+        } else {
+            messageRecoverer.recover(message, cause);
         }
     }
 
+    private void failAll(Map<Message, ?> pending, Map<Message, Failure> failures, Failure failure) {
+        pending.keySet().forEach(message -> failures.put(message, failure));
+        pending.clear();
+    }
+
     private Either<Failure, Success<Void>> processNotificationMessage(String message) {
         log.info("║ [NOTIFICATION] Sending notification: {}", message);
         // Notification processing logic here
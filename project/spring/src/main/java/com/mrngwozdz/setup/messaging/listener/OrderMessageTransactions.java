@@ -0,0 +1,221 @@
+package com.mrngwozdz.setup.messaging.listener;
+
+import com.mrngwozdz.setup.database.config.datasource.WriteOperation;
+import com.mrngwozdz.setup.database.entity.Order;
+import com.mrngwozdz.setup.messaging.idempotency.IdempotencyStore;
+import com.mrngwozdz.setup.messaging.model.OrderRequest;
+import com.mrngwozdz.setup.platform.result.ErrorCode;
+import com.mrngwozdz.setup.platform.result.Failure;
+import com.mrngwozdz.setup.service.order.data.cache.OrderCache;
+import com.mrngwozdz.setup.service.order.data.repository.command.OrderBatchRepository;
+import io.vavr.control.Either;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The short WRITE transactions of {@link MessageListener#handleOrderMessage(String)} and
+ * {@link MessageListener#handleOrderBatch(List)}.
+ *
+ * The order is committed as PROCESSING before the payment call and its final status is committed
+ * after it, so no connection is held while the payment service responds and a FAILED status
+ * survives the retry or DLQ routing of the message.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderMessageTransactions {
+
+    /**
+     * Idempotency store consumer name for order messages, which are keyed by orderId.
+     */
+    static final String ORDER_CONSUMER = "order";
+
+    private final OrderBatchRepository orderBatchRepository;
+    private final IdempotencyStore idempotencyStore;
+    private final OrderCache orderCache;
+
+    /**
+     * Claims the orderId and saves the order as PROCESSING. An order already claimed or already stored
+     * is only picked up again if its payment FAILED, e.g. when the message is retried or replayed from the DLQ;
+     * an order still PROCESSING or COMPLETED is a duplicate. The stored order decides rather than the claim,
+     * so a replay still restarts a FAILED order after its marker was purged. Only orders the idempotency store
+     * already knows as COMPLETED are rejected from memory, without the conditional UPDATE.
+     */
+    @WriteOperation
+    @Transactional
+    public Either<Failure, Order> startProcessing(OrderRequest request) {
+        log.info("║ [ORDER] Step 3/5: Checking for duplicates and saving to database");
+
+        Either<Failure, Order> result;
+        try {
+            Optional<Order> saved = idempotencyStore.claim(ORDER_CONSUMER, request.getOrderId())
+                    ? saveOrder(request)
+                    : Optional.empty();
+            // Not claimed, or stored without a marker (e.g. created through POST /orders or marker purged)
+            result = saved.<Either<Failure, Order>>map(Either::right)
+                    .orElseGet(() -> idempotencyStore.isSettled(ORDER_CONSUMER, request.getOrderId())
+                            ? duplicateOrder(request.getOrderId())
+                            : restartFailedOrder(request.getOrderId()));
+        } catch (Exception e) {
+            log.error("║ [ORDER] Database error: {}", e.getMessage(), e);
+            result = Either.left(Failure.of(ErrorCode.UNKNOWN, "Database error: " + e.getMessage()));
+        }
+
+        if (result.isLeft()) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+        return result;
+    }
+
+    /**
+     * Commits the outcome of the payment call as COMPLETED or FAILED.
+     */
+    @WriteOperation
+    @Transactional
+    public Either<Failure, Order> finishProcessing(Order order, boolean paid) {
+        log.info("║ [ORDER] Step 5/5: Updating order status to {}", paid ? "COMPLETED" : "FAILED");
+
+        try {
+            order.setStatus(paid ? Order.OrderStatus.COMPLETED : Order.OrderStatus.FAILED);
+            order.setProcessedAt(LocalDateTime.now());
+            orderBatchRepository.updateStatuses(List.of(order));
+            orderCache.evictAfterCommit(order.getOrderId());
+            if (paid) {
+                idempotencyStore.settleAfterCommit(ORDER_CONSUMER, order.getOrderId());
+            }
+            log.info("║ [ORDER] Order status updated successfully");
+            return Either.right(order);
+        } catch (Exception e) {
+            // The order stays PROCESSING: the payment outcome is known only from the logs
+            log.error("║ [ORDER] Failed to update status of order {} after payment {}: {}",
+                    order.getOrderId(), paid ? "succeeded" : "failed", e.getMessage());
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return Either.left(Failure.of(ErrorCode.UNKNOWN, "Failed to update order status"));
+        }
+    }
+
+    /**
+     * Batch variant of {@link #startProcessing(OrderRequest)}: claims all orderIds in one statement
+     * and saves the claimed orders as PROCESSING in one INSERT ... ON CONFLICT DO NOTHING, so an order
+     * already stored without a claim (e.g. created through POST /orders) does not fail the whole batch.
+     * Orders claimed or stored before are picked up again in one conditional UPDATE if their payment FAILED,
+     * except those the idempotency store already knows as COMPLETED.
+     *
+     * @param requests orders with distinct orderIds
+     * @return the saved and restarted orders by orderId; the other orders are left out as duplicates
+     */
+    @WriteOperation
+    @Transactional
+    public Either<Failure, Map<String, Order>> startProcessingAll(List<OrderRequest> requests) {
+        log.info("║ [ORDER BATCH] Claiming and saving {} orders", requests.size());
+
+        try {
+            List<String> orderIds = requests.stream().map(OrderRequest::getOrderId).toList();
+            Set<String> claimed = idempotencyStore.claimAll(ORDER_CONSUMER, orderIds);
+            List<Order> orders = requests.stream()
+                    .filter(request -> claimed.contains(request.getOrderId()))
+                    .map(this::toOrder)
+                    .toList();
+            Set<String> inserted = orderBatchRepository.insertAllIfAbsent(orders);
+
+            Map<String, Order> started = new HashMap<>();
+            orders.stream()
+                    .filter(order -> inserted.contains(order.getOrderId()))
+                    .forEach(order -> started.put(order.getOrderId(), order));
+            restartFailedOrders(orderIds.stream()
+                    .filter(orderId -> !inserted.contains(orderId))
+                    .filter(orderId -> !idempotencyStore.isSettled(ORDER_CONSUMER, orderId))
+                    .toList())
+                    .forEach(order -> started.put(order.getOrderId(), order));
+            return Either.right(started);
+        } catch (Exception e) {
+            log.error("║ [ORDER BATCH] Database error: {}", e.getMessage(), e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return Either.left(Failure.of(ErrorCode.UNKNOWN, "Database error: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Batch variant of {@link #finishProcessing(Order, boolean)}: commits the COMPLETED or FAILED
+     * status already set on each order in one JDBC batch.
+     */
+    @WriteOperation
+    @Transactional
+    public Either<Failure, Collection<Order>> finishProcessingAll(Collection<Order> orders) {
+        log.info("║ [ORDER BATCH] Updating status of {} orders", orders.size());
+
+        try {
+            LocalDateTime processedAt = LocalDateTime.now();
+            orders.forEach(order -> order.setProcessedAt(processedAt));
+            orderBatchRepository.updateStatuses(new ArrayList<>(orders));
+            orders.forEach(order -> {
+                orderCache.evictAfterCommit(order.getOrderId());
+                if (order.getStatus() == Order.OrderStatus.COMPLETED) {
+                    idempotencyStore.settleAfterCommit(ORDER_CONSUMER, order.getOrderId());
+                }
+            });
+            return Either.right(orders);
+        } catch (Exception e) {
+            // The orders stay PROCESSING: the payment outcomes are known only from the logs
+            log.error("║ [ORDER BATCH] Failed to update statuses: {}", e.getMessage(), e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return Either.left(Failure.of(ErrorCode.UNKNOWN, "Failed to update order status"));
+        }
+    }
+
+    private Optional<Order> saveOrder(OrderRequest request) {
+        Order order = toOrder(request);
+        if (!orderBatchRepository.insertIfAbsent(order)) {
+            return Optional.empty();
+        }
+        log.info("║ [ORDER] Order saved with ID: {}", order.getId());
+        return Optional.of(order);
+    }
+
+    private Either<Failure, Order> restartFailedOrder(String orderId) {
+        Optional<Order> restarted = orderBatchRepository.restartFailed(orderId);
+        if (restarted.isEmpty()) {
+            return duplicateOrder(orderId);
+        }
+        log.info("║ [ORDER] Retrying payment of FAILED order: {}", orderId);
+        orderCache.evictAfterCommit(orderId);
+        return Either.right(restarted.get());
+    }
+
+    private Either<Failure, Order> duplicateOrder(String orderId) {
+        log.warn("║ [ORDER] Duplicate order detected: {}", orderId);
+        return Either.left(Failure.of(ErrorCode.CONFLICT, "Order already exists: " + orderId));
+    }
+
+    private List<Order> restartFailedOrders(List<String> orderIds) {
+        List<Order> restarted = orderBatchRepository.restartAllFailed(orderIds);
+        restarted.forEach(order -> {
+            log.info("║ [ORDER BATCH] Retrying payment of FAILED order: {}", order.getOrderId());
+            orderCache.evictAfterCommit(order.getOrderId());
+        });
+        return restarted;
+    }
+
+    private Order toOrder(OrderRequest request) {
+        Order order = new Order();
+        order.setOrderId(request.getOrderId());
+        order.setCustomerId(request.getCustomerId());
+        order.setAmount(request.getAmount());
+        order.setProductCode(request.getProductCode());
+        order.setStatus(Order.OrderStatus.PROCESSING);
+        order.setCreatedAt(LocalDateTime.now());
+        return order;
+    }
+}
@@ -0,0 +1,21 @@
+package com.mrngwozdz.setup.messaging.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Order ids changed on the origin instance, broadcast to every instance's order cache.
+ * An empty list is a heartbeat used to measure the bus round trip.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCacheInvalidation {
+    private String origin;
+    private long sequence;
+    private long sentAt;
+    private List<String> orderIds;
+}
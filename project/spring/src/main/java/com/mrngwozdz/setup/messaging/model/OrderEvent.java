@@ -0,0 +1,41 @@
+package com.mrngwozdz.setup.messaging.model;
+
+import com.mrngwozdz.setup.database.entity.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Order state change published to the order events routing key through the outbox.
+ * For DELETED events only orderId is set.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEvent {
+    private EventType eventType;
+    private String orderId;
+    private String customerId;
+    private BigDecimal amount;
+    private String productCode;
+    private Order.OrderStatus status;
+    private LocalDateTime occurredAt;
+
+    public static OrderEvent of(EventType eventType, Order order) {
+        return new OrderEvent(eventType, order.getOrderId(), order.getCustomerId(), order.getAmount(),
+                order.getProductCode(), order.getStatus(), LocalDateTime.now());
+    }
+
+    public static OrderEvent deleted(String orderId) {
+        return new OrderEvent(EventType.DELETED, orderId, null, null, null, null, LocalDateTime.now());
+    }
+
+    public enum EventType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,92 @@
+package com.mrngwozdz.setup.messaging.scheduler;
+
+import com.mrngwozdz.setup.properties.OutboxRelayProperties;
+import com.mrngwozdz.setup.service.outbox.business.OutboxBusiness;
+import com.mrngwozdz.setup.service.outbox.data.model.OutboxMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the order outbox to RabbitMQ by polling with SELECT ... FOR UPDATE SKIP LOCKED.
+ * Publishes the following metrics:
+ * - outbox.relay.published - messages confirmed by the broker and removed from the outbox
+ * - outbox.relay.failures - polls that ended with a database error
+ * - outbox.relay.delivery.lag - time from the order change commit to the publisher confirm
+ * - outbox.relay.pending.age - age of the oldest row still waiting in the outbox
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "outbox.relay", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private final OutboxBusiness outboxBusiness;
+    private final OutboxRelayProperties properties;
+    private final Counter published;
+    private final Counter failures;
+    private final Timer deliveryLag;
+    private final AtomicLong oldestPendingAgeMillis = new AtomicLong();
+
+    public OutboxRelay(OutboxBusiness outboxBusiness, OutboxRelayProperties properties, MeterRegistry meterRegistry) {
+        this.outboxBusiness = outboxBusiness;
+        this.properties = properties;
+        this.published = Counter.builder("outbox.relay.published")
+                .description("Outbox messages confirmed by the broker")
+                .register(meterRegistry);
+        this.failures = Counter.builder("outbox.relay.failures")
+                .description("Outbox relay polls that failed with a database error")
+                .register(meterRegistry);
+        this.deliveryLag = Timer.builder("outbox.relay.delivery.lag")
+                .description("Time from writing an outbox row to its publisher confirm")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("outbox.relay.pending.age", oldestPendingAgeMillis, AtomicLong::get)
+                .description("Age of the oldest unpublished outbox row")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval:500ms}")
+    public void relay() {
+        for (int batch = 0; batch < properties.getMaxBatchesPerPoll(); batch++) {
+            var result = outboxBusiness.relayBatch(properties.getBatchSize());
+            if (result.isLeft()) {
+                failures.increment();
+                log.warn("Outbox relay failed: {}", result.getLeft());
+                break;
+            }
+            List<OutboxMessage> relayed = result.get();
+            record(relayed);
+            if (relayed.size() < properties.getBatchSize()) {
+                break;
+            }
+        }
+        outboxBusiness.findOldestPendingCreatedAt()
+                .peek(oldest -> oldestPendingAgeMillis.set(oldest
+                        .map(createdAt -> Math.max(0, Duration.between(createdAt, LocalDateTime.now()).toMillis()))
+                        .orElse(0L)));
+    }
+
+    private void record(List<OutboxMessage> relayed) {
+        if (relayed.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        published.increment(relayed.size());
+        for (OutboxMessage message : relayed) {
+            deliveryLag.record(Math.max(0, Duration.between(message.createdAt(), now).toMillis()), TimeUnit.MILLISECONDS);
+        }
+        log.debug("Relayed {} outbox messages", relayed.size());
+    }
+}
@@ -0,0 +1,32 @@
+package com.mrngwozdz.setup.messaging.scheduler;
+
+import com.mrngwozdz.setup.properties.IdempotencyProperties;
+import com.mrngwozdz.setup.service.idempotency.data.repository.ProcessedMessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Removes processed message markers older than idempotency.retention.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProcessedMessagePurger {
+
+    private final ProcessedMessageRepository repository;
+    private final IdempotencyProperties properties;
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval:1h}")
+    public void purge() {
+        try {
+            int deleted = repository.deleteOlderThan(LocalDateTime.now().minus(properties.getRetention()));
+            log.debug("Purged {} processed message markers", deleted);
+        } catch (Exception e) {
+            log.warn("Failed to purge processed message markers: {}", e.getMessage());
+        }
+    }
+}
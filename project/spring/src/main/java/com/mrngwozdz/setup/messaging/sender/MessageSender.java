@@ -1,23 +1,147 @@
 package com.mrngwozdz.setup.messaging.sender;
 
 import com.mrngwozdz.setup.properties.RabbitMQProperties;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes messages to the exchange with publisher confirms.
+ *
+ * Sends do not wait for the broker: each returns a future completed when its confirm arrives.
+ * The broker acknowledges several deliveries with a single multiple-ack, which completes all
+ * of their futures at once, so confirms are batched without extra round trips.
+ * At most spring.rabbitmq.publisher.max-in-flight messages may be unconfirmed at a time;
+ * further sends wait for a free slot, which pushes back on producers when the broker falls behind.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class MessageSender {
 
     private final RabbitTemplate rabbitTemplate;
     private final RabbitMQProperties rabbitMQProperties;
+    private final RabbitMQProperties.Publisher publisher;
+    private final Semaphore inFlight;
+
+    public MessageSender(RabbitTemplate rabbitTemplate, RabbitMQProperties rabbitMQProperties,
+                         MeterRegistry meterRegistry) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.rabbitMQProperties = rabbitMQProperties;
+        this.publisher = rabbitMQProperties.getPublisher();
+        this.inFlight = new Semaphore(publisher.getMaxInFlight());
+        Gauge.builder("rabbitmq.publisher.in.flight", inFlight,
+                        permits -> publisher.getMaxInFlight() - permits.availablePermits())
+                .description("Messages published but not yet confirmed by the broker")
+                .register(meterRegistry);
+    }
 
+    /**
+     * Publishes a message and blocks until the broker confirms it.
+     *
+     * @throws AmqpException if the message could not be published or was not confirmed
+     */
     public void send(String routingKey, Object message) {
-        log.info("Sending message to exchange {} with routing key {}: {}",
+        try {
+            sendAsync(routingKey, message).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof AmqpException amqpException) {
+                throw amqpException;
+            }
+            throw new AmqpException("Failed to publish message with routing key " + routingKey, e.getCause());
+        }
+    }
+
+    /**
+     * Publishes a message without waiting for the broker.
+     *
+     * @return future completed on broker ack, or exceptionally on nack, confirm timeout or publish failure
+     */
+    public CompletableFuture<Void> sendAsync(String routingKey, Object message) {
+        log.debug("Sending message to exchange {} with routing key {}: {}",
                 rabbitMQProperties.getExchangeName(), routingKey, message);
-        rabbitTemplate.convertAndSend(rabbitMQProperties.getExchangeName(), routingKey, message);
-        log.info("Message sent successfully to exchange");
+        return publish(rabbitTemplate, routingKey, message);
+    }
+
+    /**
+     * Publishes all messages in order over a single channel without waiting for confirms in between.
+     * Stops at the first message that cannot be published.
+     *
+     * @return future completed once every message is confirmed, or exceptionally if any of them fails
+     */
+    public CompletableFuture<Void> sendAll(String routingKey, Collection<?> messages) {
+        if (messages.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        log.debug("Sending {} messages to exchange {} with routing key {}",
+                messages.size(), rabbitMQProperties.getExchangeName(), routingKey);
+
+        // invoke() binds one channel to this thread, so the whole batch is pipelined over it
+        // instead of checking a cached channel in and out per message
+        List<CompletableFuture<Void>> confirms = rabbitTemplate.invoke(operations -> {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(messages.size());
+            for (Object message : messages) {
+                CompletableFuture<Void> future = publish(operations, routingKey, message);
+                futures.add(future);
+                if (future.isCompletedExceptionally()) {
+                    break;
+                }
+            }
+            return futures;
+        });
+        return CompletableFuture.allOf(confirms.toArray(CompletableFuture[]::new));
+    }
+
+    private CompletableFuture<Void> publish(RabbitOperations operations, String routingKey, Object message) {
+        if (!acquireSlot()) {
+            return CompletableFuture.failedFuture(new AmqpTimeoutException(
+                    "No publisher in-flight slot available within " + publisher.getAcquireTimeout().toMillis() + "ms"));
+        }
+
+        CorrelationData correlationData = new CorrelationData();
+        try {
+            operations.convertAndSend(rabbitMQProperties.getExchangeName(), routingKey, message, correlationData);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            log.warn("Failed to publish message with routing key {}: {}", routingKey, e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return correlationData.getFuture()
+                .orTimeout(publisher.getConfirmTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((confirm, e) -> inFlight.release())
+                .<Void>handle((confirm, e) -> {
+                    if (e != null) {
+                        throw new AmqpTimeoutException("No publisher confirm for message " + correlationData.getId()
+                                + " within " + publisher.getConfirmTimeout().toMillis() + "ms");
+                    }
+                    if (!confirm.isAck()) {
+                        throw new AmqpException("Message " + correlationData.getId()
+                                + " was nacked by the broker: " + confirm.getReason());
+                    }
+                    return null;
+                });
+    }
+
+    private boolean acquireSlot() {
+        try {
+            return inFlight.tryAcquire(publisher.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,94 @@
+package com.mrngwozdz.setup.messaging.sender;
+
+import com.mrngwozdz.setup.properties.OutboxRelayProperties;
+import com.mrngwozdz.setup.properties.RabbitMQProperties;
+import com.mrngwozdz.setup.service.outbox.data.model.OutboxMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes outbox rows with publisher confirms (spring.rabbitmq.publisher-confirm-type: correlated).
+ * A whole batch is sent before waiting, so confirms for the batch arrive in a single round trip.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final RabbitMQProperties rabbitMQProperties;
+    private final OutboxRelayProperties outboxRelayProperties;
+
+    /**
+     * Publishes the messages in order and waits for their confirms.
+     *
+     * @return the longest prefix of messages confirmed by the broker; anything after the first
+     * failed, nacked or timed out message stays in the outbox so a retry never overtakes it
+     */
+    public List<OutboxMessage> publish(List<OutboxMessage> messages) {
+        List<CorrelationData> sent = new ArrayList<>(messages.size());
+        for (OutboxMessage message : messages) {
+            CorrelationData correlationData = new CorrelationData(String.valueOf(message.id()));
+            try {
+                rabbitTemplate.send(rabbitMQProperties.getExchangeName(), message.routingKey(),
+                        toAmqpMessage(message), correlationData);
+            } catch (Exception e) {
+                log.warn("Failed to publish outbox message {}: {}", message.id(), e.getMessage());
+                break;
+            }
+            sent.add(correlationData);
+        }
+
+        long deadline = System.nanoTime() + outboxRelayProperties.getConfirmTimeout().toNanos();
+        List<OutboxMessage> confirmed = new ArrayList<>(sent.size());
+        for (int i = 0; i < sent.size(); i++) {
+            if (!awaitAck(sent.get(i), deadline)) {
+                break;
+            }
+            confirmed.add(messages.get(i));
+        }
+        return confirmed;
+    }
+
+    private boolean awaitAck(CorrelationData correlationData, long deadline) {
+        try {
+            CorrelationData.Confirm confirm = correlationData.getFuture()
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (!confirm.isAck()) {
+                log.warn("Outbox message {} was nacked by the broker: {}", correlationData.getId(), confirm.getReason());
+            }
+            return confirm.isAck();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            log.warn("No publisher confirm for outbox message {}: {}", correlationData.getId(), e.toString());
+            return false;
+        }
+    }
+
+    private static Message toAmqpMessage(OutboxMessage message) {
+        return MessageBuilder.withBody(message.payload().getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+                .setMessageId("order-outbox-" + message.id())
+                .setType(message.eventType())
+                .setTimestamp(Timestamp.valueOf(message.createdAt()))
+                .setHeader("x-aggregate-id", message.aggregateId())
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.mrngwozdz.setup.platform.http;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes values as newline-delimited JSON (application/x-ndjson) to an output stream.
+ * Values are buffered by the generator and flushed on close, not after every line.
+ * The underlying stream is left open for the servlet container to close.
+ *
+ * @param <T> type of the written values
+ */
+public final class NdjsonWriter<T> implements Closeable {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+    private final JsonGenerator generator;
+
+    public NdjsonWriter(ObjectMapper objectMapper, Class<T> type, OutputStream outputStream) throws IOException {
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writerFor(type)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = objectMapper.getFactory()
+                .createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Writes a single value followed by a line separator.
+     *
+     * @throws UncheckedIOException if the client disconnected or the stream failed
+     */
+    public void write(T value) {
+        writeLine(writer, value);
+    }
+
+    /**
+     * Writes a line of another type after the values, e.g. a marker telling the client the stream is incomplete.
+     *
+     * @throws UncheckedIOException if the client disconnected or the stream failed
+     */
+    public void writeTrailer(Object trailer) {
+        writeLine(objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE), trailer);
+    }
+
+    private void writeLine(ObjectWriter lineWriter, Object value) {
+        try {
+            lineWriter.writeValue(generator, value);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,77 @@
+package com.mrngwozdz.setup.platform.http;
+
+import com.mrngwozdz.setup.database.config.datasource.ReadYourWritesContext;
+import com.mrngwozdz.setup.database.config.datasource.ReplicaConsistencyGuard;
+import com.mrngwozdz.setup.properties.ReadYourWritesProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the read-your-writes session of the request for the ReplicaConsistencyGuard.
+ * The session is identified by the session header, or by the X-Correlation-ID header when the client
+ * sends one. Requests with neither are not tracked as a session (the correlation id
+ * {@link CorrelationIdFilter} generates for them is never reused), so they rely on the consistency
+ * token alone: one sent by the client is honoured, and a new one is returned after every write.
+ */
+@Slf4j
+@Component
+@Order(2)
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final String CORRELATION_ID_HEADER = "X-Correlation-ID";
+
+    private final ReplicaConsistencyGuard replicaConsistencyGuard;
+    private final ReadYourWritesProperties properties;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !replicaConsistencyGuard.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        String sessionKey = clientHeader(request, properties.getSessionHeader());
+        if (sessionKey == null) {
+            sessionKey = clientHeader(request, CORRELATION_ID_HEADER);
+        }
+        try {
+            ReadYourWritesContext.set(new ReadYourWritesContext.Session(sessionKey, tokenLsn(request),
+                    token -> response.setHeader(properties.getTokenHeader(), token)));
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWritesContext.clear();
+        }
+    }
+
+    private static String clientHeader(HttpServletRequest request, String name) {
+        String value = request.getHeader(name);
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private long tokenLsn(HttpServletRequest request) {
+        String token = request.getHeader(properties.getTokenHeader());
+        if (token == null || token.isBlank()) {
+            return 0;
+        }
+        try {
+            return ReplicaConsistencyGuard.parseLsn(token.trim());
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring invalid consistency token: {}", token);
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.mrngwozdz.setup.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "idempotency")
+public class IdempotencyProperties {
+
+    private Cache cache = new Cache();
+
+    /**
+     * How long processed message markers are kept in the database.
+     * Redeliveries older than this are decided by the stored order instead: a FAILED order is
+     * processed again, any other order is rejected as a duplicate.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * Delay between purges of markers older than the retention.
+     */
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    /**
+     * In-process cache of recently processed message ids in front of the database store.
+     */
+    @Data
+    public static class Cache {
+        private boolean enabled = true;
+        private int maxSize = 100_000;
+        private Duration ttl = Duration.ofMinutes(30);
+    }
+}
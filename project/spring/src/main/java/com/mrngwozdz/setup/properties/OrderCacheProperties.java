@@ -0,0 +1,72 @@
+package com.mrngwozdz.setup.properties;
+
+import com.mrngwozdz.setup.database.entity.Order.OrderStatus;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * In-process cache of single orders in front of GET /orders/{orderId}.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "order.cache")
+public class OrderCacheProperties {
+
+    private boolean enabled = true;
+    private int maxSize = 10_000;
+
+    /**
+     * Time to live of orders whose status has no entry in {@link #statusTtl}.
+     */
+    private Duration ttl = Duration.ofSeconds(30);
+
+    /**
+     * Time to live per order status. COMPLETED and FAILED orders are not changed
+     * by order processing anymore, so they can be cached much longer.
+     */
+    private Map<OrderStatus, Duration> statusTtl = new EnumMap<>(Map.of(
+            OrderStatus.COMPLETED, Duration.ofMinutes(10),
+            OrderStatus.FAILED, Duration.ofMinutes(10)));
+
+    private Invalidation invalidation = new Invalidation();
+
+    public Duration ttlFor(OrderStatus status) {
+        return statusTtl.getOrDefault(status, ttl);
+    }
+
+    /**
+     * Broadcast of evictions to the other instances over a fanout exchange.
+     */
+    @Data
+    public static class Invalidation {
+        private boolean enabled = true;
+        private String exchange = "setup.order.cache.fanout";
+
+        /**
+         * Evictions committed within this window are published together in one message.
+         */
+        private Duration coalesceWindow = Duration.ofMillis(50);
+
+        /**
+         * An empty message is published when nothing else was sent for this long,
+         * so a broken bus is noticed even without writes.
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(5);
+
+        /**
+         * The bus is considered lagging once this instance's own messages take longer
+         * than this to come back, or do not come back at all.
+         */
+        private Duration maxLag = Duration.ofSeconds(1);
+
+        /**
+         * Maximum age of a cached order while the bus is lagging or publishing fails.
+         */
+        private Duration fallbackTtl = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,22 @@
+package com.mrngwozdz.setup.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Streaming export of all orders (GET /orders/export).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "order.export")
+public class OrderExportProperties {
+
+    /**
+     * Async request timeout of an export, applied to that request only. Other async requests
+     * keep the servlet container default.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,39 @@
+package com.mrngwozdz.setup.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "outbox.relay")
+public class OutboxRelayProperties {
+
+    /**
+     * Whether this instance drains the order outbox. Several instances may relay concurrently.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Rows locked, published and deleted per transaction.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Delay between polls once the outbox has been drained.
+     */
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    /**
+     * Upper bound on batches relayed in a single poll, so one instance does not hold
+     * a WRITE connection indefinitely under sustained load.
+     */
+    private int maxBatchesPerPoll = 10;
+
+    /**
+     * How long to wait for publisher confirms of a batch before leaving the rest for the next poll.
+     */
+    private Duration confirmTimeout = Duration.ofSeconds(5);
+}
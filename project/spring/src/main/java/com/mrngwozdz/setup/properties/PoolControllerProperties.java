@@ -0,0 +1,54 @@
+package com.mrngwozdz.setup.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Adaptive sizing of the command and query connection pools within a shared connection budget.
+ * The pools start at spring.datasource.command/query.max-connections.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "spring.datasource.pool-controller")
+public class PoolControllerProperties {
+
+    private boolean enabled = false;
+
+    private Duration interval = Duration.ofSeconds(1);
+
+    /**
+     * Upper limit for the sum of the maximum sizes of all pools, e.g. the connections the
+     * database grants this instance.
+     */
+    private int globalBudget = 40;
+
+    /**
+     * Connections a pool grows or shrinks by per interval at most.
+     */
+    private int step = 2;
+
+    /**
+     * Consecutive intervals a pool must have idle connections and no waiting threads before it shrinks.
+     */
+    private int shrinkAfter = 10;
+
+    private Bounds command = new Bounds(3, 20);
+
+    /**
+     * Bounds of the query pool, or of every replica pool when read replicas are configured.
+     */
+    private Bounds query = new Bounds(5, 30);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bounds {
+        private int minSize;
+        private int maxSize;
+    }
+}
@@ -4,6 +4,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "spring.rabbitmq.listener")
@@ -12,4 +14,63 @@ public class RabbitMQListenerProperties {
     private String orderConcurrency = "1-10";
     private String notificationConcurrency = "1-5";
     private String auditConcurrency = "1-3";
-}
\ No newline at end of file
+
+    private Container order = new Container();
+    private Container notification = new Container();
+    private Container audit = new Container();
+
+    private Batch orderBatch = new Batch();
+
+    /**
+     * Per-queue listener container tuning. Defaults keep one in-flight message per consumer
+     * and Spring AMQP's default consumer scaling thresholds.
+     */
+    @Data
+    public static class Container {
+        /**
+         * Messages the broker may push to each consumer before they are acknowledged.
+         */
+        private int prefetch = 1;
+
+        /**
+         * Messages acknowledged together in a single ack.
+         */
+        private int batchSize = 1;
+
+        /**
+         * Consecutive receives with a message before another consumer is started (up to max concurrency).
+         */
+        private int consecutiveActiveTrigger = 10;
+
+        /**
+         * Consecutive empty receives before a consumer above the minimum concurrency is stopped.
+         */
+        private int consecutiveIdleTrigger = 10;
+
+        private Duration startConsumerMinInterval = Duration.ofSeconds(10);
+        private Duration stopConsumerMinInterval = Duration.ofMinutes(1);
+
+        /**
+         * How often a ListenerContainerIdleEvent is published while the queue is idle; disabled when not set.
+         */
+        private Duration idleEventInterval;
+    }
+
+    @Data
+    public static class Batch {
+        /**
+         * When enabled the order queue is consumed in batches instead of one message per transaction.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of messages delivered to the listener at once.
+         */
+        private int size = 50;
+
+        /**
+         * How long the consumer waits for the next message before releasing a partial batch.
+         */
+        private Duration receiveTimeout = Duration.ofSeconds(1);
+    }
+}
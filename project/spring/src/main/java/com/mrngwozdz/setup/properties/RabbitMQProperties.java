@@ -4,6 +4,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.List;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "spring.rabbitmq")
@@ -14,6 +17,74 @@ public class RabbitMQProperties {
     private Queue order = new Queue("setup.order.queue", "order");
     private Queue notification = new Queue("setup.notification.queue", "notification");
     private Queue audit = new Queue("setup.audit.queue", "audit");
+    private Queue orderEvents = new Queue("setup.order.events.queue", "order.events");
+
+    private Publisher publisher = new Publisher();
+
+    private Retry retry = new Retry();
+
+    /**
+     * Queues consumed with the retry advice, each with its own DLQ.
+     */
+    public List<Queue> retriedQueues() {
+        return List.of(order, notification, audit);
+    }
+
+    /**
+     * MessageSender publishing settings. Confirms require publisher-confirm-type: correlated.
+     */
+    @Data
+    public static class Publisher {
+        /**
+         * Messages published but not yet confirmed by the broker. Publishers wait for a free slot
+         * once the window is full.
+         */
+        private int maxInFlight = 1000;
+
+        /**
+         * How long a publisher waits for a free in-flight slot before the send fails.
+         */
+        private Duration acquireTimeout = Duration.ofSeconds(5);
+
+        /**
+         * How long to wait for a broker confirm before the send future completes exceptionally.
+         */
+        private Duration confirmTimeout = Duration.ofSeconds(10);
+    }
+
+    /**
+     * Retries of failed order, notification and audit messages before they go to the DLQ.
+     */
+    @Data
+    public static class Retry {
+
+        public enum Mode {
+            /**
+             * The consumer thread sleeps between attempts, holding the message and its prefetch slot.
+             */
+            IN_THREAD,
+            /**
+             * The failed message is republished to a TTL delay queue and acked, and comes back to
+             * its queue once the TTL expires. Delays are the x-message-ttl of the
+             * &lt;queue&gt;.retry.&lt;attempt&gt; queues in services/rabbitmq/definitions.json.
+             */
+            DELAY_QUEUE
+        }
+
+        private Mode mode = Mode.IN_THREAD;
+
+        /**
+         * Total attempts including the first delivery. DELAY_QUEUE needs max-attempts - 1 delay queues per queue.
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * In-thread backoff, IN_THREAD only.
+         */
+        private Duration initialInterval = Duration.ofSeconds(1);
+        private double multiplier = 2.0;
+        private Duration maxInterval = Duration.ofSeconds(10);
+    }
 
     @Data
     public static class Queue {
@@ -0,0 +1,90 @@
+package com.mrngwozdz.setup.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Load balancing of the READ DataSource over several query replicas.
+ * Without endpoints the READ DataSource is the single spring.datasource.query pool.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "spring.datasource.read-replicas")
+public class ReadReplicaProperties {
+
+    /**
+     * Query replicas, each with its own connection pool. Username, password and pool sizes
+     * default to the spring.datasource.query settings.
+     */
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    private Balancing balancing = Balancing.LEAST_OUTSTANDING;
+
+    /**
+     * Time constant of the exponentially weighted moving average of connection hold times
+     * used by EWMA balancing; older samples lose weight over roughly this period.
+     */
+    private Duration latencyDecay = Duration.ofSeconds(10);
+
+    private Health health = new Health();
+
+    public boolean isEnabled() {
+        return !endpoints.isEmpty();
+    }
+
+    public enum Balancing {
+        /**
+         * Prefer the replica with the fewest connections currently handed out.
+         */
+        LEAST_OUTSTANDING,
+        /**
+         * Prefer the replica with the lowest average connection hold time multiplied by its outstanding connections.
+         */
+        EWMA
+    }
+
+    @Data
+    public static class Endpoint {
+        private String name;
+        private String jdbcUrl;
+        private String username;
+        private String password;
+        private Integer maxConnections;
+        private Integer minimumIdle;
+    }
+
+    @Data
+    public static class Health {
+
+        private Duration probeInterval = Duration.ofSeconds(2);
+
+        private Duration probeTimeout = Duration.ofSeconds(1);
+
+        /**
+         * Consecutive failed probes or connection attempts after which a replica is ejected.
+         */
+        private int failureThreshold = 2;
+
+        /**
+         * Replay lag behind the WRITE DataSource after which a replica is ejected.
+         * It is re-admitted once the lag falls below half of this value.
+         */
+        private DataSize maxLag = DataSize.ofMegabytes(16);
+
+        /**
+         * Period over which a re-admitted replica's share of the traffic grows back to full.
+         */
+        private Duration rampUp = Duration.ofSeconds(30);
+
+        /**
+         * Share of its full weight a replica starts with when re-admitted.
+         */
+        private double initialWeight = 0.1;
+    }
+}
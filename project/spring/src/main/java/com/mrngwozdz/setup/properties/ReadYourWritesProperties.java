@@ -0,0 +1,49 @@
+package com.mrngwozdz.setup.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Read-your-writes routing for @ReadOperation methods when the query DataSource is a streaming replica.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "spring.datasource.read-your-writes")
+public class ReadYourWritesProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Request header identifying the client session. Requests without it are tracked by the
+     * X-Correlation-ID header the client sent, if any, so clients reusing a correlation id also
+     * read their writes. Generated correlation ids are never tracked.
+     */
+    private String sessionHeader = "X-Session-Token";
+
+    /**
+     * Response header carrying the WAL position of the last write. Clients may send it back
+     * on later requests, which also works across application instances.
+     */
+    private String tokenHeader = "X-Consistency-Token";
+
+    /**
+     * How long a read waits for the replica to replay the session's last write before it is
+     * routed to the WRITE DataSource. Zero routes to the WRITE DataSource immediately.
+     */
+    private Duration maxWait = Duration.ofMillis(50);
+
+    /**
+     * Minimum delay between replica replay position checks, shared by all waiting reads.
+     */
+    private Duration pollInterval = Duration.ofMillis(5);
+
+    /**
+     * How long the last write position of a session is remembered.
+     */
+    private Duration sessionTtl = Duration.ofSeconds(30);
+
+    private int maxSessions = 100_000;
+}
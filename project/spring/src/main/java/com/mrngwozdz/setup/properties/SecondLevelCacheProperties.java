@@ -0,0 +1,42 @@
+package com.mrngwozdz.setup.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hibernate second-level cache for the Order entity and its orderId natural id,
+ * kept in a local Caffeine JCache provider.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "jpa.second-level-cache")
+public class SecondLevelCacheProperties {
+
+    public static final String ORDER_REGION = "order";
+    public static final String ORDER_NATURAL_ID_REGION = "order-natural-id";
+
+    private boolean enabled = false;
+
+    /**
+     * Size and lifetime per cache region. Every region used by an entity must be listed,
+     * Hibernate fails on startup otherwise.
+     */
+    private Map<String, Region> regions = new LinkedHashMap<>(Map.of(
+            ORDER_REGION, new Region(10_000, Duration.ofSeconds(30)),
+            ORDER_NATURAL_ID_REGION, new Region(10_000, Duration.ofSeconds(30))));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Region {
+        private long maxSize = 10_000;
+        private Duration expireAfterWrite = Duration.ofSeconds(30);
+    }
+}
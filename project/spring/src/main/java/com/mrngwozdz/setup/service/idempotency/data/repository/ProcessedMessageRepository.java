@@ -0,0 +1,75 @@
+package com.mrngwozdz.setup.service.idempotency.data.repository;
+
+import com.mrngwozdz.setup.database.config.datasource.WriteOperation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * JDBC repository for the processed_messages table.
+ * Inserts participate in the surrounding transaction, so a marker is rolled back
+ * together with the work of a message that failed.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProcessedMessageRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO processed_messages (consumer, message_id, processed_at)
+            VALUES (:consumer, :messageId, :processedAt)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String INSERT_ALL_SQL = """
+            INSERT INTO processed_messages (consumer, message_id, processed_at)
+            SELECT :consumer, message_id, :processedAt FROM unnest(CAST(:messageIds AS VARCHAR[])) AS message_id
+            ON CONFLICT DO NOTHING
+            RETURNING message_id
+            """;
+
+    private static final String DELETE_OLDER_THAN_SQL = """
+            DELETE FROM processed_messages WHERE processed_at < :threshold
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * @return true if the marker was inserted, false if it already existed
+     */
+    public boolean insertIfAbsent(String consumer, String messageId, LocalDateTime processedAt) {
+        return jdbcTemplate.update(INSERT_SQL, new MapSqlParameterSource()
+                .addValue("consumer", consumer)
+                .addValue("messageId", messageId)
+                .addValue("processedAt", processedAt, Types.TIMESTAMP)) == 1;
+    }
+
+    /**
+     * Inserts all markers in a single statement.
+     *
+     * @return message ids whose markers were inserted; ids already present are left out
+     */
+    public Set<String> insertAllIfAbsent(String consumer, Collection<String> messageIds, LocalDateTime processedAt) {
+        if (messageIds.isEmpty()) {
+            return Set.of();
+        }
+        var parameters = new MapSqlParameterSource()
+                .addValue("consumer", consumer)
+                .addValue("messageIds", messageIds.toArray(String[]::new), Types.ARRAY)
+                .addValue("processedAt", processedAt, Types.TIMESTAMP);
+        return new HashSet<>(jdbcTemplate.queryForList(INSERT_ALL_SQL, parameters, String.class));
+    }
+
+    @WriteOperation
+    @Transactional
+    public int deleteOlderThan(LocalDateTime threshold) {
+        return jdbcTemplate.update(DELETE_OLDER_THAN_SQL, new MapSqlParameterSource("threshold", threshold));
+    }
+}
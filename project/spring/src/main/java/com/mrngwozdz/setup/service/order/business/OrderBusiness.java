@@ -1,24 +1,36 @@
 package com.mrngwozdz.setup.service.order.business;
 
 import com.mrngwozdz.setup.controller.model.request.CreateOrderRequest;
+import com.mrngwozdz.setup.controller.model.request.CreateOrdersRequest;
+import com.mrngwozdz.setup.controller.model.request.GetOrdersRequest;
 import com.mrngwozdz.setup.controller.model.request.UpdateOrderRequest;
 import com.mrngwozdz.setup.database.config.datasource.ReadOperation;
 import com.mrngwozdz.setup.database.config.datasource.WriteOperation;
 import com.mrngwozdz.setup.database.entity.Order;
+import com.mrngwozdz.setup.messaging.model.OrderEvent;
 import com.mrngwozdz.setup.platform.result.Failure;
+import com.mrngwozdz.setup.platform.result.ErrorCode;
+import com.mrngwozdz.setup.platform.validation.Validator;
 import com.mrngwozdz.setup.service.order.business.createorder.CreateOrderHelper;
+import com.mrngwozdz.setup.service.order.business.createorders.CreateOrdersHelper;
 import com.mrngwozdz.setup.service.order.business.updateorder.UpdateOrderHelper;
 import com.mrngwozdz.setup.service.order.data.impl.OrderCommand;
 import com.mrngwozdz.setup.service.order.data.impl.OrderQuery;
+import com.mrngwozdz.setup.service.order.data.model.OrderCursor;
+import com.mrngwozdz.setup.service.order.data.model.OrderPage;
+import com.mrngwozdz.setup.service.order.data.model.OrderPageQuery;
 import com.mrngwozdz.setup.service.order.mapper.OrderRequestMapper;
+import com.mrngwozdz.setup.service.outbox.data.impl.OutboxCommand;
 import io.vavr.control.Either;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Business layer for Order operations.
@@ -31,22 +43,35 @@ public class OrderBusiness {
 
     private final OrderQuery orderQuery;
     private final OrderCommand orderCommand;
-    private final OrderBusiness self;  // Self-injection for internal method calls to use Spring proxy
+    private final OutboxCommand outboxCommand;
 
-    public OrderBusiness(OrderQuery orderQuery, OrderCommand orderCommand, @Lazy OrderBusiness self) {
+    public OrderBusiness(OrderQuery orderQuery, OrderCommand orderCommand, OutboxCommand outboxCommand) {
         this.orderQuery = orderQuery;
         this.orderCommand = orderCommand;
-        this.self = self;
+        this.outboxCommand = outboxCommand;
     }
 
     /**
-     * Retrieves all orders from the database.
+     * Retrieves a single page of orders using keyset pagination.
      * Uses READ DataSource for query operations.
      */
     @ReadOperation
     @Transactional(readOnly = true)
-    public Either<Failure, List<Order>> getAllOrders() {
-        return orderQuery.findAll();
+    public Either<Failure, OrderPage> getOrders(GetOrdersRequest request) {
+        return request.validate()
+                .flatMap(r -> decodeCursor(r.cursor())
+                        .map(after -> new OrderPageQuery(r.customerId(), r.status(), after, r.limit())))
+                .flatMap(orderQuery::findPage);
+    }
+
+    /**
+     * Passes every order to the consumer while holding a single database cursor open.
+     * Uses READ DataSource for query operations.
+     */
+    @ReadOperation
+    @Transactional(readOnly = true)
+    public Either<Failure, Long> exportOrders(Consumer<Order> consumer) {
+        return orderQuery.forEach(consumer);
     }
 
     /**
@@ -60,7 +85,7 @@ public class OrderBusiness {
     }
 
     /**
-     * Creates a new order.
+     * Creates a new order and records a CREATED order event in the outbox within the same transaction.
      * Uses WRITE DataSource for command operations.
      */
     @WriteOperation
@@ -68,9 +93,9 @@ public class OrderBusiness {
     public Either<Failure, Order> createOrder(CreateOrderRequest request) {
         var helper = new CreateOrderHelper();
         var result = request.validate().map(helper::setValidatedCreateOrderRequest)
-                .flatMap(h -> orderQuery.ensureOrderDoesNotExist(h.getValidatedCreateOrderRequest().orderId()).map(h::setOrderDoesNotExist))
                 .flatMap(h -> OrderRequestMapper.INSTANCE.toOrderSafely(h.getValidatedCreateOrderRequest()).map(h::setCreateOrder))
-                .flatMap(h -> orderCommand.create(h.getCreateOrder()).map(h::setCreatedOrder));
+                .flatMap(h -> orderCommand.create(h.getCreateOrder()).map(h::setCreatedOrder))
+                .flatMap(h -> outboxCommand.append(OrderEvent.of(OrderEvent.EventType.CREATED, h.getCreatedOrder())).map(h::setOrderCreatedEvent));
         if (result.isLeft()) {
             log.error("Create order failed with request: {}, process: {}", request, helper);
             TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
@@ -79,7 +104,40 @@ public class OrderBusiness {
     }
 
     /**
-     * Updates an existing order (full update).
+     * Creates many orders in one transaction, reporting a result per requested order.
+     * Invalid and duplicate orders (within the batch or already stored) are reported as failures
+     * without affecting the others; valid orders are inserted with multi-row INSERT statements
+     * and their CREATED events are written to the outbox in one JDBC batch.
+     * Uses WRITE DataSource for command operations.
+     *
+     * @return one result per requested order, in request order
+     */
+    @WriteOperation
+    @Transactional
+    public Either<Failure, List<Either<Failure, Order>>> createOrders(CreateOrdersRequest request) {
+        var helper = new CreateOrdersHelper();
+        var result = request.validate().map(helper::setValidatedCreateOrdersRequest)
+                .map(h -> h.setMappedOrders(toOrders(h.getValidatedCreateOrdersRequest().orders())))
+                .flatMap(h -> orderCommand.createAll(h.getValidOrders()).map(h::setCreatedOrderIds))
+                .flatMap(h -> outboxCommand.appendAll(h.getValidOrders().stream()
+                                .filter(order -> h.getCreatedOrderIds().contains(order.getOrderId()))
+                                .map(order -> OrderEvent.of(OrderEvent.EventType.CREATED, order))
+                                .toList())
+                        .map(h::setOrderCreatedEvents));
+        if (result.isLeft()) {
+            log.error("Create orders failed with {} orders: {}",
+                    request.orders() != null ? request.orders().size() : 0, result.getLeft());
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+        return result.map(h -> h.getMappedOrders().stream()
+                .map(order -> order.flatMap(o -> h.getCreatedOrderIds().contains(o.getOrderId())
+                        ? Either.<Failure, Order>right(o)
+                        : Either.<Failure, Order>left(orderConflict(o.getOrderId()))))
+                .toList());
+    }
+
+    /**
+     * Updates an existing order (full update) and records an UPDATED order event in the outbox.
      * Uses WRITE DataSource for command operations.
      */
     @WriteOperation
@@ -89,7 +147,8 @@ public class OrderBusiness {
         var result = Either.<Failure, UpdateOrderHelper>right(helper.setOrderId(orderId))
                 .flatMap(h -> request.validate().map(h::setValidatedUpdateOrderRequest))
                 .flatMap(h -> orderQuery.findById(h.getOrderId()).map(h::setExistingOrder))
-                .flatMap(h -> orderCommand.update(h.getOrderId(), h.getValidatedUpdateOrderRequest()).map(h::setUpdatedOrder));
+                .flatMap(h -> orderCommand.update(h.getOrderId(), h.getValidatedUpdateOrderRequest()).map(h::setUpdatedOrder))
+                .flatMap(h -> outboxCommand.append(OrderEvent.of(OrderEvent.EventType.UPDATED, h.getUpdatedOrder())).map(h::setOrderUpdatedEvent));
         if (result.isLeft()) {
             log.error("Update order failed with orderId: {}, request: {}, process: {}", orderId, request, helper);
             TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
@@ -98,20 +157,65 @@ public class OrderBusiness {
     }
 
     /**
-     * Partially updates an existing order.
+     * Partially updates an existing order with a single UPDATE of the provided fields
+     * and records an UPDATED order event in the outbox.
      * Uses WRITE DataSource for command operations.
      */
+    @WriteOperation
+    @Transactional
     public Either<Failure, Order> patchOrder(String orderId, UpdateOrderRequest request) {
-        return self.updateOrder(orderId, request);
+        var helper = new UpdateOrderHelper();
+        var result = Either.<Failure, UpdateOrderHelper>right(helper.setOrderId(orderId))
+                .flatMap(h -> request.validate().map(h::setValidatedUpdateOrderRequest))
+                .flatMap(h -> orderCommand.patch(h.getOrderId(), h.getValidatedUpdateOrderRequest()).map(h::setUpdatedOrder))
+                .flatMap(h -> outboxCommand.append(OrderEvent.of(OrderEvent.EventType.UPDATED, h.getUpdatedOrder())).map(h::setOrderUpdatedEvent));
+        if (result.isLeft()) {
+            log.error("Patch order failed with orderId: {}, request: {}, process: {}", orderId, request, helper);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+        return result.map(UpdateOrderHelper::getUpdatedOrder);
     }
 
     /**
-     * Deletes an order by its ID.
+     * Deletes an order by its ID and records a DELETED order event in the outbox.
      * Uses WRITE DataSource for command operations.
      */
     @WriteOperation
     @Transactional
     public Either<Failure, Void> deleteOrder(String orderId) {
-        return orderCommand.delete(orderId);
+        var result = orderCommand.delete(orderId)
+                .flatMap(deleted -> outboxCommand.append(OrderEvent.deleted(orderId)).map(event -> deleted));
+        if (result.isLeft()) {
+            log.error("Delete order failed with orderId: {}", orderId);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+        return result;
+    }
+
+    /**
+     * Validates and maps every requested order. Repeated orderIds within the batch are conflicts,
+     * so that only the first occurrence is inserted.
+     */
+    private List<Either<Failure, Order>> toOrders(List<CreateOrderRequest> requests) {
+        Set<String> orderIds = new HashSet<>();
+        return requests.stream()
+                .map(item -> Validator.notNull(item, "CreateOrderRequest")
+                        .flatMap(CreateOrderRequest::validate)
+                        .flatMap(OrderRequestMapper.INSTANCE::toOrderSafely)
+                        .flatMap(order -> orderIds.add(order.getOrderId())
+                                ? Either.<Failure, Order>right(order)
+                                : Either.<Failure, Order>left(orderConflict(order.getOrderId()))))
+                .toList();
+    }
+
+    private static Failure orderConflict(String orderId) {
+        return Failure.ofDefault(ErrorCode.CONFLICT, "Order").with("orderId", orderId);
+    }
+
+    private Either<Failure, OrderCursor> decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Either.right(null);
+        }
+        return OrderCursor.decode(cursor);
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.mrngwozdz.setup.service.order.business.createorder;
 
 import com.mrngwozdz.setup.controller.model.request.CreateOrderRequest;
 import com.mrngwozdz.setup.database.entity.Order;
+import com.mrngwozdz.setup.messaging.model.OrderEvent;
 import lombok.Getter;
 import lombok.ToString;
 
@@ -10,20 +11,15 @@ import lombok.ToString;
 public class CreateOrderHelper {
 
     private CreateOrderRequest validatedCreateOrderRequest;
-    private Boolean orderDoesNotExist;
     private Order createOrder;
     private Order createdOrder;
+    private OrderEvent orderCreatedEvent;
 
     public CreateOrderHelper setValidatedCreateOrderRequest(CreateOrderRequest validatedCreateOrderRequest) {
         this.validatedCreateOrderRequest = validatedCreateOrderRequest;
         return this;
     }
 
-    public CreateOrderHelper setOrderDoesNotExist(Boolean orderDoesNotExist) {
-        this.orderDoesNotExist = orderDoesNotExist;
-        return this;
-    }
-
     public CreateOrderHelper setCreateOrder(Order createOrder) {
         this.createOrder = createOrder;
         return this;
@@ -33,4 +29,9 @@ public class CreateOrderHelper {
         this.createdOrder = createdOrder;
         return this;
     }
+
+    public CreateOrderHelper setOrderCreatedEvent(OrderEvent orderCreatedEvent) {
+        this.orderCreatedEvent = orderCreatedEvent;
+        return this;
+    }
 }
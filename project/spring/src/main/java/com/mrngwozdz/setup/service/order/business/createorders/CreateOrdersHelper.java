@@ -0,0 +1,49 @@
+package com.mrngwozdz.setup.service.order.business.createorders;
+
+import com.mrngwozdz.setup.controller.model.request.CreateOrdersRequest;
+import com.mrngwozdz.setup.database.entity.Order;
+import com.mrngwozdz.setup.messaging.model.OrderEvent;
+import com.mrngwozdz.setup.platform.result.Failure;
+import io.vavr.control.Either;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Set;
+
+@Getter
+@ToString
+public class CreateOrdersHelper {
+
+    private CreateOrdersRequest validatedCreateOrdersRequest;
+    private List<Either<Failure, Order>> mappedOrders;
+    private Set<String> createdOrderIds;
+    private List<OrderEvent> orderCreatedEvents;
+
+    public CreateOrdersHelper setValidatedCreateOrdersRequest(CreateOrdersRequest validatedCreateOrdersRequest) {
+        this.validatedCreateOrdersRequest = validatedCreateOrdersRequest;
+        return this;
+    }
+
+    public CreateOrdersHelper setMappedOrders(List<Either<Failure, Order>> mappedOrders) {
+        this.mappedOrders = mappedOrders;
+        return this;
+    }
+
+    public CreateOrdersHelper setCreatedOrderIds(Set<String> createdOrderIds) {
+        this.createdOrderIds = createdOrderIds;
+        return this;
+    }
+
+    public CreateOrdersHelper setOrderCreatedEvents(List<OrderEvent> orderCreatedEvents) {
+        this.orderCreatedEvents = orderCreatedEvents;
+        return this;
+    }
+
+    /**
+     * Orders that passed validation and mapping, in request order.
+     */
+    public List<Order> getValidOrders() {
+        return mappedOrders.stream().filter(Either::isRight).map(Either::get).toList();
+    }
+}
@@ -2,6 +2,7 @@ package com.mrngwozdz.setup.service.order.business.updateorder;
 
 import com.mrngwozdz.setup.controller.model.request.UpdateOrderRequest;
 import com.mrngwozdz.setup.database.entity.Order;
+import com.mrngwozdz.setup.messaging.model.OrderEvent;
 import lombok.Getter;
 import lombok.ToString;
 
@@ -13,6 +14,7 @@ public class UpdateOrderHelper {
     private UpdateOrderRequest validatedUpdateOrderRequest;
     private Order existingOrder;
     private Order updatedOrder;
+    private OrderEvent orderUpdatedEvent;
 
     public UpdateOrderHelper setOrderId(String orderId) {
         this.orderId = orderId;
@@ -33,4 +35,9 @@ public class UpdateOrderHelper {
         this.updatedOrder = updatedOrder;
         return this;
     }
-}
\ No newline at end of file
+
+    public UpdateOrderHelper setOrderUpdatedEvent(OrderEvent orderUpdatedEvent) {
+        this.orderUpdatedEvent = orderUpdatedEvent;
+        return this;
+    }
+}
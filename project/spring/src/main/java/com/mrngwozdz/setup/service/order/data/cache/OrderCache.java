@@ -0,0 +1,195 @@
+package com.mrngwozdz.setup.service.order.data.cache;
+
+import com.mrngwozdz.setup.database.entity.Order;
+import com.mrngwozdz.setup.properties.OrderCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded LRU cache of single orders keyed by orderId, with a time to live chosen per order status.
+ *
+ * Writers evict an order once their transaction commits, so a rolled back change never
+ * drops a valid entry and a committed one is never served stale from this instance.
+ * A load that started before an eviction is not cached, so a slow reader cannot put back
+ * the value the eviction just removed. Only found orders are cached.
+ *
+ * Cached orders are copies: callers may modify the returned entity without affecting the cache.
+ *
+ * When an {@link OrderInvalidationPublisher} is registered, committed evictions are also sent
+ * to the other instances, and while it reports the bus as unhealthy no order older than
+ * order.cache.invalidation.fallback-ttl is served.
+ */
+@Slf4j
+@Component
+public class OrderCache {
+
+    private final OrderCacheProperties properties;
+    private final Map<String, Entry> orders;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter invalidations;
+    private long generation;
+    private volatile OrderInvalidationPublisher invalidationPublisher;
+
+    public OrderCache(OrderCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.orders = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > properties.getMaxSize()) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.hits = Counter.builder("orders.cache.requests").tag("result", "hit")
+                .description("Order lookups answered by the in-process cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("orders.cache.requests").tag("result", "miss")
+                .description("Order lookups that went to the database")
+                .register(meterRegistry);
+        this.sizeEvictions = Counter.builder("orders.cache.evictions").tag("cause", "size")
+                .description("Orders evicted because the cache was full")
+                .register(meterRegistry);
+        this.expiredEvictions = Counter.builder("orders.cache.evictions").tag("cause", "expired")
+                .description("Orders evicted because their time to live passed")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("orders.cache.evictions").tag("cause", "invalidated")
+                .description("Orders evicted after a committed change")
+                .register(meterRegistry);
+        Gauge.builder("orders.cache.size", this, OrderCache::size)
+                .description("Orders currently held in the in-process cache")
+                .register(meterRegistry);
+    }
+
+    public void setInvalidationPublisher(OrderInvalidationPublisher invalidationPublisher) {
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    /**
+     * Returns a copy of the cached order, or empty on a miss.
+     * On a miss pass {@link #generation()} read before loading to {@link #put(Order, long)}.
+     */
+    public Optional<Order> get(String orderId) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        long now = System.nanoTime();
+        long maxAge = maxAgeNanos();
+        synchronized (orders) {
+            Entry entry = orders.get(orderId);
+            if (entry != null && (entry.expiresAt - now < 0 || now - entry.cachedAt > maxAge)) {
+                orders.remove(orderId);
+                expiredEvictions.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return Optional.empty();
+            }
+            hits.increment();
+            return Optional.of(copy(entry.order));
+        }
+    }
+
+    /**
+     * Current eviction generation, to be read before loading an order from the database.
+     */
+    public long generation() {
+        synchronized (orders) {
+            return generation;
+        }
+    }
+
+    /**
+     * Caches a copy of an order loaded from the database, unless an eviction happened
+     * since the given generation was read.
+     */
+    public void put(Order order, long loadedAtGeneration) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long expiresAt = now + properties.ttlFor(order.getStatus()).toNanos();
+        synchronized (orders) {
+            if (generation == loadedAtGeneration) {
+                orders.put(order.getOrderId(), new Entry(copy(order), now, expiresAt));
+            }
+        }
+    }
+
+    /**
+     * Evicts the order locally and on the other instances once the current transaction commits,
+     * or immediately without one.
+     */
+    public void evictAfterCommit(String orderId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(orderId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(orderId);
+            }
+        });
+    }
+
+    private void invalidate(String orderId) {
+        evict(orderId);
+        OrderInvalidationPublisher publisher = invalidationPublisher;
+        if (publisher != null) {
+            publisher.publish(orderId);
+        }
+    }
+
+    /**
+     * Evicts the order from this instance only.
+     */
+    public void evict(String orderId) {
+        synchronized (orders) {
+            generation++;
+            if (orders.remove(orderId) != null) {
+                invalidations.increment();
+                log.debug("Order evicted from cache: {}", orderId);
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (orders) {
+            return orders.size();
+        }
+    }
+
+    private long maxAgeNanos() {
+        OrderInvalidationPublisher publisher = invalidationPublisher;
+        if (publisher == null || publisher.isHealthy()) {
+            return Long.MAX_VALUE;
+        }
+        return properties.getInvalidation().getFallbackTtl().toNanos();
+    }
+
+    private static Order copy(Order order) {
+        return new Order(order.getId(), order.getOrderId(), order.getCustomerId(), order.getAmount(),
+                order.getProductCode(), order.getStatus(), order.getCreatedAt(), order.getProcessedAt());
+    }
+
+    private record Entry(Order order, long cachedAt, long expiresAt) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.mrngwozdz.setup.service.order.data.cache;
+
+/**
+ * Propagates order evictions committed on this instance to the caches of the other instances.
+ */
+public interface OrderInvalidationPublisher {
+
+    /**
+     * Queues the orderId for delivery to the other instances.
+     */
+    void publish(String orderId);
+
+    /**
+     * False while invalidations from other instances may be delayed or lost,
+     * in which case cached orders are served for at most the fallback TTL.
+     */
+    boolean isHealthy();
+}
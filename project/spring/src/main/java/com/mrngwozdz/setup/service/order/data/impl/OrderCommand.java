@@ -6,6 +6,8 @@ import com.mrngwozdz.setup.database.entity.Order;
 import com.mrngwozdz.setup.database.entity.Order.OrderStatus;
 import com.mrngwozdz.setup.platform.result.ErrorCode;
 import com.mrngwozdz.setup.platform.result.Failure;
+import com.mrngwozdz.setup.service.order.data.cache.OrderCache;
+import com.mrngwozdz.setup.service.order.data.repository.command.OrderBatchRepository;
 import com.mrngwozdz.setup.service.order.data.repository.command.OrderCommandRepository;
 import com.mrngwozdz.setup.service.order.mapper.OrderRequestMapper;
 import io.vavr.control.Either;
@@ -14,6 +16,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -21,13 +27,23 @@ import java.time.LocalDateTime;
 public class OrderCommand {
 
     private final OrderCommandRepository repository;
+    private final OrderBatchRepository batchRepository;
+    private final OrderCache orderCache;
 
+    /**
+     * Inserts the order with INSERT ... ON CONFLICT (order_id) DO NOTHING, so the existence check
+     * and the insert are a single atomic round trip. An existing orderId results in CONFLICT.
+     */
     public Either<Failure, Order> create(Order createOrder) {
         log.debug("Creating order with ID: {} in database", createOrder.getOrderId());
         try {
-            var savedOrder = repository.save(createOrder);
-            log.debug("Order created successfully in database: {}", savedOrder.getOrderId());
-            return Either.right(savedOrder);
+            if (!batchRepository.insertIfAbsent(createOrder)) {
+                log.debug("Order already exists in database: {}", createOrder.getOrderId());
+                return Either.left(Failure.ofDefault(ErrorCode.CONFLICT, "Order")
+                        .with("orderId", createOrder.getOrderId()));
+            }
+            log.debug("Order created successfully in database: {}", createOrder.getOrderId());
+            return Either.right(createOrder);
         } catch (Exception e) {
             log.error("Database error occurred while creating order: {}", createOrder.getOrderId(), e);
             return Either.left(
@@ -39,6 +55,31 @@ public class OrderCommand {
         }
     }
 
+    /**
+     * Inserts all orders with multi-row INSERT ... ON CONFLICT (order_id) DO NOTHING statements.
+     *
+     * @return orderIds of the inserted orders; orders whose orderId already exists are left out
+     */
+    public Either<Failure, Set<String>> createAll(List<Order> createOrders) {
+        log.debug("Creating {} orders in database", createOrders.size());
+        try {
+            var inserted = batchRepository.insertAllIfAbsent(createOrders);
+            log.debug("{} of {} orders created successfully in database", inserted.size(), createOrders.size());
+            return Either.right(inserted);
+        } catch (Exception e) {
+            log.error("Database error occurred while creating {} orders", createOrders.size(), e);
+            return Either.left(
+                    Failure.ofDefault(ErrorCode.DATABASE_ERROR)
+                            .with("exceptionType", e.getClass().getName())
+                            .with("exceptionMessage", e.getMessage())
+                            .with("orderCount", createOrders.size())
+            );
+        }
+    }
+
+    /**
+     * Updates the order and evicts it from the {@link OrderCache} once the transaction commits.
+     */
     public Either<Failure, Order> update(String orderId, UpdateOrderRequest request) {
         log.debug("Updating order: {} in database", orderId);
 
@@ -63,6 +104,7 @@ public class OrderCommand {
 
                     try {
                         Order updatedOrder = repository.save(order);
+                        orderCache.evictAfterCommit(orderId);
                         log.debug("Order updated successfully in database: {}", orderId);
                         return Either.<Failure, Order>right(updatedOrder);
                     } catch (Exception e) {
@@ -82,6 +124,61 @@ public class OrderCommand {
                 });
     }
 
+    /**
+     * Applies the non-null fields of the request with a single UPDATE ... RETURNING statement
+     * that writes only those columns, without loading the order first.
+     * Moving to COMPLETED or FAILED also sets processedAt, as in {@link #update}.
+     */
+    public Either<Failure, Order> patch(String orderId, UpdateOrderRequest request) {
+        log.debug("Patching order: {} in database", orderId);
+
+        Map<String, Object> columns = new LinkedHashMap<>();
+        if (request.customerId() != null) {
+            columns.put("customer_id", request.customerId());
+        }
+        if (request.amount() != null) {
+            columns.put("amount", request.amount());
+        }
+        if (request.productCode() != null) {
+            columns.put("product_code", request.productCode());
+        }
+        if (request.status() != null) {
+            columns.put("status", request.status().name());
+            if (request.status() == OrderStatus.COMPLETED ||
+                request.status() == OrderStatus.FAILED) {
+                columns.put("processed_at", LocalDateTime.now());
+            }
+        }
+
+        try {
+            var patchedOrder = columns.isEmpty()
+                    ? repository.findByOrderId(orderId)
+                    : batchRepository.patch(orderId, columns);
+            return patchedOrder
+                    .map(order -> {
+                        log.debug("Order patched successfully in database: {}", orderId);
+                        orderCache.evictAfterCommit(orderId);
+                        return Either.<Failure, Order>right(order);
+                    })
+                    .orElseGet(() -> {
+                        log.debug("Order not found in database for patch: {}", orderId);
+                        return Either.left(Failure.ofDefault(ErrorCode.NOT_FOUND, "Order")
+                                .with("orderId", orderId));
+                    });
+        } catch (Exception e) {
+            log.error("Database error occurred while patching order: {}", orderId, e);
+            return Either.left(
+                    Failure.ofDefault(ErrorCode.DATABASE_ERROR)
+                            .with("exceptionType", e.getClass().getName())
+                            .with("exceptionMessage", e.getMessage())
+                            .with("orderId", orderId)
+            );
+        }
+    }
+
+    /**
+     * Deletes the order and evicts it from the {@link OrderCache} once the transaction commits.
+     */
     public Either<Failure, Void> delete(String orderId) {
         log.debug("Deleting order: {} from database", orderId);
 
@@ -89,6 +186,7 @@ public class OrderCommand {
                 .map(order -> {
                     try {
                         repository.delete(order);
+                        orderCache.evictAfterCommit(orderId);
                         log.debug("Order deleted successfully from database: {}", orderId);
                         return Either.<Failure, Void>right(null);
                     } catch (Exception e) {
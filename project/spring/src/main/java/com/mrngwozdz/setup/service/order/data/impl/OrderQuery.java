@@ -1,17 +1,31 @@
 package com.mrngwozdz.setup.service.order.data.impl;
 
+import com.mrngwozdz.setup.database.config.datasource.DataSourceContextHolder;
+import com.mrngwozdz.setup.database.config.datasource.DataSourceType;
 import com.mrngwozdz.setup.database.entity.Order;
 import com.mrngwozdz.setup.platform.result.ErrorCode;
 import com.mrngwozdz.setup.platform.result.Failure;
 import com.mrngwozdz.setup.platform.result.Success;
+import com.mrngwozdz.setup.service.order.data.cache.OrderCache;
+import com.mrngwozdz.setup.service.order.data.model.OrderCursor;
+import com.mrngwozdz.setup.service.order.data.model.OrderPage;
+import com.mrngwozdz.setup.service.order.data.model.OrderPageQuery;
 import com.mrngwozdz.setup.service.order.data.repository.query.OrderQueryRepository;
 import io.vavr.control.Either;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static com.mrngwozdz.setup.service.order.data.repository.query.OrderSpecifications.*;
 
 @Slf4j
 @Service
@@ -19,25 +33,105 @@ import java.util.Optional;
 public class OrderQuery {
 
     private final OrderQueryRepository repository;
+    private final EntityManager entityManager;
+    private final OrderCache orderCache;
 
-    public Either<Failure, List<Order>> findAll() {
-        log.debug("Retrieving all orders from database");
+    /**
+     * Streams every order to the consumer row by row from a database cursor.
+     * Each entity is detached once consumed so the persistence context does not grow with the table.
+     * Must be called inside a read-only transaction.
+     *
+     * @return number of orders passed to the consumer
+     */
+    public Either<Failure, Long> forEach(Consumer<Order> consumer) {
+        log.debug("Streaming all orders from database");
+        var count = new AtomicLong();
+        try (var orders = repository.streamAll()) {
+            orders.forEach(order -> {
+                consumer.accept(order);
+                entityManager.detach(order);
+                count.incrementAndGet();
+            });
+        } catch (UncheckedIOException e) {
+            log.warn("Streaming orders interrupted after {} rows: {}", count.get(), e.getMessage());
+            return Either.left(
+                    Failure.ofDefault(ErrorCode.IO_ERROR)
+                            .with("exceptionType", e.getClass().getName())
+                            .with("exceptionMessage", e.getMessage())
+                            .with("streamedOrders", count.get())
+            );
+        } catch (Exception e) {
+            log.error("Database error occurred while streaming orders", e);
+            return Either.left(
+                    Failure.ofDefault(ErrorCode.DATABASE_ERROR)
+                            .with("exceptionType", e.getClass().getName())
+                            .with("exceptionMessage", e.getMessage())
+                            .with("streamedOrders", count.get())
+            );
+        }
+        log.debug("Successfully streamed {} orders from database", count.get());
+        return Either.right(count.get());
+    }
+
+    /**
+     * Fetches a single keyset page ordered by (created_at, id).
+     * One extra row is read to find out whether a next page exists, so memory per call
+     * is bounded by the page size regardless of the table size.
+     */
+    public Either<Failure, OrderPage> findPage(OrderPageQuery pageQuery) {
+        log.debug("Retrieving orders page from database: {}", pageQuery);
+        List<Order> orders;
         try {
-            var orders = repository.findAll();
-            log.debug("Successfully retrieved {} orders from database", orders.size());
-            return Either.right(orders);
+            orders = repository.findBy(toSpecification(pageQuery), query -> query
+                    .sortBy(Sort.by("createdAt", "id"))
+                    .limit(pageQuery.limit() + 1)
+                    .all());
         } catch (Exception e) {
-            log.error("Database error occurred while retrieving orders", e);
+            log.error("Database error occurred while retrieving orders page", e);
             return Either.left(
                     Failure.ofDefault(ErrorCode.DATABASE_ERROR)
                             .with("exceptionType", e.getClass().getName())
                             .with("exceptionMessage", e.getMessage())
             );
         }
+        if (orders.size() <= pageQuery.limit()) {
+            log.debug("Successfully retrieved last page with {} orders from database", orders.size());
+            return Either.right(new OrderPage(orders, null));
+        }
+        var page = orders.subList(0, pageQuery.limit());
+        log.debug("Successfully retrieved page with {} orders from database", page.size());
+        return Either.right(new OrderPage(page, OrderCursor.of(page.getLast())));
+    }
+
+    private Specification<Order> toSpecification(OrderPageQuery pageQuery) {
+        Specification<Order> specification = Specification.unrestricted();
+        if (pageQuery.customerId() != null) {
+            specification = specification.and(hasCustomerId(pageQuery.customerId()));
+        }
+        if (pageQuery.status() != null) {
+            specification = specification.and(hasStatus(pageQuery.status()));
+        }
+        if (pageQuery.after() != null) {
+            specification = specification.and(after(pageQuery.after()));
+        }
+        return specification;
     }
 
+    /**
+     * Reads through the {@link OrderCache}; orders loaded from the WRITE DataSource are cached.
+     * Orders loaded from the READ DataSource are returned but not cached: evictions happen when writes
+     * commit on the primary, so a replica lagging behind an eviction would put the evicted state back
+     * for the whole time to live.
+     */
     public Either<Failure, Order> findById(String orderId) {
+        var cachedOrder = orderCache.get(orderId);
+        if (cachedOrder.isPresent()) {
+            log.debug("Order found in cache: {}", orderId);
+            return Either.right(cachedOrder.get());
+        }
+
         log.debug("Retrieving order with ID: {} from database", orderId);
+        long cacheGeneration = orderCache.generation();
         Optional<Order> orderOptional;
         try {
             orderOptional = repository.findByOrderId(orderId);
@@ -52,6 +146,9 @@ public class OrderQuery {
         }
         return orderOptional.map(order -> {
                     log.debug("Order found in database: {}", orderId);
+                    if (DataSourceContextHolder.getDataSourceType() == DataSourceType.WRITE) {
+                        orderCache.put(order, cacheGeneration);
+                    }
                     return Either.<Failure, Order>right(order);
                 })
                 .orElseGet(() -> {
@@ -60,27 +157,4 @@ public class OrderQuery {
                             .with("orderId", orderId));
                 });
     }
-
-    public Either<Failure, Boolean> ensureOrderDoesNotExist(String orderId) {
-        log.debug("Checking if order exists in database: {}", orderId);
-        boolean exists;
-        try {
-            exists = repository.existsByOrderId(orderId);
-        } catch (Exception e) {
-            log.error("Database error occurred while checking order existence: {}", orderId, e);
-            return Either.left(
-                    Failure.ofDefault(ErrorCode.DATABASE_ERROR)
-                            .with("exceptionType", e.getClass().getName())
-                            .with("exceptionMessage", e.getMessage())
-                            .with("orderId", orderId)
-            );
-        }
-        if (exists) {
-            log.debug("Order already exists in database: {}", orderId);
-            return Either.left(Failure.ofDefault(ErrorCode.CONFLICT, "Order")
-                    .with("orderId", orderId));
-        }
-        log.debug("Order does not exist in database: {}", orderId);
-        return Either.right(true);
-    }
 }
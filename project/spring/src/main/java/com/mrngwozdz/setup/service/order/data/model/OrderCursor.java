@@ -0,0 +1,47 @@
+package com.mrngwozdz.setup.service.order.data.model;
+
+import com.mrngwozdz.setup.database.entity.Order;
+import com.mrngwozdz.setup.platform.result.ErrorCode;
+import com.mrngwozdz.setup.platform.result.Failure;
+import io.vavr.control.Either;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset position in the orders table ordered by (created_at, id).
+ * Encoded as an opaque URL-safe token so clients cannot depend on its structure.
+ */
+public record OrderCursor(
+        LocalDateTime createdAt,
+        Long id
+) {
+    private static final String SEPARATOR = "|";
+
+    public static OrderCursor of(Order order) {
+        return new OrderCursor(order.getCreatedAt(), order.getId());
+    }
+
+    public String encode() {
+        var raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Either<Failure, OrderCursor> decode(String token) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                return Either.left(Failure.of(ErrorCode.VALIDATION, "Invalid cursor"));
+            }
+            return Either.right(new OrderCursor(
+                    LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                    Long.parseLong(raw.substring(separatorIndex + 1))
+            ));
+        } catch (Exception e) {
+            return Either.left(Failure.of(ErrorCode.VALIDATION, "Invalid cursor")
+                    .with("cursor", token));
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.mrngwozdz.setup.service.order.data.model;
+
+import com.mrngwozdz.setup.database.entity.Order;
+
+import java.util.List;
+
+/**
+ * Single page of orders with the cursor of the following page (null when this is the last page).
+ */
+public record OrderPage(
+        List<Order> orders,
+        OrderCursor next
+) {
+}
@@ -0,0 +1,19 @@
+package com.mrngwozdz.setup.service.order.data.model;
+
+import com.mrngwozdz.setup.database.entity.Order.OrderStatus;
+
+/**
+ * Criteria for fetching a single page of orders.
+ *
+ * @param customerId optional customer filter
+ * @param status optional status filter
+ * @param after position of the last row of the previous page, null for the first page
+ * @param limit maximum number of orders in the page
+ */
+public record OrderPageQuery(
+        String customerId,
+        OrderStatus status,
+        OrderCursor after,
+        int limit
+) {
+}
@@ -0,0 +1,252 @@
+package com.mrngwozdz.setup.service.order.data.repository.command;
+
+import com.mrngwozdz.setup.database.entity.Order;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+/**
+ * JDBC repository for writes on the orders table that Hibernate cannot issue in a single statement.
+ * Order ids use IDENTITY generation, which disables Hibernate insert batching,
+ * so multi-row writes go through JDBC batches instead.
+ * Participates in the surrounding JPA transaction (routed by the current DataSource context).
+ *
+ * Updates bypass Hibernate, so the updated orders are evicted from the second-level cache
+ * once the transaction commits.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderBatchRepository {
+
+    private static final String INSERT_IF_ABSENT_SQL = """
+            INSERT INTO orders (order_id, customer_id, amount, product_code, status, created_at, processed_at)
+            VALUES (:orderId, :customerId, :amount, :productCode, :status, :createdAt, :processedAt)
+            ON CONFLICT (order_id) DO NOTHING
+            RETURNING id
+            """;
+
+    // Every column is bound as one array parameter, so a chunk of any size is a single statement
+    // with seven parameters. Values travel as text and are cast server-side.
+    private static final String INSERT_ALL_IF_ABSENT_SQL = """
+            INSERT INTO orders (order_id, customer_id, amount, product_code, status, created_at, processed_at)
+            SELECT * FROM unnest(
+                    CAST(:orderIds AS VARCHAR[]),
+                    CAST(:customerIds AS VARCHAR[]),
+                    CAST(CAST(:amounts AS VARCHAR[]) AS DECIMAL[]),
+                    CAST(:productCodes AS VARCHAR[]),
+                    CAST(:statuses AS VARCHAR[]),
+                    CAST(CAST(:createdAts AS VARCHAR[]) AS TIMESTAMP[]),
+                    CAST(CAST(:processedAts AS VARCHAR[]) AS TIMESTAMP[]))
+            ON CONFLICT (order_id) DO NOTHING
+            RETURNING id, order_id
+            """;
+
+    /**
+     * Rows per multi-row INSERT statement.
+     */
+    private static final int INSERT_CHUNK_SIZE = 1000;
+
+    private static final String PATCH_SQL = """
+            UPDATE orders SET %s WHERE order_id = :orderId
+            RETURNING id, order_id, customer_id, amount, product_code, status, created_at, processed_at
+            """;
+
+    private static final RowMapper<Order> ORDER_ROW_MAPPER = (rs, rowNum) -> new Order(
+            rs.getLong("id"),
+            rs.getString("order_id"),
+            rs.getString("customer_id"),
+            rs.getBigDecimal("amount"),
+            rs.getString("product_code"),
+            Order.OrderStatus.valueOf(rs.getString("status")),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            rs.getTimestamp("processed_at") != null ? rs.getTimestamp("processed_at").toLocalDateTime() : null
+    );
+
+    private static final String RESTART_FAILED_SQL = """
+            UPDATE orders SET status = 'PROCESSING', processed_at = NULL
+            WHERE order_id = :orderId AND status = 'FAILED'
+            RETURNING id, order_id, customer_id, amount, product_code, status, created_at, processed_at
+            """;
+
+    private static final String RESTART_ALL_FAILED_SQL = """
+            UPDATE orders SET status = 'PROCESSING', processed_at = NULL
+            WHERE order_id = ANY(CAST(:orderIds AS VARCHAR[])) AND status = 'FAILED'
+            RETURNING id, order_id, customer_id, amount, product_code, status, created_at, processed_at
+            """;
+
+    private static final String UPDATE_STATUS_SQL = """
+            UPDATE orders SET status = :status, processed_at = :processedAt WHERE id = :id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Inserts the order unless one with the same orderId already exists, in a single round trip.
+     * Assigns the generated id to the given entity when a row is inserted.
+     *
+     * @return false if an order with the same orderId already exists
+     */
+    public boolean insertIfAbsent(Order order) {
+        List<Long> ids = jdbcTemplate.queryForList(INSERT_IF_ABSENT_SQL, toInsertParameters(order), Long.class);
+        if (ids.isEmpty()) {
+            return false;
+        }
+        order.setId(ids.get(0));
+        return true;
+    }
+
+    /**
+     * Inserts the orders with multi-row INSERT ... ON CONFLICT (order_id) DO NOTHING statements
+     * of up to {@value #INSERT_CHUNK_SIZE} rows each and assigns the generated ids to the inserted entities.
+     *
+     * @return orderIds of the inserted orders; orders whose orderId already exists are left out
+     */
+    public Set<String> insertAllIfAbsent(List<Order> orders) {
+        Set<String> inserted = new HashSet<>();
+        for (int from = 0; from < orders.size(); from += INSERT_CHUNK_SIZE) {
+            var chunk = orders.subList(from, Math.min(from + INSERT_CHUNK_SIZE, orders.size()));
+            Map<String, Order> byOrderId = new HashMap<>();
+            chunk.forEach(order -> byOrderId.putIfAbsent(order.getOrderId(), order));
+            jdbcTemplate.query(INSERT_ALL_IF_ABSENT_SQL, toArrayParameters(chunk), rs -> {
+                String orderId = rs.getString("order_id");
+                byOrderId.get(orderId).setId(rs.getLong("id"));
+                inserted.add(orderId);
+            });
+        }
+        return inserted;
+    }
+
+    /**
+     * Updates only the given columns of the order in a single UPDATE ... RETURNING statement,
+     * without loading the order first. Columns absent from the map keep their values.
+     *
+     * @param columns column name to new value, must not be empty
+     * @return the order after the update, or empty if no order has the given orderId
+     */
+    public Optional<Order> patch(String orderId, Map<String, Object> columns) {
+        var parameters = new MapSqlParameterSource("orderId", orderId);
+        var assignments = new StringJoiner(", ");
+        columns.forEach((column, value) -> {
+            assignments.add(column + " = :" + column);
+            parameters.addValue(column, value, value instanceof LocalDateTime ? Types.TIMESTAMP : SqlTypeValue.TYPE_UNKNOWN);
+        });
+        var patchedOrder = jdbcTemplate.query(PATCH_SQL.formatted(assignments), parameters, ORDER_ROW_MAPPER)
+                .stream()
+                .findFirst();
+        patchedOrder.ifPresent(order -> evictAfterCommit(List.of(order.getId())));
+        return patchedOrder;
+    }
+
+    /**
+     * Moves a FAILED order back to PROCESSING in a single conditional UPDATE, so only one
+     * of several concurrent callers restarts it.
+     *
+     * @return the restarted order, or empty if no FAILED order has the given orderId
+     */
+    public Optional<Order> restartFailed(String orderId) {
+        var restartedOrder = jdbcTemplate.query(RESTART_FAILED_SQL, new MapSqlParameterSource("orderId", orderId), ORDER_ROW_MAPPER)
+                .stream()
+                .findFirst();
+        restartedOrder.ifPresent(order -> evictAfterCommit(List.of(order.getId())));
+        return restartedOrder;
+    }
+
+    /**
+     * Batch variant of {@link #restartFailed(String)}: moves the FAILED orders among the given orderIds
+     * back to PROCESSING in a single conditional UPDATE.
+     *
+     * @return the restarted orders; orderIds with no FAILED order are left out
+     */
+    public List<Order> restartAllFailed(Collection<String> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        var parameters = new MapSqlParameterSource("orderIds", orderIds.toArray(String[]::new));
+        var restartedOrders = jdbcTemplate.query(RESTART_ALL_FAILED_SQL, parameters, ORDER_ROW_MAPPER);
+        evictAfterCommit(restartedOrders.stream().map(Order::getId).toList());
+        return restartedOrders;
+    }
+
+    /**
+     * Writes status and processedAt of all orders in a single JDBC batch.
+     */
+    public void updateStatuses(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        var parameters = orders.stream()
+                .map(order -> new MapSqlParameterSource()
+                        .addValue("id", order.getId())
+                        .addValue("status", order.getStatus().name())
+                        .addValue("processedAt", order.getProcessedAt(), Types.TIMESTAMP))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, parameters);
+        evictAfterCommit(orders.stream().map(Order::getId).toList());
+    }
+
+    private void evictAfterCommit(List<Long> ids) {
+        Cache cache = entityManagerFactory.getCache();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ids.forEach(id -> cache.evict(Order.class, id));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ids.forEach(id -> cache.evict(Order.class, id));
+            }
+        });
+    }
+
+    private static SqlParameterSource toArrayParameters(List<Order> orders) {
+        return new MapSqlParameterSource()
+                .addValue("orderIds", column(orders, Order::getOrderId))
+                .addValue("customerIds", column(orders, Order::getCustomerId))
+                .addValue("amounts", column(orders, order -> order.getAmount().toPlainString()))
+                .addValue("productCodes", column(orders, Order::getProductCode))
+                .addValue("statuses", column(orders, order -> order.getStatus().name()))
+                .addValue("createdAts", column(orders, order -> toText(order.getCreatedAt())))
+                .addValue("processedAts", column(orders, order -> toText(order.getProcessedAt())));
+    }
+
+    private static String[] column(List<Order> orders, Function<Order, String> getter) {
+        return orders.stream().map(getter).toArray(String[]::new);
+    }
+
+    private static String toText(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.truncatedTo(ChronoUnit.MICROS).toString() : null;
+    }
+
+    private static SqlParameterSource toInsertParameters(Order order) {
+        return new MapSqlParameterSource()
+                .addValue("orderId", order.getOrderId())
+                .addValue("customerId", order.getCustomerId())
+                .addValue("amount", order.getAmount())
+                .addValue("productCode", order.getProductCode())
+                .addValue("status", order.getStatus().name())
+                .addValue("createdAt", order.getCreatedAt(), Types.TIMESTAMP)
+                .addValue("processedAt", order.getProcessedAt(), Types.TIMESTAMP);
+    }
+}
@@ -2,12 +2,10 @@ package com.mrngwozdz.setup.service.order.data.repository.command;
 
 import com.mrngwozdz.setup.database.config.repository.WriteRepository;
 import com.mrngwozdz.setup.database.entity.Order;
+import com.mrngwozdz.setup.service.order.data.repository.query.OrderNaturalIdLookup;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
-
 @Repository
-public interface OrderCommandRepository extends WriteRepository<Order, Long> {
-    Optional<Order> findByOrderId(String orderId);
+public interface OrderCommandRepository extends WriteRepository<Order, Long>, OrderNaturalIdLookup {
     boolean existsByOrderId(String orderId);
 }
\ No newline at end of file
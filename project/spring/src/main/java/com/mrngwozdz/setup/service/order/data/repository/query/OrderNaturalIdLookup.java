@@ -0,0 +1,15 @@
+package com.mrngwozdz.setup.service.order.data.repository.query;
+
+import com.mrngwozdz.setup.database.entity.Order;
+
+import java.util.Optional;
+
+/**
+ * Repository fragment loading orders by their orderId natural id, so lookups go through
+ * the second-level natural id and entity caches when they are enabled.
+ * Shared by the query and command repositories.
+ */
+public interface OrderNaturalIdLookup {
+
+    Optional<Order> findByOrderId(String orderId);
+}
@@ -0,0 +1,21 @@
+package com.mrngwozdz.setup.service.order.data.repository.query;
+
+import com.mrngwozdz.setup.database.entity.Order;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class OrderNaturalIdLookupImpl implements OrderNaturalIdLookup {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<Order> findByOrderId(String orderId) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Order.class)
+                .loadOptional(orderId);
+    }
+}
@@ -2,13 +2,35 @@ package com.mrngwozdz.setup.service.order.data.repository.query;
 
 import com.mrngwozdz.setup.database.config.repository.ReadOnlyRepository;
 import com.mrngwozdz.setup.database.entity.Order;
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface OrderQueryRepository extends ReadOnlyRepository<Order, Long> {
-    Optional<Order> findByOrderId(String orderId);
+public interface OrderQueryRepository extends ReadOnlyRepository<Order, Long>, JpaSpecificationExecutor<Order>,
+        OrderNaturalIdLookup {
+
+    /**
+     * Number of rows the PostgreSQL driver fetches per round trip when streaming.
+     */
+    String STREAM_FETCH_SIZE = "500";
+
     boolean existsByOrderId(String orderId);
-}
\ No newline at end of file
+
+    /**
+     * Streams all orders through a forward-only server-side cursor.
+     * Must be consumed inside a transaction and closed after use.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select o from Order o order by o.id")
+    Stream<Order> streamAll();
+}
@@ -0,0 +1,43 @@
+package com.mrngwozdz.setup.service.order.data.repository.query;
+
+import com.mrngwozdz.setup.database.entity.Order;
+import com.mrngwozdz.setup.database.entity.Order.OrderStatus;
+import com.mrngwozdz.setup.service.order.data.model.OrderCursor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Criteria building blocks for order queries.
+ * Only non-null filters should be combined so the generated SQL stays index friendly.
+ */
+public final class OrderSpecifications {
+
+    private OrderSpecifications() {}
+
+    public static Specification<Order> hasCustomerId(String customerId) {
+        return (root, query, cb) -> cb.equal(root.get("customerId"), customerId);
+    }
+
+    public static Specification<Order> hasStatus(OrderStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    /**
+     * Keyset predicate: (created_at, id) > (cursor.createdAt, cursor.id).
+     * The leading created_at >= bound lets PostgreSQL start an index range scan at the cursor
+     * instead of filtering every preceding row.
+     */
+    public static Specification<Order> after(OrderCursor cursor) {
+        return (root, query, cb) -> {
+            var createdAt = root.<LocalDateTime>get("createdAt");
+            return cb.and(
+                    cb.greaterThanOrEqualTo(createdAt, cursor.createdAt()),
+                    cb.or(
+                            cb.greaterThan(createdAt, cursor.createdAt()),
+                            cb.greaterThan(root.get("id"), cursor.id())
+                    )
+            );
+        };
+    }
+}
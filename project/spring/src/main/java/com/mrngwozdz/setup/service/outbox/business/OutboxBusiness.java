@@ -0,0 +1,48 @@
+package com.mrngwozdz.setup.service.outbox.business;
+
+import com.mrngwozdz.setup.database.config.datasource.WriteOperation;
+import com.mrngwozdz.setup.messaging.sender.OutboxPublisher;
+import com.mrngwozdz.setup.platform.result.Failure;
+import com.mrngwozdz.setup.service.outbox.data.impl.OutboxCommand;
+import com.mrngwozdz.setup.service.outbox.data.model.OutboxMessage;
+import io.vavr.control.Either;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Business layer draining the order outbox.
+ * Uses the WRITE DataSource for reads as well, since rows must be seen as soon as they are committed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxBusiness {
+
+    private final OutboxCommand outboxCommand;
+    private final OutboxPublisher outboxPublisher;
+
+    /**
+     * Locks the next batch, publishes it and deletes the rows the broker confirmed.
+     * Unconfirmed rows are unlocked on commit and picked up by the next poll, so delivery is at-least-once.
+     */
+    @WriteOperation
+    @Transactional
+    public Either<Failure, List<OutboxMessage>> relayBatch(int limit) {
+        return outboxCommand.lockBatch(limit)
+                .map(outboxPublisher::publish)
+                .flatMap(published -> outboxCommand.deleteAll(published.stream().map(OutboxMessage::id).toList())
+                        .map(deleted -> published));
+    }
+
+    @WriteOperation
+    @Transactional(readOnly = true)
+    public Either<Failure, Optional<LocalDateTime>> findOldestPendingCreatedAt() {
+        return outboxCommand.findOldestCreatedAt();
+    }
+}
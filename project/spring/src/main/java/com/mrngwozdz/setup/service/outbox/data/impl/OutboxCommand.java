@@ -0,0 +1,105 @@
+package com.mrngwozdz.setup.service.outbox.data.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mrngwozdz.setup.messaging.model.OrderEvent;
+import com.mrngwozdz.setup.platform.result.ErrorCode;
+import com.mrngwozdz.setup.platform.result.Failure;
+import com.mrngwozdz.setup.properties.RabbitMQProperties;
+import com.mrngwozdz.setup.service.outbox.data.model.OutboxMessage;
+import com.mrngwozdz.setup.service.outbox.data.repository.OutboxRepository;
+import io.vavr.control.Either;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxCommand {
+
+    private final OutboxRepository repository;
+    private final RabbitMQProperties rabbitMQProperties;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Stores the event in the outbox as part of the current transaction.
+     * It is published by the relay only once that transaction commits.
+     */
+    public Either<Failure, OrderEvent> append(OrderEvent event) {
+        log.debug("Appending {} event for order: {} to outbox", event.getEventType(), event.getOrderId());
+        try {
+            repository.insert(event.getOrderId(), event.getEventType().name(),
+                    rabbitMQProperties.getOrderEvents().getRoutingKey(),
+                    objectMapper.writeValueAsString(event), LocalDateTime.now());
+            return Either.right(event);
+        } catch (Exception e) {
+            log.error("Database error occurred while appending {} event for order: {} to outbox",
+                    event.getEventType(), event.getOrderId(), e);
+            return Either.left(
+                    Failure.ofDefault(ErrorCode.DATABASE_ERROR)
+                            .with("exceptionType", e.getClass().getName())
+                            .with("exceptionMessage", e.getMessage())
+                            .with("orderId", event.getOrderId())
+            );
+        }
+    }
+
+    /**
+     * Stores all events in the outbox with a single JDBC batch as part of the current transaction.
+     */
+    public Either<Failure, List<OrderEvent>> appendAll(List<OrderEvent> events) {
+        log.debug("Appending {} events to outbox", events.size());
+        try {
+            var createdAt = LocalDateTime.now();
+            var routingKey = rabbitMQProperties.getOrderEvents().getRoutingKey();
+            List<OutboxMessage> messages = new ArrayList<>(events.size());
+            for (OrderEvent event : events) {
+                messages.add(new OutboxMessage(null, event.getOrderId(), event.getEventType().name(), routingKey,
+                        objectMapper.writeValueAsString(event), createdAt));
+            }
+            repository.insertAll(messages);
+            return Either.right(events);
+        } catch (Exception e) {
+            log.error("Database error occurred while appending {} events to outbox", events.size(), e);
+            return Either.left(databaseError(e));
+        }
+    }
+
+    public Either<Failure, List<OutboxMessage>> lockBatch(int limit) {
+        try {
+            return Either.right(repository.lockBatch(limit));
+        } catch (Exception e) {
+            log.error("Database error occurred while locking outbox batch", e);
+            return Either.left(databaseError(e));
+        }
+    }
+
+    public Either<Failure, Integer> deleteAll(List<Long> ids) {
+        try {
+            return Either.right(repository.deleteAll(ids));
+        } catch (Exception e) {
+            log.error("Database error occurred while deleting {} outbox rows", ids.size(), e);
+            return Either.left(databaseError(e));
+        }
+    }
+
+    public Either<Failure, Optional<LocalDateTime>> findOldestCreatedAt() {
+        try {
+            return Either.right(repository.findOldestCreatedAt());
+        } catch (Exception e) {
+            log.error("Database error occurred while reading oldest outbox row", e);
+            return Either.left(databaseError(e));
+        }
+    }
+
+    private static Failure databaseError(Exception e) {
+        return Failure.ofDefault(ErrorCode.DATABASE_ERROR)
+                .with("exceptionType", e.getClass().getName())
+                .with("exceptionMessage", e.getMessage());
+    }
+}
@@ -0,0 +1,16 @@
+package com.mrngwozdz.setup.service.outbox.data.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending order_outbox row. The payload is the JSON body published as-is.
+ */
+public record OutboxMessage(
+        Long id,
+        String aggregateId,
+        String eventType,
+        String routingKey,
+        String payload,
+        LocalDateTime createdAt
+) {
+}
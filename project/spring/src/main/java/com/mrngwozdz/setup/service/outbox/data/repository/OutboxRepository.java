@@ -0,0 +1,108 @@
+package com.mrngwozdz.setup.service.outbox.data.repository;
+
+import com.mrngwozdz.setup.service.outbox.data.model.OutboxMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC repository for the order_outbox table.
+ * Participates in the surrounding JPA transaction (routed by the current DataSource context).
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO order_outbox (aggregate_id, event_type, routing_key, payload, created_at)
+            VALUES (:aggregateId, :eventType, :routingKey, :payload, :createdAt)
+            """;
+
+    // SKIP LOCKED lets several relay instances drain the table concurrently without
+    // waiting on each other's rows
+    private static final String LOCK_BATCH_SQL = """
+            SELECT id, aggregate_id, event_type, routing_key, payload, created_at
+            FROM order_outbox
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String DELETE_SQL = """
+            DELETE FROM order_outbox WHERE id IN (:ids)
+            """;
+
+    private static final String OLDEST_CREATED_AT_SQL = """
+            SELECT created_at FROM order_outbox ORDER BY id LIMIT 1
+            """;
+
+    private static final RowMapper<OutboxMessage> ROW_MAPPER = (rs, rowNum) -> new OutboxMessage(
+            rs.getLong("id"),
+            rs.getString("aggregate_id"),
+            rs.getString("event_type"),
+            rs.getString("routing_key"),
+            rs.getString("payload"),
+            rs.getTimestamp("created_at").toLocalDateTime()
+    );
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void insert(String aggregateId, String eventType, String routingKey, String payload,
+                       LocalDateTime createdAt) {
+        jdbcTemplate.update(INSERT_SQL, toInsertParameters(aggregateId, eventType, routingKey, payload, createdAt));
+    }
+
+    /**
+     * Inserts all rows in a single JDBC batch.
+     */
+    public void insertAll(List<OutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        var parameters = messages.stream()
+                .map(message -> toInsertParameters(message.aggregateId(), message.eventType(), message.routingKey(),
+                        message.payload(), message.createdAt()))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_SQL, parameters);
+    }
+
+    /**
+     * Locks up to limit oldest rows not already locked by another transaction.
+     * The locks are held until the surrounding transaction ends.
+     */
+    public List<OutboxMessage> lockBatch(int limit) {
+        return jdbcTemplate.query(LOCK_BATCH_SQL, new MapSqlParameterSource("limit", limit), ROW_MAPPER);
+    }
+
+    public int deleteAll(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource("ids", ids));
+    }
+
+    public Optional<LocalDateTime> findOldestCreatedAt() {
+        return jdbcTemplate.query(OLDEST_CREATED_AT_SQL, (rs, rowNum) -> rs.getTimestamp("created_at"))
+                .stream()
+                .findFirst()
+                .map(Timestamp::toLocalDateTime);
+    }
+
+    private static MapSqlParameterSource toInsertParameters(String aggregateId, String eventType, String routingKey,
+                                                            String payload, LocalDateTime createdAt) {
+        return new MapSqlParameterSource()
+                .addValue("aggregateId", aggregateId)
+                .addValue("eventType", eventType)
+                .addValue("routingKey", routingKey)
+                .addValue("payload", payload)
+                .addValue("createdAt", createdAt, Types.TIMESTAMP);
+    }
+}
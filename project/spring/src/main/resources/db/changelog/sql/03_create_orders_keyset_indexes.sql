@@ -0,0 +1,4 @@
+-- Create indexes supporting keyset pagination ordered by (created_at, id)
+CREATE INDEX idx_orders_created_at_id ON orders(created_at, id);
+CREATE INDEX idx_orders_customer_id_created_at_id ON orders(customer_id, created_at, id);
+CREATE INDEX idx_orders_status_created_at_id ON orders(status, created_at, id);
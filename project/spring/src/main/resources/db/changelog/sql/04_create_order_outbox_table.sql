@@ -0,0 +1,11 @@
+-- Create transactional outbox for order events.
+-- Rows are written in the same transaction as the order change and deleted once the
+-- relay has a publisher confirm for them, so the table only holds unpublished events.
+CREATE TABLE order_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_id VARCHAR(255) NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    routing_key VARCHAR(255) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
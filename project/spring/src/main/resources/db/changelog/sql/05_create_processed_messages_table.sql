@@ -0,0 +1,13 @@
+-- Create idempotency store for consumed messages, keyed by consumer and message key
+CREATE TABLE processed_messages (
+    consumer VARCHAR(100) NOT NULL,
+    message_id VARCHAR(255) NOT NULL,
+    processed_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (consumer, message_id)
+);
+
+CREATE INDEX idx_processed_messages_processed_at ON processed_messages(processed_at);
+
+-- Orders created before the store existed count as processed order messages
+INSERT INTO processed_messages (consumer, message_id, processed_at)
+SELECT 'order', order_id, created_at FROM orders;
@@ -64,6 +64,9 @@ public abstract class AbstractIntegrationTest {
         registry.add("spring.datasource.query.password", postgres::getPassword);
         registry.add("spring.jpa.show-sql", () -> false);
         registry.add("spring.security.keycloak.enabled", () -> false);
+        // cleanup.sql removes orders and markers behind the caches' back and tests reuse orderIds
+        registry.add("order.cache.enabled", () -> false);
+        registry.add("idempotency.cache.enabled", () -> false);
     }
 
 }
@@ -1,10 +1,13 @@
 package com.mrngwozdz.setup.controller;
 
 import com.mrngwozdz.setup.controller.model.request.CreateOrderRequest;
+import com.mrngwozdz.setup.controller.model.request.CreateOrdersRequest;
 import com.mrngwozdz.setup.controller.model.request.UpdateOrderRequest;
 import io.restassured.http.ContentType;
 import io.restassured.response.ValidatableResponse;
 
+import java.util.Map;
+
 import static io.restassured.RestAssured.given;
 
 public class OrderControllerUtils {
@@ -27,6 +30,15 @@ public class OrderControllerUtils {
                 .then();
     }
 
+    public static ValidatableResponse createOrders(CreateOrdersRequest request) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/orders:batch")
+                .then();
+    }
+
     public static ValidatableResponse getOrderById(String orderId) {
         return given()
                 .contentType(ContentType.JSON)
@@ -43,6 +55,23 @@ public class OrderControllerUtils {
                 .then();
     }
 
+    public static ValidatableResponse getOrders(Map<String, ?> queryParams) {
+        return given()
+                .contentType(ContentType.JSON)
+                .queryParams(queryParams)
+                .when()
+                .get("/orders")
+                .then();
+    }
+
+    public static ValidatableResponse exportOrders() {
+        return given()
+                .accept("application/x-ndjson")
+                .when()
+                .get("/orders/export")
+                .then();
+    }
+
     public static ValidatableResponse updateOrder(String orderId, UpdateOrderRequest request) {
         return given()
                 .contentType(ContentType.JSON)
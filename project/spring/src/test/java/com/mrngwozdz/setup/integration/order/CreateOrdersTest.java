@@ -0,0 +1,86 @@
+package com.mrngwozdz.setup.integration.order;
+
+import com.mrngwozdz.setup.AbstractIntegrationTest;
+import com.mrngwozdz.setup.controller.model.dto.CreateOrderResult;
+import com.mrngwozdz.setup.controller.model.request.CreateOrderRequest;
+import com.mrngwozdz.setup.controller.model.request.CreateOrdersRequest;
+import com.mrngwozdz.setup.controller.model.response.CreateOrdersResponse;
+import com.mrngwozdz.setup.controller.model.response.OrderResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.mrngwozdz.setup.controller.OrderControllerUtils.createOrders;
+import static com.mrngwozdz.setup.controller.OrderControllerUtils.getOrderById;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CreateOrdersTest extends AbstractIntegrationTest {
+
+    @Test
+    void shouldCreateAllOrdersInBatch() {
+        // given - more orders than fit in a single multi-row INSERT
+        var orders = IntStream.rangeClosed(1, 2500)
+                .mapToObj(i -> new CreateOrderRequest("ORD-" + i, "CUST-" + (i % 10), new BigDecimal("10.00"), "PROD-1"))
+                .toList();
+
+        // when
+        var response = createOrders(new CreateOrdersRequest(orders))
+                .statusCode(HttpStatus.OK.value())
+                .extract()
+                .as(CreateOrdersResponse.class);
+
+        // then
+        assertThat(response.created()).isEqualTo(2500);
+        assertThat(response.failed()).isZero();
+        assertThat(response.results()).extracting(CreateOrderResult::status).containsOnly(HttpStatus.CREATED.value());
+
+        var order = getOrderById("ORD-2500")
+                .statusCode(HttpStatus.OK.value())
+                .extract()
+                .as(OrderResponse.class);
+        assertThat(order.order().customerId()).isEqualTo("CUST-0");
+        assertThat(order.order().amount()).isEqualByComparingTo(new BigDecimal("10.00"));
+    }
+
+    @Test
+    @Sql(scripts = {"/sql/order/create_order_test_init.sql"})
+    void shouldReportInvalidAndDuplicateOrdersIndividually() {
+        // given - ORD-999 already exists in database (from SQL init script)
+        var orders = List.of(
+                new CreateOrderRequest("ORD-1", "CUST-1", new BigDecimal("10.00"), "PROD-1"),
+                new CreateOrderRequest("INVALID", "CUST-1", new BigDecimal("10.00"), "PROD-1"),
+                new CreateOrderRequest("ORD-999", "CUST-1", new BigDecimal("10.00"), "PROD-1"),
+                new CreateOrderRequest("ORD-1", "CUST-2", new BigDecimal("20.00"), "PROD-2"),
+                new CreateOrderRequest("ORD-2", "CUST-2", new BigDecimal("20.00"), "PROD-2")
+        );
+
+        // when
+        var response = createOrders(new CreateOrdersRequest(orders))
+                .statusCode(HttpStatus.OK.value())
+                .extract()
+                .as(CreateOrdersResponse.class);
+
+        // then
+        assertThat(response.created()).isEqualTo(2);
+        assertThat(response.failed()).isEqualTo(3);
+        assertThat(response.results()).extracting(CreateOrderResult::status).containsExactly(
+                HttpStatus.CREATED.value(),
+                HttpStatus.BAD_REQUEST.value(),
+                HttpStatus.CONFLICT.value(),
+                HttpStatus.CONFLICT.value(),
+                HttpStatus.CREATED.value()
+        );
+        getOrderById("ORD-1").statusCode(HttpStatus.OK.value());
+        getOrderById("ORD-2").statusCode(HttpStatus.OK.value());
+    }
+
+    @Test
+    void shouldReturnBadRequestForEmptyBatch() {
+        createOrders(new CreateOrdersRequest(List.of()))
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+}
@@ -0,0 +1,82 @@
+package com.mrngwozdz.setup.integration.order;
+
+import com.mrngwozdz.setup.AbstractIntegrationTest;
+import com.mrngwozdz.setup.controller.model.dto.ExportError;
+import com.mrngwozdz.setup.controller.model.dto.OrderData;
+import com.mrngwozdz.setup.database.entity.Order;
+import com.mrngwozdz.setup.platform.result.ErrorCode;
+import com.mrngwozdz.setup.platform.result.Failure;
+import com.mrngwozdz.setup.service.order.data.impl.OrderQuery;
+import io.vavr.control.Either;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static com.mrngwozdz.setup.controller.OrderControllerUtils.exportOrders;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+class ExportOrdersTest extends AbstractIntegrationTest {
+
+    @MockitoSpyBean
+    private OrderQuery orderQuery;
+
+    @Test
+    @Sql(scripts = {"/sql/order/get_orders_test_init.sql"})
+    void shouldStreamEveryOrderAsOneJsonLine() throws Exception {
+        // when
+        var body = exportOrders()
+                .statusCode(HttpStatus.OK.value())
+                .contentType("application/x-ndjson")
+                .extract()
+                .asString();
+
+        // then
+        var lines = body.lines().toList();
+        assertThat(lines).hasSize(5);
+        assertThat(objectMapper.readValue(lines.getFirst(), OrderData.class).orderId()).isEqualTo("ORD-101");
+        assertThat(objectMapper.readValue(lines.getLast(), OrderData.class).orderId()).isEqualTo("ORD-105");
+    }
+
+    @Test
+    void shouldReturnEmptyBodyWhenThereAreNoOrders() {
+        var body = exportOrders()
+                .statusCode(HttpStatus.OK.value())
+                .extract()
+                .asString();
+
+        assertThat(body).isEmpty();
+    }
+
+    @Test
+    void shouldEndStreamWithErrorLineWhenDatabaseFailsMidway() throws Exception {
+        // given - the cursor fails after the first order was written
+        doAnswer(invocation -> {
+            Consumer<Order> consumer = invocation.getArgument(0);
+            consumer.accept(new Order(1L, "ORD-101", "CUST-1", new BigDecimal("10.00"), "PROD-1",
+                    Order.OrderStatus.COMPLETED, LocalDateTime.now(), LocalDateTime.now()));
+            return Either.left(Failure.ofDefault(ErrorCode.DATABASE_ERROR).with("streamedOrders", 1L));
+        }).when(orderQuery).forEach(any());
+
+        // when
+        var body = exportOrders()
+                .statusCode(HttpStatus.OK.value())
+                .extract()
+                .asString();
+
+        // then
+        var lines = body.lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines.getFirst(), OrderData.class).orderId()).isEqualTo("ORD-101");
+        var error = objectMapper.readValue(lines.getLast(), ExportError.class);
+        assertThat(error.error()).isEqualTo("DATABASE_ERROR");
+        assertThat(error.status()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR.value());
+        assertThat(error.exportedOrders()).isEqualTo(1L);
+    }
+}
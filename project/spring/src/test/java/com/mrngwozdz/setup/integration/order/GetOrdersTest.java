@@ -0,0 +1,66 @@
+package com.mrngwozdz.setup.integration.order;
+
+import com.mrngwozdz.setup.AbstractIntegrationTest;
+import com.mrngwozdz.setup.controller.model.dto.OrderData;
+import com.mrngwozdz.setup.controller.model.response.GetAllOrdersResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.mrngwozdz.setup.controller.OrderControllerUtils.getOrders;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Sql(scripts = {"/sql/order/get_orders_test_init.sql"})
+class GetOrdersTest extends AbstractIntegrationTest {
+
+    @Test
+    void shouldWalkAllPagesInCreationOrder() {
+        // given
+        List<String> orderIds = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>(Map.of("limit", 2));
+
+        // when - follow the 'next' cursor until the last page
+        GetAllOrdersResponse page;
+        do {
+            page = getOrders(params)
+                    .statusCode(HttpStatus.OK.value())
+                    .extract()
+                    .as(GetAllOrdersResponse.class);
+            page.orders().stream().map(OrderData::orderId).forEach(orderIds::add);
+            params.put("cursor", page.next());
+        } while (page.next() != null);
+
+        // then - rows sharing created_at are ordered by id and no row is skipped or repeated
+        assertThat(orderIds).containsExactly("ORD-101", "ORD-102", "ORD-103", "ORD-104", "ORD-105");
+    }
+
+    @Test
+    void shouldFilterByCustomerAndStatus() {
+        // when
+        var response = getOrders(Map.of("customerId", "CUST-1", "status", "COMPLETED"))
+                .statusCode(HttpStatus.OK.value())
+                .extract()
+                .as(GetAllOrdersResponse.class);
+
+        // then
+        assertThat(response.orders()).extracting(OrderData::orderId).containsExactly("ORD-102");
+        assertThat(response.next()).isNull();
+    }
+
+    @Test
+    void shouldReturnBadRequestForInvalidCursor() {
+        getOrders(Map.of("cursor", "not-a-cursor"))
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    void shouldReturnBadRequestForLimitOutOfRange() {
+        getOrders(Map.of("limit", 0))
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+}
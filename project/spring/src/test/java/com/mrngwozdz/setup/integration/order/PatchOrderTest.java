@@ -0,0 +1,100 @@
+package com.mrngwozdz.setup.integration.order;
+
+import com.mrngwozdz.setup.AbstractIntegrationTest;
+import com.mrngwozdz.setup.controller.model.request.UpdateOrderRequest;
+import com.mrngwozdz.setup.controller.model.response.OrderResponse;
+import com.mrngwozdz.setup.database.entity.Order.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+
+import static com.mrngwozdz.setup.controller.OrderControllerUtils.getOrderById;
+import static com.mrngwozdz.setup.controller.OrderControllerUtils.patchOrder;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PatchOrderTest extends AbstractIntegrationTest {
+
+    @Test
+    @Sql(scripts = {"/sql/order/create_order_test_init.sql"})
+    void shouldPatchOnlyProvidedFields() {
+        // given - order 'ORD-999' exists in database (from SQL init script)
+        var request = new UpdateOrderRequest(null, new BigDecimal("200.00"), null, null);
+
+        // when
+        patchOrder("ORD-999", request)
+                .statusCode(HttpStatus.NO_CONTENT.value());
+
+        // then
+        var patched = getOrderById("ORD-999")
+                .statusCode(HttpStatus.OK.value())
+                .extract()
+                .as(OrderResponse.class);
+        assertThat(patched.order().amount()).isEqualByComparingTo(new BigDecimal("200.00"));
+        assertThat(patched.order().customerId()).isEqualTo("CUST-999");
+        assertThat(patched.order().productCode()).isEqualTo("PROD-999");
+        assertThat(patched.order().status()).isEqualTo(OrderStatus.PENDING);
+        assertThat(patched.order().processedAt()).isNull();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = OrderStatus.class, names = {"COMPLETED", "FAILED"})
+    @Sql(scripts = {"/sql/order/create_order_test_init.sql"})
+    void shouldSetProcessedAtWhenPatchingToFinalStatus(OrderStatus status) {
+        // given
+        var request = new UpdateOrderRequest(null, null, null, status);
+
+        // when
+        patchOrder("ORD-999", request)
+                .statusCode(HttpStatus.NO_CONTENT.value());
+
+        // then
+        var patched = getOrderById("ORD-999")
+                .statusCode(HttpStatus.OK.value())
+                .extract()
+                .as(OrderResponse.class);
+        assertThat(patched.order().status()).isEqualTo(status);
+        assertThat(patched.order().processedAt()).isNotNull();
+        assertThat(patched.order().amount()).isEqualByComparingTo(new BigDecimal("150.00"));
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenPatchingUnknownOrder() {
+        // given
+        var request = new UpdateOrderRequest("CUST-123", null, null, null);
+
+        // when & then
+        patchOrder("ORD-404", request)
+                .statusCode(HttpStatus.NOT_FOUND.value());
+    }
+
+    @Test
+    @Sql(scripts = {"/sql/order/create_order_test_init.sql"})
+    void shouldLeaveOrderUnchangedWhenPatchIsEmpty() {
+        // given - no field to write, so the order is only looked up
+        var request = new UpdateOrderRequest(null, null, null, null);
+
+        // when
+        patchOrder("ORD-999", request)
+                .statusCode(HttpStatus.NO_CONTENT.value());
+
+        // then
+        var order = getOrderById("ORD-999")
+                .statusCode(HttpStatus.OK.value())
+                .extract()
+                .as(OrderResponse.class);
+        assertThat(order.order().customerId()).isEqualTo("CUST-999");
+        assertThat(order.order().amount()).isEqualByComparingTo(new BigDecimal("150.00"));
+        assertThat(order.order().status()).isEqualTo(OrderStatus.PENDING);
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenEmptyPatchTargetsUnknownOrder() {
+        // when & then
+        patchOrder("ORD-404", new UpdateOrderRequest(null, null, null, null))
+                .statusCode(HttpStatus.NOT_FOUND.value());
+    }
+}
@@ -0,0 +1,89 @@
+package com.mrngwozdz.setup.integration.order;
+
+import com.mrngwozdz.setup.AbstractIntegrationTest;
+import com.mrngwozdz.setup.controller.model.response.OrderResponse;
+import com.mrngwozdz.setup.database.entity.Order;
+import com.mrngwozdz.setup.messaging.listener.OrderMessageTransactions;
+import com.mrngwozdz.setup.messaging.model.OrderRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.mrngwozdz.setup.controller.OrderControllerUtils.getOrderById;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProcessOrderMessageTest extends AbstractIntegrationTest {
+
+    private static final String FAILED_ORDER_WITHOUT_MARKER = """
+            INSERT INTO orders (order_id, customer_id, amount, product_code, status, created_at, processed_at)
+            VALUES ('ORD-1', 'CUST-1', 10.00, 'PROD-1', 'FAILED', NOW(), NOW())
+            """;
+
+    @Autowired
+    private OrderMessageTransactions orderMessageTransactions;
+
+    @Test
+    @Sql(scripts = {"/sql/order/create_order_test_init.sql"})
+    void shouldSaveNewOrdersAndLeaveOutOrderStoredWithoutClaim() {
+        // given - ORD-999 already exists in database (from SQL init script) but was never claimed
+        var requests = List.of(
+                new OrderRequest("ORD-1", "CUST-1", new BigDecimal("10.00"), "PROD-1"),
+                new OrderRequest("ORD-999", "CUST-1", new BigDecimal("10.00"), "PROD-1")
+        );
+
+        // when
+        var result = orderMessageTransactions.startProcessingAll(requests);
+
+        // then
+        assertThat(result.isRight()).isTrue();
+        assertThat(result.get()).containsOnlyKeys("ORD-1");
+
+        var saved = getOrderById("ORD-1")
+                .statusCode(HttpStatus.OK.value())
+                .extract()
+                .as(OrderResponse.class);
+        assertThat(saved.order().customerId()).isEqualTo("CUST-1");
+
+        var existing = getOrderById("ORD-999")
+                .statusCode(HttpStatus.OK.value())
+                .extract()
+                .as(OrderResponse.class);
+        assertThat(existing.order().customerId()).isEqualTo("CUST-999");
+    }
+
+    @Test
+    @Sql(statements = {FAILED_ORDER_WITHOUT_MARKER})
+    void shouldRestartFailedOrderWhoseMarkerWasPurged() {
+        // given - ORD-1 FAILED and its idempotency marker is gone
+        var request = new OrderRequest("ORD-1", "CUST-1", new BigDecimal("10.00"), "PROD-1");
+
+        // when
+        var result = orderMessageTransactions.startProcessing(request);
+
+        // then
+        assertThat(result.isRight()).isTrue();
+        assertThat(result.get().getStatus()).isEqualTo(Order.OrderStatus.PROCESSING);
+    }
+
+    @Test
+    @Sql(statements = {FAILED_ORDER_WITHOUT_MARKER})
+    void shouldRestartFailedOrderWhoseMarkerWasPurgedInBatch() {
+        // given - ORD-1 FAILED and its idempotency marker is gone
+        var requests = List.of(
+                new OrderRequest("ORD-1", "CUST-1", new BigDecimal("10.00"), "PROD-1"),
+                new OrderRequest("ORD-2", "CUST-1", new BigDecimal("10.00"), "PROD-1")
+        );
+
+        // when
+        var result = orderMessageTransactions.startProcessingAll(requests);
+
+        // then
+        assertThat(result.isRight()).isTrue();
+        assertThat(result.get()).containsOnlyKeys("ORD-1", "ORD-2");
+        assertThat(result.get().get("ORD-1").getStatus()).isEqualTo(Order.OrderStatus.PROCESSING);
+    }
+}
@@ -0,0 +1,146 @@
+package com.mrngwozdz.setup.units.cache;
+
+import com.mrngwozdz.setup.database.entity.Order;
+import com.mrngwozdz.setup.database.entity.Order.OrderStatus;
+import com.mrngwozdz.setup.properties.OrderCacheProperties;
+import com.mrngwozdz.setup.service.order.data.cache.OrderCache;
+import com.mrngwozdz.setup.service.order.data.cache.OrderInvalidationPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OrderCacheProperties properties = new OrderCacheProperties();
+    private final OrderCache cache = new OrderCache(properties, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldReturnCopyOfCachedOrder() {
+        // given
+        cache.put(order("ORD-1", OrderStatus.PENDING), cache.generation());
+
+        // when
+        var first = cache.get("ORD-1");
+        first.orElseThrow().setStatus(OrderStatus.FAILED);
+        var second = cache.get("ORD-1");
+
+        // then
+        assertThat(second).get().extracting(Order::getStatus).isEqualTo(OrderStatus.PENDING);
+        assertThat(meterRegistry.get("orders.cache.requests").tag("result", "hit").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldExpireOrdersByStatusTtl() {
+        // given
+        properties.setTtl(Duration.ZERO);
+        cache.put(order("ORD-1", OrderStatus.PENDING), cache.generation());
+        cache.put(order("ORD-2", OrderStatus.COMPLETED), cache.generation());
+
+        // when / then - only the terminal order outlives the default ttl
+        assertThat(cache.get("ORD-1")).isEmpty();
+        assertThat(cache.get("ORD-2")).isPresent();
+        assertThat(meterRegistry.get("orders.cache.evictions").tag("cause", "expired").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedOrderWhenFull() {
+        // given
+        properties.setMaxSize(2);
+        cache.put(order("ORD-1", OrderStatus.PENDING), cache.generation());
+        cache.put(order("ORD-2", OrderStatus.PENDING), cache.generation());
+        cache.get("ORD-1");
+
+        // when
+        cache.put(order("ORD-3", OrderStatus.PENDING), cache.generation());
+
+        // then
+        assertThat(cache.get("ORD-2")).isEmpty();
+        assertThat(cache.get("ORD-1")).isPresent();
+        assertThat(meterRegistry.get("orders.cache.evictions").tag("cause", "size").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldEvictOnlyAfterTransactionCommits() {
+        // given
+        cache.put(order("ORD-1", OrderStatus.PENDING), cache.generation());
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        cache.evictAfterCommit("ORD-1");
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // then
+        assertThat(cache.get("ORD-1")).isPresent();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertThat(cache.get("ORD-1")).isEmpty();
+    }
+
+    @Test
+    void shouldNotCacheOrderLoadedBeforeEviction() {
+        // given
+        long generation = cache.generation();
+        cache.evict("ORD-1");
+
+        // when
+        cache.put(order("ORD-1", OrderStatus.PENDING), generation);
+
+        // then
+        assertThat(cache.get("ORD-1")).isEmpty();
+    }
+
+    @Test
+    void shouldPublishEvictionAndServeOnlyFreshOrdersWhileBusIsUnhealthy() {
+        // given
+        var published = new ArrayList<String>();
+        var healthy = new AtomicBoolean(true);
+        cache.setInvalidationPublisher(new OrderInvalidationPublisher() {
+            @Override
+            public void publish(String orderId) {
+                published.add(orderId);
+            }
+
+            @Override
+            public boolean isHealthy() {
+                return healthy.get();
+            }
+        });
+        properties.getInvalidation().setFallbackTtl(Duration.ZERO);
+        cache.put(order("ORD-1", OrderStatus.COMPLETED), cache.generation());
+        cache.put(order("ORD-2", OrderStatus.COMPLETED), cache.generation());
+
+        // when
+        cache.evictAfterCommit("ORD-1");
+        var whileHealthy = cache.get("ORD-2");
+        healthy.set(false);
+        var whileUnhealthy = cache.get("ORD-2");
+
+        // then
+        assertThat(published).containsExactly("ORD-1");
+        assertThat(whileHealthy).isPresent();
+        assertThat(whileUnhealthy).isEmpty();
+    }
+
+    private static Order order(String orderId, OrderStatus status) {
+        return new Order(1L, orderId, "CUST-1", new BigDecimal("10.00"), "PROD-1", status, LocalDateTime.now(), null);
+    }
+}
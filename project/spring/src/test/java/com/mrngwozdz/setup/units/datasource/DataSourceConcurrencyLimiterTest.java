@@ -0,0 +1,69 @@
+package com.mrngwozdz.setup.units.datasource;
+
+import com.mrngwozdz.setup.database.config.datasource.DataSourceConcurrencyLimiter;
+import com.mrngwozdz.setup.database.config.datasource.DataSourceContextHolder;
+import com.mrngwozdz.setup.database.config.datasource.DataSourceType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataSourceConcurrencyLimiterTest {
+
+    @Test
+    void shouldReuseHeldPermitForNestedOperations() throws Exception {
+        // given
+        var limiter = new DataSourceConcurrencyLimiter(true, Duration.ofMillis(50), 2, 1);
+
+        // when
+        assertThat(limiter.acquire(DataSourceType.WRITE)).isTrue();
+        assertThat(limiter.acquire(DataSourceType.READ)).isTrue();
+
+        // then
+        assertThat(limiter.availablePermits(DataSourceType.WRITE)).isZero();
+        assertThat(limiter.availablePermits(DataSourceType.READ)).isEqualTo(2);
+
+        limiter.release();
+        assertThat(limiter.availablePermits(DataSourceType.WRITE)).isZero();
+        limiter.release();
+        assertThat(limiter.availablePermits(DataSourceType.WRITE)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTimeOutWhenPoolPermitsAreExhausted() throws Exception {
+        // given
+        var limiter = new DataSourceConcurrencyLimiter(true, Duration.ofMillis(50), 2, 1);
+        assertThat(limiter.acquire(DataSourceType.WRITE)).isTrue();
+
+        // when
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var acquired = executor.submit(() -> limiter.acquire(DataSourceType.WRITE)).get();
+
+            // then
+            assertThat(acquired).isFalse();
+        } finally {
+            limiter.release();
+        }
+    }
+
+    @Test
+    void shouldKeepDataSourceContextPerVirtualThread() throws Exception {
+        // given
+        var seenOnVirtualThread = new AtomicReference<DataSourceType>();
+        DataSourceContextHolder.setDataSourceType(DataSourceType.READ);
+
+        // when
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> seenOnVirtualThread.set(DataSourceContextHolder.getExplicitDataSourceType())).get();
+        } finally {
+            DataSourceContextHolder.clear();
+        }
+
+        // then
+        assertThat(seenOnVirtualThread.get()).isNull();
+        assertThat(DataSourceContextHolder.getExplicitDataSourceType()).isNull();
+    }
+}
@@ -0,0 +1,109 @@
+package com.mrngwozdz.setup.units.datasource;
+
+import com.mrngwozdz.setup.database.config.datasource.DataSourceConcurrencyLimiter;
+import com.mrngwozdz.setup.database.config.datasource.DataSourceType;
+import com.mrngwozdz.setup.database.config.datasource.HikariPoolController;
+import com.mrngwozdz.setup.properties.PoolControllerProperties;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HikariPoolControllerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PoolControllerProperties properties = new PoolControllerProperties();
+    private final DataSourceConcurrencyLimiter limiter =
+            new DataSourceConcurrencyLimiter(true, Duration.ofMillis(50), 30, 5);
+
+    @Test
+    void shouldGrowSaturatedPoolWithConnectionsReclaimedFromIdlePool() {
+        // given
+        properties.setGlobalBudget(35);
+        var command = pool("CommandDataBaseConnectionPool", 5, 3, 4, 5, 0);
+        var query = pool("QueryDataBaseConnectionPool", 30, 5, 0, 2, 20);
+        var controller = controller(command, query);
+
+        // when
+        controller.adjust();
+
+        // then
+        verify(command.getHikariConfigMXBean()).setMaximumPoolSize(7);
+        verify(query.getHikariConfigMXBean()).setMaximumPoolSize(28);
+        assertThat(limiter.availablePermits(DataSourceType.WRITE)).isEqualTo(7);
+        assertThat(limiter.availablePermits(DataSourceType.READ)).isEqualTo(28);
+        assertThat(meterRegistry.get("datasource.pool.resizes")
+                .tag("pool", "CommandDataBaseConnectionPool").tag("direction", "grow").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("datasource.pool.budget.used").gauge().value()).isEqualTo(35);
+    }
+
+    @Test
+    void shouldNotGrowBeyondBudgetWithoutIdleDonor() {
+        // given
+        properties.setGlobalBudget(35);
+        var command = pool("CommandDataBaseConnectionPool", 5, 3, 4, 5, 0);
+        var query = pool("QueryDataBaseConnectionPool", 30, 5, 1, 30, 0);
+        var controller = controller(command, query);
+
+        // when
+        controller.adjust();
+
+        // then
+        verify(command.getHikariConfigMXBean(), never()).setMaximumPoolSize(7);
+        verify(query.getHikariConfigMXBean(), never()).setMaximumPoolSize(28);
+    }
+
+    @Test
+    void shouldShrinkPoolIdleForShrinkAfterIntervals() {
+        // given
+        properties.setShrinkAfter(3);
+        var command = pool("CommandDataBaseConnectionPool", 5, 3, 0, 1, 4);
+        var query = pool("QueryDataBaseConnectionPool", 30, 5, 0, 30, 0);
+        when(command.getHikariPoolMXBean().getTotalConnections()).thenReturn(5);
+        var controller = controller(command, query);
+
+        // when
+        controller.adjust();
+        controller.adjust();
+        verify(command.getHikariConfigMXBean(), never()).setMaximumPoolSize(3);
+        controller.adjust();
+
+        // then
+        verify(command.getHikariConfigMXBean()).setMaximumPoolSize(3);
+        verify(command.getHikariConfigMXBean()).setMinimumIdle(3);
+        verify(command.getHikariPoolMXBean(), never()).softEvictConnections();
+        assertThat(limiter.availablePermits(DataSourceType.WRITE)).isEqualTo(3);
+    }
+
+    private HikariPoolController controller(HikariDataSource command, HikariDataSource query) {
+        return new HikariPoolController(properties,
+                Map.of(DataSourceType.WRITE, List.of(command), DataSourceType.READ, List.of(query)),
+                limiter, meterRegistry);
+    }
+
+    private static HikariDataSource pool(String name, int maxSize, int minimumIdle, int waiting, int active, int idle) {
+        HikariDataSource dataSource = mock(HikariDataSource.class);
+        HikariPoolMXBean poolBean = mock(HikariPoolMXBean.class);
+        HikariConfigMXBean configBean = mock(HikariConfigMXBean.class);
+        when(dataSource.getPoolName()).thenReturn(name);
+        when(dataSource.getMaximumPoolSize()).thenReturn(maxSize);
+        when(dataSource.getMinimumIdle()).thenReturn(minimumIdle);
+        when(dataSource.getHikariPoolMXBean()).thenReturn(poolBean);
+        when(dataSource.getHikariConfigMXBean()).thenReturn(configBean);
+        when(poolBean.getThreadsAwaitingConnection()).thenReturn(waiting);
+        when(poolBean.getActiveConnections()).thenReturn(active);
+        when(poolBean.getIdleConnections()).thenReturn(idle);
+        return dataSource;
+    }
+}
@@ -0,0 +1,139 @@
+package com.mrngwozdz.setup.units.datasource;
+
+import com.mrngwozdz.setup.database.config.datasource.ReadReplicaDataSource;
+import com.mrngwozdz.setup.properties.ReadReplicaProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadReplicaDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReadReplicaProperties properties = new ReadReplicaProperties();
+
+    @Test
+    void shouldSendNextConnectionToReplicaWithFewestOutstanding() throws SQLException {
+        // given
+        Connection first = mock(Connection.class);
+        Connection second = mock(Connection.class);
+        var dataSource = readReplicas(Map.of("replica-1", replica(first, "0/1"), "replica-2", replica(second, "0/1")),
+                primary("0/1"));
+        Connection held = dataSource.getConnection();
+
+        // when
+        Connection next = dataSource.getConnection();
+
+        // then
+        assertThat(next.unwrap(Connection.class)).isNotSameAs(held.unwrap(Connection.class));
+        assertThat(meterRegistry.get("datasource.read.replica.outstanding").tag("replica", "replica-1").gauge().value())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("datasource.read.replica.outstanding").tag("replica", "replica-2").gauge().value())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldFallBackToWriteDataSourceWhenAllReplicasAreEjected() throws SQLException {
+        // given
+        DataSource down = mock(DataSource.class);
+        when(down.getConnection()).thenThrow(new SQLException("Connection refused"));
+        DataSource primary = primary("0/1");
+        var dataSource = readReplicas(Map.of("replica-1", down), primary);
+
+        // when
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLException.class);
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLException.class);
+        dataSource.getConnection();
+
+        // then
+        assertThat(meterRegistry.get("datasource.read.replica.ejections").tag("reason", "failures").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("datasource.read.replica.fallbacks").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldEjectLaggingReplicaAndReadmitItWithReducedWeight() throws SQLException {
+        // given
+        properties.getHealth().setMaxLag(DataSize.ofBytes(100));
+        Statement replicaStatement = mock(Statement.class);
+        DataSource lagging = replica(mock(Connection.class), replicaStatement);
+        var dataSource = readReplicas(Map.of("replica-1", lagging), primary("0/1000"));
+
+        // when
+        ResultSet behind = lsn("0/100");
+        when(replicaStatement.executeQuery(anyString())).thenReturn(behind);
+        dataSource.probe();
+        double ejectedWeight = weight("replica-1");
+
+        ResultSet caughtUp = lsn("0/FF0");
+        when(replicaStatement.executeQuery(anyString())).thenReturn(caughtUp);
+        dataSource.probe();
+
+        // then
+        assertThat(ejectedWeight).isZero();
+        assertThat(weight("replica-1")).isBetween(properties.getHealth().getInitialWeight(), 0.5);
+        assertThat(meterRegistry.get("datasource.read.replica.lag.bytes").tag("replica", "replica-1").gauge().value())
+                .isEqualTo(0x10);
+        assertThat(meterRegistry.get("datasource.read.replica.readmissions").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReportLowestReplayPositionOfAdmittedReplicas() throws SQLException {
+        // given
+        var dataSource = readReplicas(Map.of("replica-1", replica(mock(Connection.class), "0/200"),
+                "replica-2", replica(mock(Connection.class), "0/100")), primary("0/200"));
+
+        // when / then
+        assertThat(dataSource.minReplayLsn()).isEqualTo(0x100);
+    }
+
+    private ReadReplicaDataSource readReplicas(Map<String, DataSource> replicas, DataSource primary) {
+        return new ReadReplicaDataSource(properties, new LinkedHashMap<>(replicas), primary, meterRegistry);
+    }
+
+    private double weight(String replica) {
+        return meterRegistry.get("datasource.read.replica.weight").tag("replica", replica).gauge().value();
+    }
+
+    private static DataSource primary(String lsn) throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = lsn(lsn);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        return replica(mock(Connection.class), statement);
+    }
+
+    private static DataSource replica(Connection connection, String lsn) throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = lsn(lsn);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        return replica(connection, statement);
+    }
+
+    private static DataSource replica(Connection connection, Statement statement) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.unwrap(Connection.class)).thenReturn(connection);
+        return dataSource;
+    }
+
+    private static ResultSet lsn(String lsn) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getString(1)).thenReturn(lsn);
+        return resultSet;
+    }
+}
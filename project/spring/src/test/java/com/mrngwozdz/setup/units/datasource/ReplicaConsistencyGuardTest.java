@@ -0,0 +1,92 @@
+package com.mrngwozdz.setup.units.datasource;
+
+import com.mrngwozdz.setup.database.config.datasource.DataSourceType;
+import com.mrngwozdz.setup.database.config.datasource.ReadYourWritesContext;
+import com.mrngwozdz.setup.database.config.datasource.ReplicaConsistencyGuard;
+import com.mrngwozdz.setup.database.config.datasource.RoutingDataSource;
+import com.mrngwozdz.setup.properties.ReadYourWritesProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaConsistencyGuardTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReadYourWritesProperties properties = new ReadYourWritesProperties();
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesContext.clear();
+    }
+
+    @Test
+    void shouldRoundTripLsnText() {
+        assertThat(ReplicaConsistencyGuard.parseLsn("16/B374D848")).isEqualTo(0x16B374D848L);
+        assertThat(ReplicaConsistencyGuard.formatLsn(0x16B374D848L)).isEqualTo("16/B374D848");
+        assertThat(ReplicaConsistencyGuard.parseLsn("0/0")).isZero();
+    }
+
+    @Test
+    void shouldRouteToReplicaWithoutPriorWrite() throws SQLException {
+        // given
+        properties.setEnabled(true);
+        var guard = new ReplicaConsistencyGuard(properties, routingDataSource(unavailableReplica()), meterRegistry);
+        ReadYourWritesContext.set(new ReadYourWritesContext.Session("session-1", 0, token -> { }));
+
+        // when / then
+        assertThat(guard.routeRead()).isEqualTo(DataSourceType.READ);
+    }
+
+    @Test
+    void shouldFallBackToWriteWhenReplicaDoesNotCatchUpInTime() throws SQLException {
+        // given
+        properties.setEnabled(true);
+        properties.setMaxWait(Duration.ofMillis(20));
+        var guard = new ReplicaConsistencyGuard(properties, routingDataSource(unavailableReplica()), meterRegistry);
+        ReadYourWritesContext.set(new ReadYourWritesContext.Session("session-1",
+                ReplicaConsistencyGuard.parseLsn("0/16B3748"), token -> { }));
+
+        // when
+        var type = guard.routeRead();
+
+        // then
+        assertThat(type).isEqualTo(DataSourceType.WRITE);
+        assertThat(meterRegistry.get("datasource.read.your.writes.reads").tag("outcome", "primary").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldRouteToReplicaWhenDisabled() throws SQLException {
+        // given
+        var guard = new ReplicaConsistencyGuard(properties, routingDataSource(unavailableReplica()), meterRegistry);
+        ReadYourWritesContext.set(new ReadYourWritesContext.Session("session-1",
+                ReplicaConsistencyGuard.parseLsn("0/16B3748"), token -> { }));
+
+        // when / then
+        assertThat(guard.routeRead()).isEqualTo(DataSourceType.READ);
+    }
+
+    private static DataSource unavailableReplica() throws SQLException {
+        DataSource replica = mock(DataSource.class);
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        return replica;
+    }
+
+    private static RoutingDataSource routingDataSource(DataSource readDataSource) {
+        var routingDataSource = new RoutingDataSource();
+        routingDataSource.setTargetDataSources(Map.of(
+                DataSourceType.READ, readDataSource,
+                DataSourceType.WRITE, mock(DataSource.class)));
+        routingDataSource.afterPropertiesSet();
+        return routingDataSource;
+    }
+}
@@ -0,0 +1,69 @@
+package com.mrngwozdz.setup.units.datasource;
+
+import com.mrngwozdz.setup.database.config.datasource.DataSourceContextHolder;
+import com.mrngwozdz.setup.database.config.datasource.DataSourceType;
+import com.mrngwozdz.setup.database.config.datasource.RoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RoutingDataSourceTest {
+
+    private final Connection readConnection = mock(Connection.class);
+    private final Connection writeConnection = mock(Connection.class);
+
+    @AfterEach
+    void tearDown() {
+        DataSourceContextHolder.clear();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionWithoutContextToRead() throws SQLException {
+        // given
+        var routingDataSource = routingDataSource();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // when / then
+        assertThat(routingDataSource.getConnection()).isSameAs(readConnection);
+    }
+
+    @Test
+    void shouldPreferExplicitContextOverReadOnlyFlag() throws SQLException {
+        // given
+        var routingDataSource = routingDataSource();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        DataSourceContextHolder.setDataSourceType(DataSourceType.WRITE);
+
+        // when / then
+        assertThat(routingDataSource.getConnection()).isSameAs(writeConnection);
+    }
+
+    @Test
+    void shouldRouteToWriteWithoutContextOrTransaction() throws SQLException {
+        // when / then
+        assertThat(routingDataSource().getConnection()).isSameAs(writeConnection);
+    }
+
+    private RoutingDataSource routingDataSource() throws SQLException {
+        DataSource read = mock(DataSource.class);
+        when(read.getConnection()).thenReturn(readConnection);
+        DataSource write = mock(DataSource.class);
+        when(write.getConnection()).thenReturn(writeConnection);
+
+        var routingDataSource = new RoutingDataSource();
+        routingDataSource.setTargetDataSources(Map.of(DataSourceType.READ, read, DataSourceType.WRITE, write));
+        routingDataSource.setDefaultTargetDataSource(write);
+        routingDataSource.afterPropertiesSet();
+        return routingDataSource;
+    }
+}
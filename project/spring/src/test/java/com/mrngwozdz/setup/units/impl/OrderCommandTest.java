@@ -0,0 +1,157 @@
+package com.mrngwozdz.setup.units.impl;
+
+import com.mrngwozdz.setup.controller.model.request.UpdateOrderRequest;
+import com.mrngwozdz.setup.database.entity.Order;
+import com.mrngwozdz.setup.service.order.data.cache.OrderCache;
+import com.mrngwozdz.setup.service.order.data.impl.OrderCommand;
+import com.mrngwozdz.setup.service.order.data.repository.command.OrderBatchRepository;
+import com.mrngwozdz.setup.service.order.data.repository.command.OrderCommandRepository;
+import com.mrngwozdz.setup.units.base.DataLayerUnitTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderCommandTest extends DataLayerUnitTest {
+
+    @Mock
+    private OrderCommandRepository repository;
+
+    @Mock
+    private OrderBatchRepository batchRepository;
+
+    @Mock
+    private OrderCache orderCache;
+
+    @InjectMocks
+    private OrderCommand orderCommand;
+
+    @Test
+    void shouldReturnConflictWhenInsertReturnsNoRow() {
+        // given
+        var order = newOrder("ORD-123");
+        when(batchRepository.insertIfAbsent(order)).thenReturn(false);
+
+        // when
+        var result = orderCommand.create(order);
+
+        // then
+        assertConflict(result, "Order");
+        assertThat(result.getLeft().context()).containsEntry("orderId", "ORD-123");
+    }
+
+    @Test
+    void shouldReturnDatabaseErrorWhenCreateThrowsException() {
+        // given
+        var order = newOrder("ORD-123");
+        var expectedException = new RuntimeException("Database connection failed");
+        when(batchRepository.insertIfAbsent(order)).thenThrow(expectedException);
+
+        // when
+        var result = orderCommand.create(order);
+
+        // then
+        assertDatabaseError(result, expectedException, "orderId", "ORD-123");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldPatchOnlyColumnsOfProvidedFields() {
+        // given
+        var request = new UpdateOrderRequest("CUST-456", null, "PROD-789", null);
+        var columns = ArgumentCaptor.forClass(Map.class);
+        when(batchRepository.patch(eq("ORD-123"), columns.capture())).thenReturn(Optional.of(newOrder("ORD-123")));
+
+        // when
+        var result = orderCommand.patch("ORD-123", request);
+
+        // then
+        assertThat(result.isRight()).isTrue();
+        assertThat(columns.getValue()).containsOnly(
+                entry("customer_id", "CUST-456"),
+                entry("product_code", "PROD-789"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldSetProcessedAtWhenPatchingToFinalStatus() {
+        // given
+        var request = new UpdateOrderRequest(null, new BigDecimal("10.00"), null, Order.OrderStatus.COMPLETED);
+        var columns = ArgumentCaptor.forClass(Map.class);
+        when(batchRepository.patch(eq("ORD-123"), columns.capture())).thenReturn(Optional.of(newOrder("ORD-123")));
+
+        // when
+        orderCommand.patch("ORD-123", request);
+
+        // then
+        assertThat(columns.getValue())
+                .containsEntry("amount", new BigDecimal("10.00"))
+                .containsEntry("status", "COMPLETED")
+                .containsKey("processed_at");
+        assertThat(columns.getValue().get("processed_at")).isInstanceOf(LocalDateTime.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldNotSetProcessedAtWhenPatchingToNonFinalStatus() {
+        // given
+        var request = new UpdateOrderRequest(null, null, null, Order.OrderStatus.PROCESSING);
+        var columns = ArgumentCaptor.forClass(Map.class);
+        when(batchRepository.patch(eq("ORD-123"), columns.capture())).thenReturn(Optional.of(newOrder("ORD-123")));
+
+        // when
+        orderCommand.patch("ORD-123", request);
+
+        // then
+        assertThat(columns.getValue()).containsOnly(entry("status", "PROCESSING"));
+    }
+
+    @Test
+    void shouldLookUpOrderInsteadOfUpdatingWhenPatchIsEmpty() {
+        // given
+        var request = new UpdateOrderRequest(null, null, null, null);
+        when(repository.findByOrderId("ORD-123")).thenReturn(Optional.of(newOrder("ORD-123")));
+
+        // when
+        var result = orderCommand.patch("ORD-123", request);
+
+        // then
+        assertThat(result.isRight()).isTrue();
+        verify(batchRepository, never()).patch(any(), any());
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenPatchUpdatesNoRow() {
+        // given
+        var request = new UpdateOrderRequest("CUST-456", null, null, null);
+        when(batchRepository.patch(eq("ORD-123"), any())).thenReturn(Optional.empty());
+
+        // when
+        var result = orderCommand.patch("ORD-123", request);
+
+        // then
+        assertNotFound(result, "Order");
+        verify(orderCache, never()).evictAfterCommit(any());
+    }
+
+    private static Order newOrder(String orderId) {
+        return new Order(null, orderId, "CUST-123", new BigDecimal("99.99"), "PROD-456",
+                Order.OrderStatus.PENDING, LocalDateTime.now(), null);
+    }
+}
@@ -1,14 +1,30 @@
 package com.mrngwozdz.setup.units.impl;
 
+import com.mrngwozdz.setup.database.config.datasource.DataSourceContextHolder;
+import com.mrngwozdz.setup.database.config.datasource.DataSourceType;
+import com.mrngwozdz.setup.database.entity.Order;
+import com.mrngwozdz.setup.service.order.data.cache.OrderCache;
 import com.mrngwozdz.setup.service.order.data.impl.OrderQuery;
+import com.mrngwozdz.setup.service.order.data.model.OrderPageQuery;
 import com.mrngwozdz.setup.service.order.data.repository.query.OrderQueryRepository;
 import com.mrngwozdz.setup.units.base.DataLayerUnitTest;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -17,20 +33,15 @@ class OrderQueryTest extends DataLayerUnitTest {
     @Mock
     private OrderQueryRepository repository;
 
+    @Mock
+    private OrderCache orderCache;
+
     @InjectMocks
     private OrderQuery orderQuery;
 
-    @Test
-    void shouldReturnDatabaseErrorWhenUnexpectedExceptionOccurs() {
-        // given
-        var expectedException = new RuntimeException("Database connection failed");
-        when(repository.findAll()).thenThrow(expectedException);
-
-        // when
-        var result = orderQuery.findAll();
-
-        // then
-        assertDatabaseError(result, expectedException);
+    @AfterEach
+    void clearDataSourceContext() {
+        DataSourceContextHolder.clear();
     }
 
     @Test
@@ -46,4 +57,56 @@ class OrderQueryTest extends DataLayerUnitTest {
         // then
         assertDatabaseError(result, expectedException, "orderId", orderId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldCacheOrderLoadedFromWriteDataSource() {
+        // given
+        var order = newOrder("ORD-123");
+        when(orderCache.get("ORD-123")).thenReturn(Optional.empty());
+        when(orderCache.generation()).thenReturn(7L);
+        when(repository.findByOrderId("ORD-123")).thenReturn(Optional.of(order));
+        DataSourceContextHolder.setDataSourceType(DataSourceType.WRITE);
+
+        // when
+        var result = orderQuery.findById("ORD-123");
+
+        // then
+        assertThat(result.get()).isSameAs(order);
+        verify(orderCache).put(order, 7L);
+    }
+
+    @Test
+    void shouldNotCacheOrderLoadedFromReadDataSource() {
+        // given - the replica may not have replayed the write behind the last eviction yet
+        var order = newOrder("ORD-123");
+        when(orderCache.get("ORD-123")).thenReturn(Optional.empty());
+        when(repository.findByOrderId("ORD-123")).thenReturn(Optional.of(order));
+        DataSourceContextHolder.setDataSourceType(DataSourceType.READ);
+
+        // when
+        var result = orderQuery.findById("ORD-123");
+
+        // then
+        assertThat(result.get()).isSameAs(order);
+        verify(orderCache, never()).put(any(), anyLong());
+    }
+
+    @Test
+    void shouldReturnDatabaseErrorWhenFindPageThrowsException() {
+        // given
+        var pageQuery = new OrderPageQuery("CUST-123", null, null, 50);
+        var expectedException = new RuntimeException("Database connection reset");
+        when(repository.findBy(any(Specification.class), any())).thenThrow(expectedException);
+
+        // when
+        var result = orderQuery.findPage(pageQuery);
+
+        // then
+        assertDatabaseError(result, expectedException);
+    }
+
+    private static Order newOrder(String orderId) {
+        return new Order(1L, orderId, "CUST-123", new BigDecimal("99.99"), "PROD-456",
+                Order.OrderStatus.COMPLETED, LocalDateTime.now(), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,64 @@
+package com.mrngwozdz.setup.units.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mrngwozdz.setup.messaging.model.OrderEvent;
+import com.mrngwozdz.setup.properties.RabbitMQProperties;
+import com.mrngwozdz.setup.service.outbox.data.impl.OutboxCommand;
+import com.mrngwozdz.setup.service.outbox.data.repository.OutboxRepository;
+import com.mrngwozdz.setup.units.base.DataLayerUnitTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxCommandTest extends DataLayerUnitTest {
+
+    @Mock
+    private OutboxRepository repository;
+
+    private OutboxCommand outboxCommand;
+
+    @BeforeEach
+    void setUp() {
+        var objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        outboxCommand = new OutboxCommand(repository, new RabbitMQProperties(), objectMapper);
+    }
+
+    @Test
+    void shouldReturnDatabaseErrorWhenAppendThrowsException() {
+        // given
+        var orderId = "ORD-123";
+        var expectedException = new RuntimeException("Database connection failed");
+        doThrow(expectedException).when(repository)
+                .insert(eq(orderId), eq("DELETED"), eq("order.events"), anyString(), any());
+
+        // when
+        var result = outboxCommand.append(OrderEvent.deleted(orderId));
+
+        // then
+        assertDatabaseError(result, expectedException, "orderId", orderId);
+    }
+
+    @Test
+    void shouldReturnDatabaseErrorWhenLockBatchThrowsException() {
+        // given
+        var expectedException = new RuntimeException("Database connection timeout");
+        when(repository.lockBatch(anyInt())).thenThrow(expectedException);
+
+        // when
+        var result = outboxCommand.lockBatch(100);
+
+        // then
+        assertDatabaseError(result, expectedException);
+    }
+}
@@ -0,0 +1,106 @@
+package com.mrngwozdz.setup.units.messaging;
+
+import com.mrngwozdz.setup.messaging.idempotency.CachingIdempotencyStore;
+import com.mrngwozdz.setup.messaging.idempotency.IdempotencyStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingIdempotencyStoreTest {
+
+    private final IdempotencyStore delegate = mock(IdempotencyStore.class);
+    private final CachingIdempotencyStore store =
+            new CachingIdempotencyStore(delegate, 10, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldRejectDuplicateFromCacheWithoutCallingDelegate() {
+        // given
+        when(delegate.claim("order", "ORD-1")).thenReturn(true);
+
+        // when
+        boolean first = store.claim("order", "ORD-1");
+        boolean second = store.claim("order", "ORD-1");
+
+        // then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        verify(delegate, times(1)).claim(anyString(), anyString());
+    }
+
+    @Test
+    void shouldNotCacheClaimUntilTransactionCommits() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        when(delegate.claim("order", "ORD-1")).thenReturn(true);
+
+        // when
+        store.claim("order", "ORD-1");
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // then - rolled back claim is claimed again from the delegate
+        assertThat(store.claim("order", "ORD-1")).isTrue();
+        verify(delegate, times(2)).claim("order", "ORD-1");
+
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertThat(store.claim("order", "ORD-1")).isFalse();
+        verify(delegate, times(2)).claim("order", "ORD-1");
+    }
+
+    @Test
+    void shouldRememberSettledIdsOnceTransactionCommits() {
+        // given
+        when(delegate.claim("order", "ORD-1")).thenReturn(true);
+        store.claim("order", "ORD-1");
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        store.settleAfterCommit("order", "ORD-1");
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+
+        // then
+        assertThat(store.isSettled("order", "ORD-1")).isFalse();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertThat(store.isSettled("order", "ORD-1")).isTrue();
+        assertThat(store.isSettled("order", "ORD-2")).isFalse();
+        verify(delegate, never()).isSettled(anyString(), anyString());
+    }
+
+    @Test
+    void shouldOnlyAskDelegateForUncachedIdsInBatch() {
+        // given
+        when(delegate.claim("order", "ORD-1")).thenReturn(true);
+        when(delegate.claimAll("order", List.of("ORD-2", "ORD-3"))).thenReturn(Set.of("ORD-2"));
+        store.claim("order", "ORD-1");
+
+        // when
+        Set<String> claimed = store.claimAll("order", List.of("ORD-1", "ORD-2", "ORD-3"));
+
+        // then
+        assertThat(claimed).containsExactly("ORD-2");
+        assertThat(store.claimAll("order", List.of("ORD-1", "ORD-2", "ORD-3"))).isEmpty();
+        verify(delegate, times(1)).claimAll(anyString(), anyCollection());
+    }
+}
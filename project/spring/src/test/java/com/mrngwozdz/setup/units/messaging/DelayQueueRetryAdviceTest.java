@@ -0,0 +1,126 @@
+package com.mrngwozdz.setup.units.messaging;
+
+import com.mrngwozdz.setup.messaging.config.DelayQueueRetry;
+import com.mrngwozdz.setup.messaging.config.DelayQueueRetryAdvice;
+import com.mrngwozdz.setup.messaging.sender.MessageSender;
+import com.mrngwozdz.setup.properties.RabbitMQProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DelayQueueRetryAdviceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MessageSender messageSender = mock(MessageSender.class);
+    private final MessageRecoverer messageRecoverer = mock(MessageRecoverer.class);
+    private final DelayQueueRetryAdvice advice = new DelayQueueRetryAdvice(
+            new DelayQueueRetry(messageSender, messageRecoverer, new RabbitMQProperties(), meterRegistry));
+
+    @Test
+    void shouldRepublishFailedMessageToDelayQueueOfNextAttempt() throws Throwable {
+        // given
+        Message message = message(null);
+        RuntimeException failure = new RuntimeException("Payment API timeout");
+
+        // when
+        Object result = advice.invoke(failingInvocation(message, failure));
+
+        // then
+        assertThat(result).isNull();
+        verify(messageSender).send("order.retry.1", message);
+        verify(messageRecoverer, never()).recover(any(), any());
+        assertThat(message.getMessageProperties().getHeaders()).containsEntry(DelayQueueRetry.RETRY_ATTEMPTS_HEADER, 1);
+        assertThat(meterRegistry.get("rabbitmq.listener.retries").tag("queue", "setup.order.queue").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldRepublishAsPersistentWhenReceivedDeliveryModeIsUnknown() throws Throwable {
+        // given
+        Message message = message(null);
+
+        // when
+        advice.invoke(failingInvocation(message, new RuntimeException("Payment API timeout")));
+
+        // then
+        verify(messageSender).send("order.retry.1", message);
+        assertThat(message.getMessageProperties().getDeliveryMode()).isEqualTo(MessageDeliveryMode.PERSISTENT);
+    }
+
+    @Test
+    void shouldRepublishWithReceivedDeliveryMode() throws Throwable {
+        // given
+        Message message = message(null);
+        message.getMessageProperties().setReceivedDeliveryMode(MessageDeliveryMode.NON_PERSISTENT);
+
+        // when
+        advice.invoke(failingInvocation(message, new RuntimeException("Payment API timeout")));
+
+        // then
+        verify(messageSender).send("order.retry.1", message);
+        assertThat(message.getMessageProperties().getDeliveryMode()).isEqualTo(MessageDeliveryMode.NON_PERSISTENT);
+    }
+
+    @Test
+    void shouldRecoverMessageAfterLastAttempt() throws Throwable {
+        // given
+        Message message = message(2);
+        RuntimeException failure = new RuntimeException("Payment API timeout");
+
+        // when
+        advice.invoke(failingInvocation(message, failure));
+
+        // then
+        verify(messageSender, never()).send(anyString(), any());
+        verify(messageRecoverer).recover(same(message), same(failure));
+        assertThat(message.getMessageProperties().getHeaders()).containsEntry(DelayQueueRetry.RETRY_ATTEMPTS_HEADER, 3);
+    }
+
+    @Test
+    void shouldRecoverMessageWhenRetryCannotBePublished() throws Throwable {
+        // given
+        Message message = message(null);
+        RuntimeException failure = new RuntimeException("Payment API timeout");
+        doThrow(new AmqpTimeoutException("No publisher confirm")).when(messageSender).send(anyString(), any());
+
+        // when
+        advice.invoke(failingInvocation(message, failure));
+
+        // then
+        verify(messageRecoverer).recover(same(message), same(failure));
+        assertThat(message.getMessageProperties().getHeaders()).containsEntry(DelayQueueRetry.RETRY_ATTEMPTS_HEADER, 1);
+    }
+
+    private static Message message(Integer attempts) {
+        MessageProperties properties = new MessageProperties();
+        properties.setConsumerQueue("setup.order.queue");
+        // Like an inbound message: only the received delivery mode is set
+        properties.setDeliveryMode(null);
+        if (attempts != null) {
+            properties.setHeader(DelayQueueRetry.RETRY_ATTEMPTS_HEADER, attempts);
+        }
+        return new Message("{}".getBytes(), properties);
+    }
+
+    private static MethodInvocation failingInvocation(Message message, Exception failure) throws Throwable {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getArguments()).thenReturn(new Object[]{null, message});
+        when(invocation.proceed()).thenThrow(failure);
+        return invocation;
+    }
+}
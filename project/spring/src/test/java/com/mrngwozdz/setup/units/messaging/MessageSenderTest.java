@@ -0,0 +1,85 @@
+package com.mrngwozdz.setup.units.messaging;
+
+import com.mrngwozdz.setup.messaging.sender.MessageSender;
+import com.mrngwozdz.setup.properties.RabbitMQProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class MessageSenderTest {
+
+    private final List<CorrelationData> published = new ArrayList<>();
+    private RabbitTemplate rabbitTemplate;
+    private MessageSender messageSender;
+
+    @BeforeEach
+    void setUp() {
+        var properties = new RabbitMQProperties();
+        properties.getPublisher().setMaxInFlight(2);
+        properties.getPublisher().setAcquireTimeout(Duration.ofMillis(50));
+        rabbitTemplate = mock(RabbitTemplate.class);
+        doAnswer(invocation -> published.add(invocation.getArgument(3)))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+        messageSender = new MessageSender(rabbitTemplate, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldCompleteOnlyWhenBrokerConfirms() {
+        // when
+        var future = messageSender.sendAsync("audit", "message");
+
+        // then
+        assertThat(future).isNotDone();
+        published.get(0).getFuture().complete(new CorrelationData.Confirm(true, null));
+        assertThat(future).isCompleted();
+    }
+
+    @Test
+    void shouldFailWhenBrokerNacks() {
+        // given
+        var future = messageSender.sendAsync("audit", "message");
+
+        // when
+        published.get(0).getFuture().complete(new CorrelationData.Confirm(false, "queue full"));
+
+        // then
+        assertThatThrownBy(future::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(AmqpException.class)
+                .hasMessageContaining("queue full");
+    }
+
+    @Test
+    void shouldFailFastWhenInFlightWindowIsFull() {
+        // given
+        messageSender.sendAsync("audit", "first");
+        messageSender.sendAsync("audit", "second");
+
+        // when
+        var rejected = messageSender.sendAsync("audit", "third");
+
+        // then
+        assertThat(published).hasSize(2);
+        assertThatThrownBy(rejected::join).hasCauseInstanceOf(AmqpTimeoutException.class);
+
+        published.get(0).getFuture().complete(new CorrelationData.Confirm(true, null));
+        messageSender.sendAsync("audit", "fourth");
+        assertThat(published).hasSize(3);
+    }
+}
@@ -0,0 +1,289 @@
+package com.mrngwozdz.setup.units.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mrngwozdz.setup.database.entity.Order;
+import com.mrngwozdz.setup.messaging.config.DelayQueueRetry;
+import com.mrngwozdz.setup.messaging.idempotency.CachingIdempotencyStore;
+import com.mrngwozdz.setup.messaging.idempotency.IdempotencyStore;
+import com.mrngwozdz.setup.messaging.listener.MessageListener;
+import com.mrngwozdz.setup.messaging.listener.OrderMessageTransactions;
+import com.mrngwozdz.setup.messaging.model.OrderRequest;
+import com.mrngwozdz.setup.messaging.sender.MessageSender;
+import com.mrngwozdz.setup.platform.result.ErrorCode;
+import com.mrngwozdz.setup.platform.result.Failure;
+import com.mrngwozdz.setup.platform.result.Success;
+import com.mrngwozdz.setup.properties.RabbitMQProperties;
+import com.mrngwozdz.setup.service.external.ExternalApiService;
+import com.mrngwozdz.setup.service.order.data.cache.OrderCache;
+import com.mrngwozdz.setup.service.order.data.repository.command.OrderBatchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vavr.control.Either;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderBatchListenerTest {
+
+    private final OrderMessageTransactions orderMessageTransactions = mock(OrderMessageTransactions.class);
+    private final ExternalApiService externalApiService = mock(ExternalApiService.class);
+    private final MessageRecoverer messageRecoverer = mock(MessageRecoverer.class);
+    private final DelayQueueRetry delayQueueRetry = mock(DelayQueueRetry.class);
+    private final MessageListener listener = listenerWith(orderMessageTransactions);
+    private long deliveryTag;
+
+    @Test
+    void shouldCallPaymentsBetweenSavingOrdersAndCommittingTheirStatuses() {
+        // given
+        Message paid = message("ORD-1");
+        Message unpaid = message("ORD-2");
+        Map<String, Order> saved = saved("ORD-1", "ORD-2");
+        when(orderMessageTransactions.startProcessingAll(anyList())).thenReturn(Either.right(saved));
+        when(externalApiService.processPayment(saved.get("ORD-1"))).thenReturn(Either.right(Success.of("TXN-1")));
+        when(externalApiService.processPayment(saved.get("ORD-2")))
+                .thenReturn(Either.left(Failure.of(ErrorCode.TIMEOUT, "Payment API timeout")));
+        when(orderMessageTransactions.finishProcessingAll(any())).thenAnswer(invocation -> Either.right(invocation.getArgument(0)));
+
+        // when
+        listener.handleOrderBatch(List.of(paid, unpaid));
+
+        // then
+        InOrder inOrder = inOrder(orderMessageTransactions, externalApiService, delayQueueRetry);
+        inOrder.verify(orderMessageTransactions).startProcessingAll(anyList());
+        inOrder.verify(externalApiService, times(2)).processPayment(any());
+        inOrder.verify(orderMessageTransactions).finishProcessingAll(any());
+        inOrder.verify(delayQueueRetry).retryOrRecover(eq(unpaid), any());
+        verify(delayQueueRetry, never()).retryOrRecover(eq(paid), any());
+        verify(messageRecoverer, never()).recover(any(), any());
+        assertThat(saved.get("ORD-1").getStatus()).isEqualTo(Order.OrderStatus.COMPLETED);
+        assertThat(saved.get("ORD-2").getStatus()).isEqualTo(Order.OrderStatus.FAILED);
+    }
+
+    @Test
+    void shouldRouteBatchToDlqOnlyAfterStatusUpdateFails() {
+        // given
+        Message paid = message("ORD-1");
+        Message unpaid = message("ORD-2");
+        Map<String, Order> saved = saved("ORD-1", "ORD-2");
+        when(orderMessageTransactions.startProcessingAll(anyList())).thenReturn(Either.right(saved));
+        when(externalApiService.processPayment(saved.get("ORD-1"))).thenReturn(Either.right(Success.of("TXN-1")));
+        when(externalApiService.processPayment(saved.get("ORD-2")))
+                .thenReturn(Either.left(Failure.of(ErrorCode.TIMEOUT, "Payment API timeout")));
+        when(orderMessageTransactions.finishProcessingAll(any()))
+                .thenReturn(Either.left(Failure.of(ErrorCode.UNKNOWN, "Failed to update order status")));
+
+        // when
+        listener.handleOrderBatch(List.of(paid, unpaid));
+
+        // then
+        InOrder inOrder = inOrder(orderMessageTransactions, messageRecoverer);
+        inOrder.verify(orderMessageTransactions).finishProcessingAll(any());
+        ArgumentCaptor<Throwable> causes = ArgumentCaptor.forClass(Throwable.class);
+        inOrder.verify(messageRecoverer, times(2)).recover(any(), causes.capture());
+        // ORD-2 stays PROCESSING, so retrying its timed out payment would only be rejected as a duplicate
+        assertThat(causes.getAllValues()).extracting(Throwable::getMessage)
+                .containsOnly("Failed to update order status");
+        verify(delayQueueRetry, never()).retryOrRecover(any(), any());
+    }
+
+    @Test
+    void shouldRejectOrdersRepeatedInBatchOrClaimedBefore() {
+        // given
+        Message first = message("ORD-1");
+        Message repeated = message("ORD-1");
+        Message claimedBefore = message("ORD-2");
+        Map<String, Order> saved = saved("ORD-1");
+        when(orderMessageTransactions.startProcessingAll(anyList())).thenReturn(Either.right(saved));
+        when(externalApiService.processPayment(any())).thenReturn(Either.right(Success.of("TXN-1")));
+        when(orderMessageTransactions.finishProcessingAll(any())).thenAnswer(invocation -> Either.right(invocation.getArgument(0)));
+
+        // when
+        listener.handleOrderBatch(List.of(first, repeated, claimedBefore));
+
+        // then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OrderRequest>> requests = ArgumentCaptor.forClass(List.class);
+        verify(orderMessageTransactions).startProcessingAll(requests.capture());
+        assertThat(requests.getValue()).extracting(OrderRequest::getOrderId).containsExactly("ORD-1", "ORD-2");
+        verify(externalApiService, times(1)).processPayment(saved.get("ORD-1"));
+        verify(messageRecoverer).recover(eq(repeated), any());
+        verify(messageRecoverer).recover(eq(claimedBefore), any());
+        verify(messageRecoverer, never()).recover(eq(first), any());
+    }
+
+    @Test
+    void shouldNotCallPaymentsWhenOrdersCannotBeSaved() {
+        // given
+        Message message = message("ORD-1");
+        when(orderMessageTransactions.startProcessingAll(anyList()))
+                .thenReturn(Either.left(Failure.of(ErrorCode.UNKNOWN, "Database error")));
+
+        // when
+        listener.handleOrderBatch(List.of(message));
+
+        // then
+        verify(externalApiService, never()).processPayment(any());
+        verify(orderMessageTransactions, never()).finishProcessingAll(any());
+        verify(messageRecoverer).recover(eq(message), any());
+    }
+
+    @Test
+    void shouldRetryPaymentOfFailedOrderClaimedBefore() {
+        // given - ORD-1 was claimed by an earlier delivery whose payment FAILED
+        OrderBatchRepository orderBatchRepository = mock(OrderBatchRepository.class);
+        IdempotencyStore idempotencyStore = mock(IdempotencyStore.class);
+        MessageListener listener = listenerWith(
+                new OrderMessageTransactions(orderBatchRepository, idempotencyStore, mock(OrderCache.class)));
+        Message replayed = message("ORD-1");
+        Message completedBefore = message("ORD-2");
+        Order restarted = saved("ORD-1").get("ORD-1");
+        when(idempotencyStore.claimAll(any(), any())).thenReturn(Set.of());
+        when(orderBatchRepository.restartAllFailed(List.of("ORD-1", "ORD-2"))).thenReturn(List.of(restarted));
+        when(externalApiService.processPayment(restarted)).thenReturn(Either.right(Success.of("TXN-1")));
+
+        // when
+        listener.handleOrderBatch(List.of(replayed, completedBefore));
+
+        // then
+        verify(externalApiService).processPayment(restarted);
+        verify(orderBatchRepository).updateStatuses(List.of(restarted));
+        assertThat(restarted.getStatus()).isEqualTo(Order.OrderStatus.COMPLETED);
+        verify(messageRecoverer, never()).recover(eq(replayed), any());
+        verify(messageRecoverer).recover(eq(completedBefore), any());
+    }
+
+    @Test
+    void shouldRetryPaymentOfFailedOrderWhoseMarkerWasPurged() {
+        // given - ORD-1 FAILED long ago, so the claim succeeds but the order is already stored
+        OrderBatchRepository orderBatchRepository = mock(OrderBatchRepository.class);
+        IdempotencyStore idempotencyStore = mock(IdempotencyStore.class);
+        MessageListener listener = listenerWith(
+                new OrderMessageTransactions(orderBatchRepository, idempotencyStore, mock(OrderCache.class)));
+        Message replayed = message("ORD-1");
+        Order restarted = saved("ORD-1").get("ORD-1");
+        when(idempotencyStore.claimAll(any(), any())).thenReturn(Set.of("ORD-1"));
+        when(orderBatchRepository.insertAllIfAbsent(anyList())).thenReturn(Set.of());
+        when(orderBatchRepository.restartAllFailed(List.of("ORD-1"))).thenReturn(List.of(restarted));
+        when(externalApiService.processPayment(restarted)).thenReturn(Either.right(Success.of("TXN-1")));
+
+        // when
+        listener.handleOrderBatch(List.of(replayed));
+
+        // then
+        verify(externalApiService).processPayment(restarted);
+        assertThat(restarted.getStatus()).isEqualTo(Order.OrderStatus.COMPLETED);
+        verify(messageRecoverer, never()).recover(any(), any());
+    }
+
+    @Test
+    void shouldRejectRedeliveryOfCompletedOrderFromIdempotencyCache() {
+        // given - ORD-1 was paid by a first delivery
+        OrderBatchRepository orderBatchRepository = mock(OrderBatchRepository.class);
+        IdempotencyStore delegate = mock(IdempotencyStore.class);
+        IdempotencyStore idempotencyStore =
+                new CachingIdempotencyStore(delegate, 10, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        MessageListener listener = listenerWith(
+                new OrderMessageTransactions(orderBatchRepository, idempotencyStore, mock(OrderCache.class)));
+        when(delegate.claimAll(any(), any())).thenReturn(Set.of("ORD-1"));
+        when(orderBatchRepository.insertAllIfAbsent(anyList())).thenReturn(Set.of("ORD-1"), Set.of());
+        when(externalApiService.processPayment(any())).thenReturn(Either.right(Success.of("TXN-1")));
+        listener.handleOrderBatch(List.of(message("ORD-1")));
+        Message redelivered = message("ORD-1");
+
+        // when
+        listener.handleOrderBatch(List.of(redelivered));
+
+        // then - rejected from memory, without the conditional UPDATE of FAILED orders
+        verify(delegate, times(1)).claimAll(any(), any());
+        verify(orderBatchRepository, never()).restartAllFailed(List.of("ORD-1"));
+        verify(externalApiService, times(1)).processPayment(any());
+        verify(messageRecoverer).recover(eq(redelivered), any());
+    }
+
+    @Test
+    void shouldRetryTransientPaymentFailuresThroughDelayQueues() {
+        // given
+        MessageSender messageSender = mock(MessageSender.class);
+        MessageListener listener = listenerWith(orderMessageTransactions,
+                new DelayQueueRetry(messageSender, messageRecoverer, new RabbitMQProperties(), new SimpleMeterRegistry()));
+        Message timedOut = message("ORD-1");
+        Message unavailable = message("ORD-2");
+        Message outOfAttempts = message("ORD-3");
+        outOfAttempts.getMessageProperties().setHeader(DelayQueueRetry.RETRY_ATTEMPTS_HEADER, 2);
+        Message invalid = message("");
+        Map<String, Order> saved = saved("ORD-1", "ORD-2", "ORD-3");
+        when(orderMessageTransactions.startProcessingAll(anyList())).thenReturn(Either.right(saved));
+        when(externalApiService.processPayment(saved.get("ORD-1")))
+                .thenReturn(Either.left(Failure.of(ErrorCode.TIMEOUT, "Payment API timeout")));
+        when(externalApiService.processPayment(saved.get("ORD-2")))
+                .thenReturn(Either.left(Failure.of(ErrorCode.UNAVAILABLE, "Payment API unavailable")));
+        when(externalApiService.processPayment(saved.get("ORD-3")))
+                .thenReturn(Either.left(Failure.of(ErrorCode.TIMEOUT, "Payment API timeout")));
+        when(orderMessageTransactions.finishProcessingAll(any())).thenAnswer(invocation -> Either.right(invocation.getArgument(0)));
+
+        // when
+        listener.handleOrderBatch(List.of(timedOut, unavailable, outOfAttempts, invalid));
+
+        // then - transient failures go to the delay queue of their next attempt
+        verify(messageSender).send("order.retry.1", timedOut);
+        verify(messageSender).send("order.retry.1", unavailable);
+        verify(messageRecoverer, never()).recover(eq(timedOut), any());
+        verify(messageRecoverer, never()).recover(eq(unavailable), any());
+        // the last attempt and non-retryable failures go to the DLQ
+        verify(messageSender, never()).send(anyString(), eq(outOfAttempts));
+        verify(messageRecoverer).recover(eq(outOfAttempts), any());
+        verify(messageSender, never()).send(anyString(), eq(invalid));
+        verify(messageRecoverer).recover(eq(invalid), any());
+    }
+
+    private static Map<String, Order> saved(String... orderIds) {
+        return List.of(orderIds).stream()
+                .map(orderId -> new Order(null, orderId, "CUST-1", new BigDecimal("10.00"), "PROD-1",
+                        Order.OrderStatus.PROCESSING, LocalDateTime.now(), null))
+                .collect(Collectors.toMap(Order::getOrderId, Function.identity()));
+    }
+
+    private MessageListener listenerWith(OrderMessageTransactions transactions) {
+        return listenerWith(transactions, delayQueueRetry);
+    }
+
+    private MessageListener listenerWith(OrderMessageTransactions transactions, DelayQueueRetry retry) {
+        return new MessageListener(new RabbitMQProperties(), transactions,
+                externalApiService, new ObjectMapper(), new SimpleMessageConverter(), messageRecoverer, retry);
+    }
+
+    private Message message(String orderId) {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(++deliveryTag);
+        properties.setConsumerQueue("setup.order.queue");
+        properties.setContentType(MessageProperties.CONTENT_TYPE_TEXT_PLAIN);
+        String body = """
+                {"orderId":"%s","customerId":"CUST-1","amount":10.00,"productCode":"PROD-1"}
+                """.formatted(orderId);
+        return new Message(body.getBytes(), properties);
+    }
+}
@@ -0,0 +1,110 @@
+package com.mrngwozdz.setup.units.messaging;
+
+import com.mrngwozdz.setup.database.entity.Order;
+import com.mrngwozdz.setup.messaging.cache.OrderCacheInvalidationBus;
+import com.mrngwozdz.setup.messaging.model.OrderCacheInvalidation;
+import com.mrngwozdz.setup.properties.OrderCacheProperties;
+import com.mrngwozdz.setup.service.order.data.cache.OrderCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class OrderCacheInvalidationBusTest {
+
+    private final OrderCacheProperties properties = new OrderCacheProperties();
+    private final OrderCache orderCache = new OrderCache(properties, new SimpleMeterRegistry());
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private OrderCacheInvalidationBus bus;
+
+    @BeforeEach
+    void setUp() {
+        bus = new OrderCacheInvalidationBus(orderCache, rabbitTemplate, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldCoalescePendingEvictionsIntoOneMessage() {
+        // given
+        orderCache.evictAfterCommit("ORD-1");
+        orderCache.evictAfterCommit("ORD-2");
+        orderCache.evictAfterCommit("ORD-1");
+
+        // when
+        bus.flush();
+
+        // then
+        assertThat(sentInvalidation().getOrderIds()).containsExactly("ORD-1", "ORD-2");
+    }
+
+    @Test
+    void shouldRetryFailedEvictionsAndReportUnhealthyMeanwhile() {
+        // given
+        doThrow(new AmqpException("connection refused")).when(rabbitTemplate)
+                .convertAndSend(eq(properties.getInvalidation().getExchange()), eq(""), any(Object.class), any(MessagePostProcessor.class));
+        orderCache.evictAfterCommit("ORD-1");
+
+        // when
+        bus.flush();
+
+        // then
+        assertThat(bus.isHealthy()).isFalse();
+        reset(rabbitTemplate);
+        bus.flush();
+        assertThat(sentInvalidation().getOrderIds()).containsExactly("ORD-1");
+    }
+
+    @Test
+    void shouldEvictOrdersInvalidatedByOtherInstances() {
+        // given
+        var order = new Order(1L, "ORD-1", "CUST-1", new BigDecimal("10.00"), "PROD-1",
+                Order.OrderStatus.COMPLETED, LocalDateTime.now(), null);
+        orderCache.put(order, orderCache.generation());
+
+        // when
+        bus.onInvalidation(new OrderCacheInvalidation("other-instance", 1, System.currentTimeMillis(), List.of("ORD-1")));
+
+        // then
+        assertThat(orderCache.get("ORD-1")).isEmpty();
+    }
+
+    @Test
+    void shouldBecomeUnhealthyWhenOwnMessagesDoNotComeBack() throws InterruptedException {
+        // given
+        properties.getInvalidation().setMaxLag(Duration.ofMillis(50));
+        bus.flush();
+        bus.onInvalidation(sentInvalidation());
+        assertThat(bus.isHealthy()).isTrue();
+
+        // when - the next own message is never received
+        orderCache.evictAfterCommit("ORD-1");
+        bus.flush();
+        Thread.sleep(100);
+
+        // then
+        assertThat(bus.isHealthy()).isFalse();
+    }
+
+    private OrderCacheInvalidation sentInvalidation() {
+        var captor = ArgumentCaptor.forClass(Object.class);
+        verify(rabbitTemplate, times(1)).convertAndSend(eq(properties.getInvalidation().getExchange()), eq(""),
+                captor.capture(), any(MessagePostProcessor.class));
+        return (OrderCacheInvalidation) captor.getValue();
+    }
+}
@@ -1 +1,3 @@
-DELETE FROM orders;
\ No newline at end of file
+DELETE FROM orders;
+DELETE FROM order_outbox;
+DELETE FROM processed_messages;
\ No newline at end of file
@@ -0,0 +1,7 @@
+-- Insert test orders for pagination testing
+INSERT INTO orders (order_id, customer_id, amount, product_code, status, created_at, processed_at)
+VALUES ('ORD-101', 'CUST-1', 10.00, 'PROD-1', 'PENDING', '2025-01-01 10:00:00', NULL),
+       ('ORD-102', 'CUST-1', 20.00, 'PROD-1', 'COMPLETED', '2025-01-01 10:00:00', '2025-01-01 10:05:00'),
+       ('ORD-103', 'CUST-2', 30.00, 'PROD-2', 'COMPLETED', '2025-01-01 11:00:00', '2025-01-01 11:05:00'),
+       ('ORD-104', 'CUST-1', 40.00, 'PROD-3', 'FAILED', '2025-01-01 12:00:00', '2025-01-01 12:05:00'),
+       ('ORD-105', 'CUST-2', 50.00, 'PROD-4', 'PENDING', '2025-01-01 13:00:00', NULL);